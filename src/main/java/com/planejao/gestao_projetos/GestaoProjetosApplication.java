@@ -3,7 +3,9 @@ package com.planejao.gestao_projetos;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 @OpenAPIDefinition
+@EnableScheduling
 @SpringBootApplication
 public class GestaoProjetosApplication {
 
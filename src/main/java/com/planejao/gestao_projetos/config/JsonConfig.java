@@ -0,0 +1,18 @@
+package com.planejao.gestao_projetos.config;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JsonConfig {
+
+    // O pool padrão do Jackson guarda os buffers de escrita num ThreadLocal; com virtual threads cada requisição é uma
+    // thread nova e nada é reaproveitado. Um pool compartilhado devolve os buffers ao fechar cada gerador.
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sharedBufferPool() {
+        return builder -> builder.postConfigurer(mapper ->
+                mapper.getFactory().setRecyclerPool(JsonRecyclerPools.sharedConcurrentDequePool()));
+    }
+}
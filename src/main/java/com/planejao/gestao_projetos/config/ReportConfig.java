@@ -0,0 +1,19 @@
+package com.planejao.gestao_projetos.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ReportConfig {
+
+    // Cada dimensão do relatório roda numa thread própria e, portanto, numa conexão própria do pool
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService reportExecutor(@Value("${report.parallelism:3}") int parallelism) {
+        return Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("report-"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.planejao.gestao_projetos.config;
+
+import com.planejao.gestao_projetos.sharding.ShardRebalancer;
+import com.planejao.gestao_projetos.sharding.ShardRoutingDataSource;
+import com.planejao.gestao_projetos.sharding.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    /**
+     * Com {@code sharding.enabled=true} o DataSource da aplicação roteia cada conexão para um dos shards. O proxy lazy
+     * adia a abertura da conexão até o primeiro comando SQL, para que o service escolha o shard já dentro da transação.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "sharding.enabled", havingValue = "true")
+    public DataSource dataSource(ShardingProperties properties) {
+        if (properties.shards().size() < 2) {
+            throw new IllegalStateException("sharding.enabled=true exige ao menos dois shards em sharding.shards");
+        }
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int i = 0; i < properties.shards().size(); i++) {
+            HikariDataSource shard = shardDataSource(i, properties.shards().get(i));
+            Flyway.configure().dataSource(shard).locations("classpath:db/migration").baselineOnMigrate(true)
+                    .load().migrate();
+            shards.add(shard);
+        }
+        ShardRebalancer rebalancer = new ShardRebalancer(shards);
+        if (properties.rebalance()) {
+            rebalancer.rebalance();
+        }
+        rebalancer.validate();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(new ShardRoutingDataSource(shards));
+        proxy.setDefaultAutoCommit(false);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    private HikariDataSource shardDataSource(int index, ShardingProperties.Shard shard) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("shard-" + index);
+        dataSource.setJdbcUrl(shard.url());
+        dataSource.setUsername(shard.username());
+        dataSource.setPassword(shard.password());
+        dataSource.setAutoCommit(false);
+        if (shard.maxPoolSize() > 0) {
+            dataSource.setMaximumPoolSize(shard.maxPoolSize());
+        }
+        return dataSource;
+    }
+}
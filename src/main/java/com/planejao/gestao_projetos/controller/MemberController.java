@@ -1,15 +1,21 @@
 package com.planejao.gestao_projetos.controller;
 
+import com.planejao.gestao_projetos.dto.CursorPageDTO;
+import com.planejao.gestao_projetos.dto.MemberCountDTO;
 import com.planejao.gestao_projetos.dto.MemberDTO;
 import com.planejao.gestao_projetos.service.MemberService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/members")
@@ -37,30 +43,54 @@ public class MemberController {
         return member;
     }
 
-    @Operation(summary = "Lista todos os membros")
+    @Operation(summary = "Lista membros com paginação")
     @GetMapping
-    public List<MemberDTO> getAll() {
-        return service.getAllMembers();
+    public Page<MemberDTO> getAll(Pageable pageable) {
+        return service.getMembers(pageable);
+    }
+
+    @Operation(summary = "Lista membros por cursor (after = último ID recebido, 0 na primeira página)")
+    @GetMapping(params = "after")
+    public CursorPageDTO<MemberDTO> getAll(@RequestParam long after, @RequestParam(defaultValue = "50") int size) {
+        return service.getMembersAfter(after, size);
+    }
+
+    @Operation(summary = "Exporta todos os membros (opcionalmente de um cargo), sem paginação, em JSON transmitido em fluxo")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Optional<String> cargo) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(service.exportMembers(cargo));
     }
 
     @Operation(summary = "Lista membros por cargo")
     @GetMapping("/cargo/{cargo}")
-    public List<MemberDTO> getByCargo(@PathVariable String cargo) {
-        return service.getMembersByCargo(cargo);
+    public Page<MemberDTO> getByCargo(@PathVariable String cargo, Pageable pageable) {
+        return service.getMembersByCargo(cargo, pageable);
+    }
+
+    @Operation(summary = "Lista membros por cargo por cursor")
+    @GetMapping(value = "/cargo/{cargo}", params = "after")
+    public CursorPageDTO<MemberDTO> getByCargo(@PathVariable String cargo, @RequestParam long after,
+                                               @RequestParam(defaultValue = "50") int size) {
+        return service.getMembersByCargoAfter(cargo, after, size);
+    }
+
+    @Operation(summary = "Conta membros por cargo")
+    @GetMapping("/count")
+    public MemberCountDTO count() {
+        return service.countMembers();
     }
 
     @Operation(summary = "Teste - Verifica se membros estão carregados")
     @GetMapping("/test")
     public Map<String, Object> test() {
-        List<MemberDTO> allMembers = service.getAllMembers();
-        List<MemberDTO> gerentes = service.getMembersByCargo("gerente");
-        List<MemberDTO> funcionarios = service.getMembersByCargo("funcionario");
+        MemberCountDTO counts = service.countMembers();
 
         Map<String, Object> result = new HashMap<>();
-        result.put("total", allMembers.size());
-        result.put("gerentes", gerentes.size());
-        result.put("funcionarios", funcionarios.size());
-        result.put("allMembers", allMembers);
+        result.put("total", counts.total());
+        result.put("gerentes", counts.porCargo().getOrDefault("gerente", 0L));
+        result.put("funcionarios", counts.porCargo().getOrDefault("funcionario", 0L));
 
         return result;
     }
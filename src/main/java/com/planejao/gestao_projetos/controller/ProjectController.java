@@ -2,38 +2,122 @@ package com.planejao.gestao_projetos.controller;
 
 import com.planejao.gestao_projetos.domain.StatusProjeto;
 import com.planejao.gestao_projetos.dto.*;
+import com.planejao.gestao_projetos.service.BulkStatusService;
+import com.planejao.gestao_projetos.service.PortfolioSnapshot;
+import com.planejao.gestao_projetos.service.ProjectChangeFeed;
+import com.planejao.gestao_projetos.service.ProjectExport;
 import com.planejao.gestao_projetos.service.ProjectService;
+import com.planejao.gestao_projetos.service.ProjectTimeline;
+import com.planejao.gestao_projetos.service.ProjectWritePipeline;
+import com.planejao.gestao_projetos.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/projects")
 public class ProjectController {
 
     private final ProjectService service;
+    private final ReportService reportService;
+    private final ProjectWritePipeline writePipeline;
+    private final ProjectChangeFeed changeFeed;
+    private final PortfolioSnapshot portfolioSnapshot;
+    private final ProjectTimeline timeline;
+    private final BulkStatusService bulkStatusService;
+    private final ProjectExport export;
+    private final boolean asyncWritesEnabled;
 
-    public ProjectController(ProjectService service) {
+    public ProjectController(ProjectService service, ReportService reportService, ProjectWritePipeline writePipeline,
+                             ProjectChangeFeed changeFeed, PortfolioSnapshot portfolioSnapshot, ProjectTimeline timeline,
+                             BulkStatusService bulkStatusService, ProjectExport export,
+                             @Value("${async-writes.enabled:true}") boolean asyncWritesEnabled) {
         this.service = service;
+        this.reportService = reportService;
+        this.writePipeline = writePipeline;
+        this.changeFeed = changeFeed;
+        this.portfolioSnapshot = portfolioSnapshot;
+        this.timeline = timeline;
+        this.bulkStatusService = bulkStatusService;
+        this.export = export;
+        this.asyncWritesEnabled = asyncWritesEnabled;
     }
 
-    @Operation(summary = "Lista projetos com paginação e filtro por status")
+    @Operation(summary = "Lista projetos com paginação e filtro por status (includeArchived=true inclui os arquivados, "
+            + "overdue=true só os atrasados)")
     @GetMapping
-    public Page<ProjectDTO> list(Pageable pageable, @RequestParam Optional<String> status) {
-        Optional<StatusProjeto> statusFilter = status.map(s -> {
-            try {
-                return StatusProjeto.valueOf(s.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Status inválido");
-            }
-        });
-        return service.list(pageable, statusFilter);
+    public Page<ProjectDTO> list(Pageable pageable, @RequestParam Optional<String> status,
+                                 @RequestParam(defaultValue = "false") boolean includeArchived,
+                                 @RequestParam(defaultValue = "false") boolean overdue) {
+        if (overdue) {
+            return service.listOverdue(pageable, parseStatusFilter(status));
+        }
+        return service.list(pageable, parseStatusFilter(status), includeArchived);
+    }
+
+    @Operation(summary = "Lista projetos com os relacionamentos pedidos em 'expand' (membros, gerente) inline")
+    @GetMapping(params = {"expand", "!fields"})
+    public Page<?> list(Pageable pageable, @RequestParam Optional<String> status, @RequestParam String expand,
+                        @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (!ProjectExpansion.parse(expand).contains(ProjectExpansion.MEMBROS)) {
+            return service.list(pageable, parseStatusFilter(status), includeArchived);
+        }
+        return service.listExpanded(pageable, parseStatusFilter(status), includeArchived);
+    }
+
+    @Operation(summary = "Lista projetos retornando apenas os campos pedidos em 'fields'")
+    @GetMapping(params = "fields")
+    public Page<Map<String, Object>> list(Pageable pageable, @RequestParam Optional<String> status,
+                                          @RequestParam String fields, @RequestParam Optional<String> expand,
+                                          @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return service.list(pageable, parseStatusFilter(status), ProjectField.parse(fields), includeArchived,
+                parseExpand(expand));
+    }
+
+    @Operation(summary = "Assina o feed de alterações de projetos (Server-Sent Events), com retomada por Last-Event-ID")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam Optional<String> status,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(parseStatusFilter(status), lastEventId);
+    }
+
+    @Operation(summary = "Projetos cujo período (início até término real ou previsto) se sobrepõe à janela [from, to], "
+            + "opcionalmente de um gerente ou membro, em JSON transmitido em fluxo")
+    @GetMapping("/timeline")
+    public ResponseEntity<StreamingResponseBody> timeline(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam Optional<Long> gerenteId, @RequestParam Optional<Long> membroId,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(timeline.stream(from, to, gerenteId, membroId, includeArchived));
+    }
+
+    @Operation(summary = "Exporta todos os projetos (opcionalmente filtrados por status), sem paginação, em JSON "
+            + "transmitido em fluxo, em ordem não garantida")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Optional<String> status,
+                                                        @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(export.export(parseStatusFilter(status), includeArchived));
     }
 
     @Operation(summary = "Obtém projeto por ID")
@@ -42,16 +126,37 @@ public class ProjectController {
         return service.getById(id);
     }
 
+    @Operation(summary = "Obtém projeto por ID com os relacionamentos pedidos em 'expand' (membros, gerente) inline")
+    @GetMapping(value = "/{id}", params = {"expand", "!fields"})
+    public Object get(@PathVariable Long id, @RequestParam String expand) {
+        if (!ProjectExpansion.parse(expand).contains(ProjectExpansion.MEMBROS)) {
+            return service.getById(id);
+        }
+        return service.getByIdExpanded(id);
+    }
+
+    @Operation(summary = "Obtém projeto por ID retornando apenas os campos pedidos em 'fields'")
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> get(@PathVariable Long id, @RequestParam String fields,
+                                   @RequestParam Optional<String> expand) {
+        return service.getById(id, ProjectField.parse(fields), parseExpand(expand));
+    }
+
     @Operation(summary = "Cria novo projeto")
     @PostMapping
     public ProjectDTO create(@Valid @RequestBody ProjectRequestDTO dto) {
         return service.create(dto);
     }
 
-    @Operation(summary = "Atualiza projeto")
+    @Operation(summary = "Atualiza projeto; com Prefer: respond-async a escrita é enfileirada e o acompanhamento só "
+            + "é consultável na instância que a aceitou")
     @PutMapping("/{id}")
-    public ProjectDTO update(@PathVariable Long id, @Valid @RequestBody ProjectUpdateDTO dto) {
-        return service.update(id, dto);
+    public ResponseEntity<?> update(@PathVariable Long id, @Valid @RequestBody ProjectUpdateDTO dto,
+                                    @RequestHeader(value = "Prefer", required = false) List<String> prefer) {
+        if (asyncWritesEnabled && ProjectWritePipeline.respondAsync(prefer)) {
+            return accepted(writePipeline.submitUpdate(id, dto));
+        }
+        return ResponseEntity.ok(service.update(id, dto));
     }
 
     @Operation(summary = "Exclui projeto")
@@ -61,15 +166,29 @@ public class ProjectController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Altera status do projeto")
+    @Operation(summary = "Altera o status de vários projetos (lista de ids ou filtro por status atual e gerente), "
+            + "com o resultado de cada um")
+    @PatchMapping("/status")
+    public BulkStatusResultDTO changeStatusBulk(@RequestBody BulkStatusRequestDTO request) {
+        return bulkStatusService.changeStatus(request);
+    }
+
+    @Operation(summary = "Altera status do projeto; com Prefer: respond-async a escrita é enfileirada e o "
+            + "acompanhamento só é consultável na instância que a aceitou")
     @PatchMapping("/{id}/status")
-    public ProjectDTO changeStatus(@PathVariable Long id, @RequestBody Map<String, String> body) {
-        String newStatusStr = body.get("status");
-        if (newStatusStr == null) {
-            throw new IllegalArgumentException("Status requerido");
+    public ResponseEntity<?> changeStatus(@PathVariable Long id, @RequestBody Map<String, String> body,
+                                          @RequestHeader(value = "Prefer", required = false) List<String> prefer) {
+        if (asyncWritesEnabled && ProjectWritePipeline.respondAsync(prefer)) {
+            return accepted(writePipeline.submitStatus(id, parseStatus(body)));
         }
-        StatusProjeto newStatus = StatusProjeto.valueOf(newStatusStr.toUpperCase());
-        return service.changeStatus(id, newStatus);
+        return ResponseEntity.ok(service.changeStatus(id, parseStatus(body)));
+    }
+
+    @Operation(summary = "Consulta o andamento de uma escrita assíncrona aceita por esta instância (os tickets ficam "
+            + "em memória e não sobrevivem a um reinício)")
+    @GetMapping("/writes/{trackingId}")
+    public WriteTicketDTO writeStatus(@PathVariable UUID trackingId) {
+        return writePipeline.getTicket(trackingId);
     }
 
     @Operation(summary = "Adiciona membro ao projeto")
@@ -89,4 +208,54 @@ public class ProjectController {
     public ReportDTO report() {
         return service.getReport();
     }
+
+    @Operation(summary = "Gera relatório do portfólio por gerente, faixa de risco e mês de início")
+    @GetMapping("/report/dimensions")
+    public DimensionalReportDTO dimensionalReport() {
+        return reportService.getDimensionalReport();
+    }
+
+    @Operation(summary = "Agrega os projetos que passam no filtro ad hoc (status, ativo, intervalos de início e "
+            + "previsão, orçamento, quantidade de membros, gerente) sobre o snapshot em memória; alterações feitas por "
+            + "outras réplicas aparecem em até portfolio-snapshot.poll-interval-ms")
+    @GetMapping("/report/portfolio")
+    public PortfolioSummaryDTO portfolio(PortfolioFilter filter) {
+        return portfolioSnapshot.summarize(filter);
+    }
+
+    @Operation(summary = "Simula limites de risco e deslocamentos de cronograma sobre o portfólio inteiro, sem alterar "
+            + "projetos: distribuição e orçamento por faixa, hoje e no cenário, e os projetos que trocariam de faixa")
+    @PostMapping("/simulate")
+    public SimulationResultDTO simulate(@RequestBody SimulationScenarioDTO scenario) {
+        return portfolioSnapshot.simulate(scenario);
+    }
+
+    private Optional<StatusProjeto> parseStatusFilter(Optional<String> status) {
+        return status.map(s -> {
+            try {
+                return StatusProjeto.valueOf(s.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Status inválido");
+            }
+        });
+    }
+
+    private Set<ProjectExpansion> parseExpand(Optional<String> expand) {
+        return expand.map(ProjectExpansion::parse).orElse(Set.of());
+    }
+
+    private StatusProjeto parseStatus(Map<String, String> body) {
+        String newStatusStr = body.get("status");
+        if (newStatusStr == null) {
+            throw new IllegalArgumentException("Status requerido");
+        }
+        return StatusProjeto.valueOf(newStatusStr.toUpperCase());
+    }
+
+    private ResponseEntity<WriteTicketDTO> accepted(WriteTicketDTO ticket) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/projects/writes/" + ticket.trackingId()))
+                .header("Preference-Applied", "respond-async")
+                .body(ticket);
+    }
 }
\ No newline at end of file
@@ -16,6 +16,11 @@ import java.util.List;
 @Table(name = "projects")
 public class Project {
 
+    public static final BigDecimal LIMITE_ORCAMENTO_MEDIO = new BigDecimal("100000");
+    public static final BigDecimal LIMITE_ORCAMENTO_ALTO = new BigDecimal("500000");
+    public static final int MESES_RISCO_MEDIO = 3;
+    public static final int MESES_RISCO_ALTO = 6;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -43,18 +48,32 @@ public class Project {
     @CollectionTable(name = "project_membros", joinColumns = @JoinColumn(name = "project_id"))
     private List<Long> membros = new ArrayList<>();
 
+    // Mantido pelo ProjectOverdueScanner conforme o tempo passa; escritas pelo JPA já recalculam na hora
+    private boolean atrasado;
+
+    @PrePersist
+    @PreUpdate
+    void atualizarAtraso() {
+        atrasado = status != null && status.isActive()
+                && previsaoTermino != null && previsaoTermino.isBefore(LocalDate.now());
+    }
+
     public String getRisco() {
+        return calcularRisco(dataInicio, previsaoTermino, orcamentoTotal);
+    }
+
+    public static String calcularRisco(LocalDate dataInicio, LocalDate previsaoTermino, BigDecimal orcamentoTotal) {
         if (dataInicio == null || previsaoTermino == null || orcamentoTotal == null) {
             return "Indefinido";
         }
         long meses = ChronoUnit.MONTHS.between(dataInicio, previsaoTermino);
-        BigDecimal low = new BigDecimal("100000");
-        BigDecimal high = new BigDecimal("500000");
-        if (orcamentoTotal.compareTo(high) > 0 || meses > 6) {
+        BigDecimal low = LIMITE_ORCAMENTO_MEDIO;
+        BigDecimal high = LIMITE_ORCAMENTO_ALTO;
+        if (orcamentoTotal.compareTo(high) > 0 || meses > MESES_RISCO_ALTO) {
             return "Alto";
-        } else if (orcamentoTotal.compareTo(low) > 0 || (meses > 3 && meses <= 6)) {
+        } else if (orcamentoTotal.compareTo(low) > 0 || (meses > MESES_RISCO_MEDIO && meses <= MESES_RISCO_ALTO)) {
             return "Medio";
-        } else if (orcamentoTotal.compareTo(low) <= 0 && meses <= 3) {
+        } else if (orcamentoTotal.compareTo(low) <= 0 && meses <= MESES_RISCO_MEDIO) {
             return "Baixo";
         } else {
             return "Medio"; // Fallback para casos borda
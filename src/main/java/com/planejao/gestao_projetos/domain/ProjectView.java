@@ -0,0 +1,58 @@
+package com.planejao.gestao_projetos.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.NotFound;
+import org.hibernate.annotations.NotFoundAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Projeto lido da view {@code projects_all}, que junta a camada quente ({@code projects}) e a fria
+ * ({@code projects_archive}). Somente leitura: projetos arquivados não são mais alterados.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "projects_all")
+public class ProjectView {
+
+    @Id
+    private Long id;
+
+    private String nome;
+
+    private LocalDate dataInicio;
+
+    private LocalDate previsaoTermino;
+
+    private LocalDate dataRealTermino;
+
+    private BigDecimal orcamentoTotal;
+
+    private String descricao;
+
+    // A camada fria não tem chave estrangeira para members: o gerente de um projeto arquivado pode ter sido excluído
+    @ManyToOne
+    @NotFound(action = NotFoundAction.IGNORE)
+    @JoinColumn(name = "gerente_id", referencedColumnName = "id")
+    private Member gerente;
+
+    @Enumerated(EnumType.STRING)
+    private StatusProjeto status;
+
+    private boolean arquivado;
+
+    @ElementCollection
+    @CollectionTable(name = "project_membros_all", joinColumns = @JoinColumn(name = "project_id"))
+    @Column(name = "membros")
+    private List<Long> membros = new ArrayList<>();
+
+    public String getRisco() {
+        return Project.calcularRisco(dataInicio, previsaoTermino, orcamentoTotal);
+    }
+}
@@ -1,9 +1,38 @@
 package com.planejao.gestao_projetos.domain;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum StatusProjeto {
     EM_ANALISE, ANALISE_REALIZADA, ANALISE_APROVADA, INICIADO, PLANEJADO, EM_ANDAMENTO, ENCERRADO, CANCELADO;
 
+    // Tabela de transições: cada status da sequência segue só para o próximo e qualquer status pode ser cancelado
+    private static final Map<StatusProjeto, Set<StatusProjeto>> ANTERIORES = new EnumMap<>(StatusProjeto.class);
+
+    static {
+        for (StatusProjeto status : values()) {
+            ANTERIORES.put(status, EnumSet.noneOf(StatusProjeto.class));
+        }
+        for (int i = EM_ANALISE.ordinal(); i < ENCERRADO.ordinal(); i++) {
+            ANTERIORES.get(values()[i + 1]).add(values()[i]);
+        }
+        ANTERIORES.get(CANCELADO).addAll(EnumSet.allOf(StatusProjeto.class));
+        ANTERIORES.replaceAll((status, anteriores) -> Collections.unmodifiableSet(anteriores));
+    }
+
     public boolean isActive() {
         return this != ENCERRADO && this != CANCELADO;
     }
-}
\ No newline at end of file
+
+    public boolean canTransitionTo(StatusProjeto novo) {
+        return ANTERIORES.get(novo).contains(this);
+    }
+
+    // Projetos sem status (a coluna aceita nulo) não estão na sequência, mas podem ser cancelados
+    public static boolean canTransition(StatusProjeto atual, StatusProjeto novo) {
+        return atual == null ? novo == CANCELADO : atual.canTransitionTo(novo);
+    }
+}
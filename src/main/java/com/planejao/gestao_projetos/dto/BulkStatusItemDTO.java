@@ -0,0 +1,7 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkStatusItemDTO(Long id, StatusProjeto statusAnterior, BulkStatusOutcome resultado) {}
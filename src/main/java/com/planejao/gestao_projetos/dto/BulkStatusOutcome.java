@@ -0,0 +1,6 @@
+package com.planejao.gestao_projetos.dto;
+
+// CONFLITO: o projeto mudou de status entre a validação e o UPDATE
+public enum BulkStatusOutcome {
+    ALTERADO, TRANSICAO_INVALIDA, NAO_ENCONTRADO, CONFLITO
+}
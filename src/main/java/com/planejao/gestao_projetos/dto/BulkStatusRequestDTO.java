@@ -0,0 +1,9 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.util.List;
+
+// PATCH /projects/status: ids explícitos ou um filtro (status atual, opcionalmente de um gerente), nunca os dois
+public record BulkStatusRequestDTO(List<Long> ids, Filtro filtro, String status) {
+
+    public record Filtro(String statusAtual, Long gerenteId) {}
+}
@@ -0,0 +1,8 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+
+import java.util.List;
+
+// Um item por projeto pedido (ou selecionado pelo filtro), na mesma ordem
+public record BulkStatusResultDTO(StatusProjeto status, long alterados, List<BulkStatusItemDTO> resultados) {}
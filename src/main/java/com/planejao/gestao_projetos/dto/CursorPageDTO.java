@@ -0,0 +1,8 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.util.List;
+
+/**
+ * Página por cursor: {@code nextCursor} é o valor de {@code after} da próxima página, ou {@code null} no fim.
+ */
+public record CursorPageDTO<T>(List<T> content, Long nextCursor) {}
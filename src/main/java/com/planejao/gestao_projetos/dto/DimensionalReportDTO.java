@@ -0,0 +1,6 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.util.List;
+
+public record DimensionalReportDTO(List<ReportBucketDTO> porGerente, List<ReportBucketDTO> porRisco,
+                                   List<ReportBucketDTO> porMesInicio) {}
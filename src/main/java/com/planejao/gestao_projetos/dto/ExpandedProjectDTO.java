@@ -0,0 +1,22 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/** {@link ProjectDTO} com os membros inline ({@code ?expand=membros}). */
+public record ExpandedProjectDTO(Long id, String nome, LocalDate dataInicio, LocalDate previsaoTermino, LocalDate dataRealTermino,
+                                 BigDecimal orcamentoTotal, String descricao, MemberDTO gerente, StatusProjeto status, String risco,
+                                 List<MemberDTO> membros) {
+
+    /** Membros que não existem mais (citados só pela camada fria) ficam de fora. */
+    public static ExpandedProjectDTO of(ProjectDTO dto, Map<Long, MemberDTO> members) {
+        return new ExpandedProjectDTO(dto.id(), dto.nome(), dto.dataInicio(), dto.previsaoTermino(), dto.dataRealTermino(),
+                dto.orcamentoTotal(), dto.descricao(), dto.gerente(), dto.status(), dto.risco(),
+                dto.membros() == null ? null : dto.membros().stream().map(members::get).filter(Objects::nonNull).toList());
+    }
+}
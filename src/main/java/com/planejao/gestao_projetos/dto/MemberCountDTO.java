@@ -0,0 +1,5 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.util.Map;
+
+public record MemberCountDTO(long total, Map<String, Long> porCargo) {}
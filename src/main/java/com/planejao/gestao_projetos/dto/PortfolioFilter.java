@@ -0,0 +1,27 @@
+package com.planejao.gestao_projetos.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Filtro ad hoc do portfólio (parâmetros de {@code GET /projects/report/portfolio}); campos nulos não filtram.
+ * {@code status} aceita vários valores separados por vírgula e intervalos de data incluem os extremos.
+ */
+public record PortfolioFilter(String status,
+                              Boolean ativo,
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicioDe,
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicioAte,
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate previsaoDe,
+                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate previsaoAte,
+                              BigDecimal orcamentoMin,
+                              BigDecimal orcamentoMax,
+                              Integer minMembros,
+                              Integer maxMembros,
+                              Long gerenteId) {
+
+    public static PortfolioFilter empty() {
+        return new PortfolioFilter(null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
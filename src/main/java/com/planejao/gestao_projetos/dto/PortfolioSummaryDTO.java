@@ -0,0 +1,10 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Agregados dos projetos que passaram no filtro de GET /projects/report/portfolio; a duração real considera só os
+// projetos com término registrado
+public record PortfolioSummaryDTO(long quantidade, BigDecimal orcamentoTotal, BigDecimal orcamentoMedio,
+                                  double mediaMembros, double mediaDuracaoPrevistaDias, double mediaDuracaoRealDias,
+                                  Map<String, Long> quantidadePorStatus) {}
@@ -0,0 +1,25 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+
+import java.time.Instant;
+
+// Evento compacto do feed: o cliente recarrega o projeto só se o interessar. statusAnterior só vem em STATUS_ALTERADO.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProjectChangeEvent(ProjectChangeType tipo, Long projectId, StatusProjeto status,
+                                 StatusProjeto statusAnterior, Instant em) {
+
+    public static ProjectChangeEvent of(ProjectChangeType tipo, Long projectId, StatusProjeto status) {
+        return new ProjectChangeEvent(tipo, projectId, status, null, Instant.now());
+    }
+
+    public static ProjectChangeEvent statusChanged(Long projectId, StatusProjeto anterior, StatusProjeto novo) {
+        return new ProjectChangeEvent(ProjectChangeType.STATUS_ALTERADO, projectId, novo, anterior, Instant.now());
+    }
+
+    // Um filtro por status também recebe os projetos que acabaram de sair dele
+    public boolean matches(StatusProjeto filter) {
+        return filter == status || filter == statusAnterior;
+    }
+}
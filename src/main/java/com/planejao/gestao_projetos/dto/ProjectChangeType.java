@@ -0,0 +1,5 @@
+package com.planejao.gestao_projetos.dto;
+
+public enum ProjectChangeType {
+    CRIADO, ATUALIZADO, STATUS_ALTERADO, MEMBROS_ALTERADOS, EXCLUIDO, ARQUIVADO
+}
@@ -0,0 +1,45 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.planejao.gestao_projetos.exception.ProjectException;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Relacionamentos que podem ser expandidos em {@code ?expand=}. {@code gerente} já vem como {@link MemberDTO} em toda
+ * resposta e é aceito só para o cliente não precisar distinguir os dois.
+ */
+public enum ProjectExpansion {
+    MEMBROS("membros"),
+    GERENTE("gerente");
+
+    private final String nome;
+
+    ProjectExpansion(String nome) {
+        this.nome = nome;
+    }
+
+    public String nome() {
+        return nome;
+    }
+
+    public static Set<ProjectExpansion> parse(String expand) {
+        EnumSet<ProjectExpansion> result = EnumSet.noneOf(ProjectExpansion.class);
+        for (String name : expand.split(",")) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                result.add(fromName(trimmed));
+            }
+        }
+        return result;
+    }
+
+    private static ProjectExpansion fromName(String name) {
+        for (ProjectExpansion expansion : values()) {
+            if (expansion.nome.equals(name)) {
+                return expansion;
+            }
+        }
+        throw new ProjectException("Expansão inválida: " + name);
+    }
+}
@@ -0,0 +1,148 @@
+package com.planejao.gestao_projetos.dto;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Campos de {@link ProjectDTO} que podem ser pedidos em {@code ?fields=}. A ordem de declaração é a ordem do JSON.
+ */
+public enum ProjectField {
+    ID("id"),
+    NOME("nome"),
+    DATA_INICIO("dataInicio"),
+    PREVISAO_TERMINO("previsaoTermino"),
+    DATA_REAL_TERMINO("dataRealTermino"),
+    ORCAMENTO_TOTAL("orcamentoTotal"),
+    DESCRICAO("descricao"),
+    GERENTE("gerente"),
+    STATUS("status"),
+    RISCO("risco"),
+    MEMBROS("membros");
+
+    private final String nome;
+
+    ProjectField(String nome) {
+        this.nome = nome;
+    }
+
+    public String nome() {
+        return nome;
+    }
+
+    /** Campos que são colunas da própria tabela {@code projects}. */
+    public boolean isColumn() {
+        return this != GERENTE && this != RISCO && this != MEMBROS;
+    }
+
+    /** Valor do campo num {@link ProjectDTO} já montado (projetos da camada fria, que não passam pelas consultas por campo). */
+    public Object valueOf(ProjectDTO dto) {
+        return switch (this) {
+            case ID -> dto.id();
+            case NOME -> dto.nome();
+            case DATA_INICIO -> dto.dataInicio();
+            case PREVISAO_TERMINO -> dto.previsaoTermino();
+            case DATA_REAL_TERMINO -> dto.dataRealTermino();
+            case ORCAMENTO_TOTAL -> dto.orcamentoTotal();
+            case DESCRICAO -> dto.descricao();
+            case GERENTE -> dto.gerente();
+            case STATUS -> dto.status();
+            case RISCO -> dto.risco();
+            case MEMBROS -> dto.membros();
+        };
+    }
+
+    public static Map<String, Object> select(ProjectDTO dto, Set<ProjectField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (ProjectField field : fields) {
+            row.put(field.nome, field.valueOf(dto));
+        }
+        return row;
+    }
+
+    /** Campos gravados como texto, que o banco ordena pela collation. */
+    public boolean isText() {
+        return this == NOME || this == DESCRICAO || this == STATUS;
+    }
+
+    /**
+     * Ordenação das consultas de cada shard: os campos de texto usam a collation {@code "C"}, por código Unicode,
+     * para que a ordem não dependa da collation de cada banco e seja a mesma de {@link #comparator}. As consultas das
+     * listagens usam o alias {@code p}; no HQL a collation vai entre crases e chega ao SQL como {@code "C"}.
+     */
+    public static Sort collated(Sort sort) {
+        Sort result = Sort.unsorted();
+        for (Sort.Order order : sort) {
+            ProjectField field = fromName(order.getProperty());
+            result = result.and(field.isText()
+                    ? JpaSort.unsafe(order.getDirection(), "collate(p." + field.nome + " as `C`)")
+                    : Sort.by(order));
+        }
+        return result;
+    }
+
+    /**
+     * Mesma ordem que o banco aplica para o {@link #collated} (nulos por último no ASC, primeiro no DESC), usada para
+     * intercalar as páginas vindas de shards diferentes. O status é gravado pelo nome e os textos são comparados por
+     * código Unicode, como na collation {@code "C"}. Só colunas da tabela podem ser ordenadas.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Comparator<ProjectDTO> comparator(Sort sort) {
+        Comparator<ProjectDTO> result = null;
+        for (Sort.Order order : sort) {
+            ProjectField field = fromName(order.getProperty());
+            if (!field.isColumn()) {
+                throw new ProjectException("Ordenação por '" + field.nome + "' não suportada");
+            }
+            Comparator<ProjectDTO> byField = field.isText()
+                    ? Comparator.comparing(field::textOf, Comparator.nullsLast(ProjectField::compareCodePoints))
+                    : Comparator.comparing(dto -> (Comparable) field.valueOf(dto),
+                            Comparator.nullsLast(Comparator.naturalOrder()));
+            byField = order.isAscending() ? byField : byField.reversed();
+            result = result == null ? byField : result.thenComparing(byField);
+        }
+        return result != null ? result : Comparator.comparing(ProjectDTO::id);
+    }
+
+    private String textOf(ProjectDTO dto) {
+        Object value = valueOf(dto);
+        return value instanceof StatusProjeto status ? status.name() : (String) value;
+    }
+
+    // String.compareTo compara unidades UTF-16, que diferem do código Unicode fora do plano básico
+    private static int compareCodePoints(String a, String b) {
+        return Arrays.compare(a.codePoints().toArray(), b.codePoints().toArray());
+    }
+
+    public static Set<ProjectField> parse(String fields) {
+        EnumSet<ProjectField> result = EnumSet.noneOf(ProjectField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            result.add(fromName(trimmed));
+        }
+        if (result.isEmpty()) {
+            throw new ProjectException("Informe ao menos um campo em 'fields'");
+        }
+        return result;
+    }
+
+    private static ProjectField fromName(String name) {
+        for (ProjectField field : values()) {
+            if (field.nome.equals(name)) {
+                return field;
+            }
+        }
+        throw new ProjectException("Campo inválido: " + name);
+    }
+}
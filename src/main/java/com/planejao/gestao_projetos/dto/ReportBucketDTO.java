@@ -0,0 +1,5 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.math.BigDecimal;
+
+public record ReportBucketDTO(String chave, long quantidade, BigDecimal orcamentoTotal, double mediaDuracaoDias) {}
@@ -0,0 +1,4 @@
+package com.planejao.gestao_projetos.dto;
+
+// Projeto que mudaria de faixa de risco no cenário simulado
+public record RiskChangeDTO(Long projetoId, String riscoAtual, String riscoSimulado) {}
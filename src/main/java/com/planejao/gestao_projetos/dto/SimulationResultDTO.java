@@ -0,0 +1,11 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Distribuição por faixa de risco hoje e no cenário, com o orçamento somado por faixa; mudancas traz os primeiros
+// projetos (por id) que trocariam de faixa e totalMudancas a contagem completa
+public record SimulationResultDTO(long quantidade, Map<String, Long> quantidadeAtual, Map<String, Long> quantidadeSimulada,
+                                  Map<String, BigDecimal> orcamentoAtual, Map<String, BigDecimal> orcamentoSimulado,
+                                  long totalMudancas, List<RiskChangeDTO> mudancas) {}
@@ -0,0 +1,10 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.math.BigDecimal;
+
+// POST /projects/simulate: limites de risco propostos (nulos mantêm os atuais) e um deslocamento da previsão de término,
+// em meses, para os projetos nos status listados (separados por vírgula; vazio desloca todos). limiteMudancas limita a
+// lista de projetos que trocariam de faixa, não a contagem
+public record SimulationScenarioDTO(BigDecimal limiteOrcamentoMedio, BigDecimal limiteOrcamentoAlto,
+                                    Integer mesesRiscoMedio, Integer mesesRiscoAlto, Integer atrasoMeses,
+                                    String status, Integer limiteMudancas) {}
@@ -0,0 +1,5 @@
+package com.planejao.gestao_projetos.dto;
+
+public enum WriteStatus {
+    PENDENTE, APLICADO, FALHOU
+}
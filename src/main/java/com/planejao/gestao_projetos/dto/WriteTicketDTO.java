@@ -0,0 +1,13 @@
+package com.planejao.gestao_projetos.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record WriteTicketDTO(UUID trackingId, Long projectId, WriteStatus status, String erro,
+                             Instant recebidoEm, Instant concluidoEm) {
+
+    public WriteTicketDTO complete(String erro) {
+        return new WriteTicketDTO(trackingId, projectId, erro == null ? WriteStatus.APLICADO : WriteStatus.FALHOU,
+                erro, recebidoEm, Instant.now());
+    }
+}
@@ -0,0 +1,45 @@
+package com.planejao.gestao_projetos.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorteia uma fração {@code log-sampling.debug-rate} das requisições para registrar o DEBUG completo dos services
+ * (ver {@link SampledDebugTurboFilter}). O sorteio é por requisição, não por linha: uma requisição amostrada traz o
+ * rastro inteiro. Fica antes da segurança para cobrir também a autenticação.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DebugSamplingFilter extends OncePerRequestFilter {
+
+    private final double rate;
+
+    public DebugSamplingFilter(@Value("${log-sampling.debug-rate:0}") double rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (rate <= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        SampledDebugTurboFilter.sample(ThreadLocalRandom.current().nextDouble() < rate);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SampledDebugTurboFilter.clear();
+        }
+    }
+}
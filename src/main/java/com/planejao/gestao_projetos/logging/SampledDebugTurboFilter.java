@@ -0,0 +1,46 @@
+package com.planejao.gestao_projetos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Libera o DEBUG dos loggers sob {@code loggerPrefix} apenas nas requisições sorteadas pelo
+ * {@link DebugSamplingFilter}, mesmo com o nível configurado em INFO. Fora delas responde NEUTRAL e vale o nível
+ * normal, então {@code isDebugEnabled()} e {@code atDebug()} continuam devolvendo falso sem alocar nada.
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    // Boolean.TRUE ou null: ler e gravar não aloca
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private String loggerPrefix = "";
+
+    static void sample(boolean sampled) {
+        if (sampled) {
+            SAMPLED.set(Boolean.TRUE);
+        }
+    }
+
+    static void clear() {
+        SAMPLED.remove();
+    }
+
+    public static boolean isSampled() {
+        return SAMPLED.get() == Boolean.TRUE;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.DEBUG || !isSampled() || logger == null || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return FilterReply.ACCEPT;
+    }
+}
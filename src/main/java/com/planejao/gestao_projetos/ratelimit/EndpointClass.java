@@ -0,0 +1,36 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Classes de endpoints de escrita com limites independentes.
+ */
+public enum EndpointClass {
+    PROJECT_CREATE,
+    MEMBER_ALLOCATION,
+    PROJECT_WRITE;
+
+    private static final PathPattern PROJECTS = PathPatternParser.defaultInstance.parse("/projects");
+    private static final PathPattern PROJECT_MEMBER = PathPatternParser.defaultInstance.parse("/projects/{id}/members/{memberId}");
+    private static final PathPattern PROJECT_ANY = PathPatternParser.defaultInstance.parse("/projects/**");
+
+    /** Retorna a classe do endpoint ou {@code null} para requisições que não são limitadas. */
+    public static EndpointClass classify(String method, String path) {
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return null;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        if ("POST".equals(method) && PROJECTS.matches(container)) {
+            return PROJECT_CREATE;
+        }
+        if ("POST".equals(method) && PROJECT_MEMBER.matches(container)) {
+            return MEMBER_ALLOCATION;
+        }
+        if (PROJECT_ANY.matches(container)) {
+            return PROJECT_WRITE;
+        }
+        return null;
+    }
+}
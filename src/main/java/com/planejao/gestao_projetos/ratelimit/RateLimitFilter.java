@@ -0,0 +1,57 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica o {@link RateLimiter} depois da autenticação, para que o balde seja do usuário autenticado.
+ * Não é um bean para não ser registrado duas vezes (cadeia do Spring Security e cadeia do servlet).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = EndpointClass.classify(request.getMethod(), request.getServletPath());
+        TokenBucket.Probe probe = endpoint != null ? rateLimiter.tryAcquire(endpoint, clientOf(request)) : null;
+        if (probe == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.remainingTokens()));
+        if (!probe.consumed()) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(probe.nanosToWait() + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Limite de requisições excedido, tente novamente em " + retryAfter + "s");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
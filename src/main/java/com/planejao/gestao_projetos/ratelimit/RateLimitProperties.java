@@ -0,0 +1,11 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(boolean enabled, Map<EndpointClass, Limit> limits) {
+
+    public record Limit(long capacity, double refillPerSecond) {}
+}
@@ -0,0 +1,103 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Mantém um {@link TokenBucket} por cliente e por {@link EndpointClass}.
+ */
+@Component
+public class RateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Map<EndpointClass, Limited> limited = new EnumMap<>(EndpointClass.class);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry registry, LongSupplier clock) {
+        this.properties = properties;
+        if (properties.limits() != null) {
+            properties.limits().forEach((endpoint, limit) ->
+                    limited.put(endpoint, new Limited(endpoint, limit, registry, clock)));
+        }
+    }
+
+    /** Retorna {@code null} quando o endpoint não tem limite configurado. */
+    public TokenBucket.Probe tryAcquire(EndpointClass endpoint, String client) {
+        Limited entry = properties.enabled() ? limited.get(endpoint) : null;
+        if (entry == null) {
+            return null;
+        }
+        // Caminho comum sem lock: get e um CAS no balde. Um balde aposentado pela remoção não consome; quem o encontra
+        // tira do mapa se ainda estiver lá e tenta de novo com um balde novo
+        TokenBucket bucket = entry.buckets.get(client);
+        if (bucket == null) {
+            bucket = entry.bucket(client);
+        }
+        TokenBucket.Probe probe = bucket.tryConsume();
+        while (probe == null) {
+            entry.buckets.remove(client, bucket);
+            bucket = entry.bucket(client);
+            probe = bucket.tryConsume();
+        }
+        if (probe.consumed()) {
+            entry.accepted.increment();
+            entry.remaining.record(probe.remainingTokens());
+        } else {
+            entry.rejected.increment();
+        }
+        return probe;
+    }
+
+    // Baldes cheios são indistinguíveis de baldes novos; removê-los mantém o mapa do tamanho dos clientes ativos. O
+    // balde é aposentado antes de sair do mapa, e quem ainda o tinha em mãos não consome dele
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        limited.values().forEach(entry -> entry.buckets.forEach((client, bucket) -> {
+            if (bucket.retire()) {
+                entry.buckets.remove(client, bucket);
+            }
+        }));
+    }
+
+    private static final class Limited {
+        private final RateLimitProperties.Limit limit;
+        private final LongSupplier clock;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Counter accepted;
+        private final Counter rejected;
+        private final DistributionSummary remaining;
+
+        private Limited(EndpointClass endpoint, RateLimitProperties.Limit limit, MeterRegistry registry,
+                        LongSupplier clock) {
+            this.limit = limit;
+            this.clock = clock;
+            String tag = endpoint.name().toLowerCase();
+            this.accepted = Counter.builder("ratelimit.requests").tag("endpoint", tag).tag("outcome", "accepted")
+                    .register(registry);
+            this.rejected = Counter.builder("ratelimit.requests").tag("endpoint", tag).tag("outcome", "rejected")
+                    .register(registry);
+            this.remaining = DistributionSummary.builder("ratelimit.tokens.remaining").tag("endpoint", tag)
+                    .register(registry);
+            Gauge.builder("ratelimit.buckets", buckets, Map::size).tag("endpoint", tag).register(registry);
+        }
+
+        private TokenBucket bucket(String client) {
+            return buckets.computeIfAbsent(client,
+                    c -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), clock));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sem locks. Em vez de guardar a quantidade de tokens, guarda o instante teórico
+ * (em nanos) em que o balde estará cheio de novo; consumir um token é um único CAS que avança
+ * esse instante em {@code nanosPerToken}. Aposentar o balde é outro CAS no mesmo campo, então
+ * um consumo e a aposentadoria nunca acontecem os dois.
+ */
+public class TokenBucket {
+
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier clock;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, double refillPerSecond, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidade e taxa de reposição devem ser positivas");
+        }
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = capacity * nanosPerToken;
+        this.clock = clock;
+        this.fullAt = new AtomicLong(clock.getAsLong());
+    }
+
+    /** Retorna {@code null} quando o balde foi aposentado: quem chamou deve pegar o balde novo do cliente. */
+    public Probe tryConsume() {
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            if (current == RETIRED) {
+                return null;
+            }
+            long next = Math.max(current, now) + nanosPerToken;
+            long debt = next - now;
+            if (debt > burstNanos) {
+                return new Probe(false, 0, debt - burstNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return new Probe(true, (burstNanos - debt) / nanosPerToken, 0);
+            }
+        }
+    }
+
+    public long availableTokens() {
+        long debt = Math.max(0, fullAt.get() - clock.getAsLong());
+        return (burstNanos - debt) / nanosPerToken;
+    }
+
+    /** Balde cheio equivale a um balde recém-criado, então pode ser descartado sem mudar o comportamento. */
+    public boolean isFull() {
+        return fullAt.get() <= clock.getAsLong();
+    }
+
+    /** Aposenta o balde se ele estiver cheio; depois disso {@link #tryConsume} não consome mais nada dele. */
+    public boolean retire() {
+        while (true) {
+            long current = fullAt.get();
+            if (current == RETIRED) {
+                return true;
+            }
+            if (current > clock.getAsLong()) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, RETIRED)) {
+                return true;
+            }
+        }
+    }
+
+    public record Probe(boolean consumed, long remainingTokens, long nanosToWait) {}
+}
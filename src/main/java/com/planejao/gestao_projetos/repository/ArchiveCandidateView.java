@@ -0,0 +1,7 @@
+package com.planejao.gestao_projetos.repository;
+
+public interface ArchiveCandidateView {
+    Long getId();
+
+    String getStatus();
+}
@@ -0,0 +1,18 @@
+package com.planejao.gestao_projetos.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais por status da camada fria ({@code projects_archive_resumo}).
+ */
+public interface ArchiveSummaryView {
+    String getStatus();
+
+    Long getQuantidade();
+
+    BigDecimal getOrcamento();
+
+    Long getComTermino();
+
+    Long getDiasAteTermino();
+}
@@ -1,12 +1,50 @@
 package com.planejao.gestao_projetos.repository;
 
 import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
-    List<Member> findByCargo(String cargo);
+
+    @Query(value = "select new com.planejao.gestao_projetos.dto.MemberDTO(m.id, m.nome, m.cargo) from Member m",
+            countQuery = "select count(m) from Member m")
+    Page<MemberDTO> findAllProjected(Pageable pageable);
+
+    @Query(value = "select new com.planejao.gestao_projetos.dto.MemberDTO(m.id, m.nome, m.cargo) from Member m where m.cargo = :cargo",
+            countQuery = "select count(m) from Member m where m.cargo = :cargo")
+    Page<MemberDTO> findProjectedByCargo(@Param("cargo") String cargo, Pageable pageable);
+
+    // Paginação por cursor (keyset): usa o índice da PK em vez de OFFSET
+    @Query("select new com.planejao.gestao_projetos.dto.MemberDTO(m.id, m.nome, m.cargo) from Member m where m.id > :after order by m.id")
+    List<MemberDTO> findProjectedAfter(@Param("after") long after, Limit limit);
+
+    @Query("select new com.planejao.gestao_projetos.dto.MemberDTO(m.id, m.nome, m.cargo) from Member m where m.cargo = :cargo and m.id > :after order by m.id")
+    List<MemberDTO> findProjectedByCargoAfter(@Param("cargo") String cargo, @Param("after") long after, Limit limit);
+
+    // Réplica de um membro criado no shard 0, com o mesmo id (ver ProjectShards); repetir a cópia não faz nada
+    @Modifying
+    @Query(value = "INSERT INTO members (id, nome, cargo) VALUES (:id, :nome, :cargo) ON CONFLICT (id) DO NOTHING",
+            nativeQuery = true)
+    int insertReplica(@Param("id") Long id, @Param("nome") String nome, @Param("cargo") String cargo);
+
+    @Query("select m.id from Member m where m.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Expansão de membros: todos os ids de uma página de projetos numa única consulta IN
+    @Query("select new com.planejao.gestao_projetos.dto.MemberDTO(m.id, m.nome, m.cargo) from Member m where m.id in :ids")
+    List<MemberDTO> findProjectedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select m.cargo as cargo, count(m) as quantidade from Member m group by m.cargo")
+    List<CargoCountView> countByCargo();
 }
@@ -0,0 +1,93 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.ProjectView;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leitura das duas camadas pela view {@code projects_all} e movimentação de projetos da camada quente para a fria.
+ */
+public interface ProjectArchiveRepository extends Repository<ProjectView, Long> {
+
+    Optional<ProjectView> findByIdAndArquivadoTrue(Long id);
+
+    // Alias p, como em ProjectRepository: a ordenação com particionamento chega com collate
+    @Query("select p from ProjectView p")
+    Page<ProjectView> findAll(Pageable pageable);
+
+    @Query("select p from ProjectView p where p.status = :status")
+    Page<ProjectView> findByStatus(@Param("status") StatusProjeto status, Pageable pageable);
+
+    // SKIP LOCKED: execuções concorrentes (várias instâncias) pegam lotes disjuntos em vez de esperar
+    @Query(value = """
+            SELECT id, status
+            FROM projects
+            WHERE status IN ('ENCERRADO', 'CANCELADO')
+              AND COALESCE(data_real_termino, previsao_termino) < :corte
+            ORDER BY id
+            LIMIT :limite
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<ArchiveCandidateView> lockArchivable(@Param("corte") LocalDate corte, @Param("limite") int limite);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO projects_archive (id, data_inicio, data_real_termino, orcamento_total, previsao_termino,
+                                          descricao, gerente_id, nome, status, arquivado_em)
+            SELECT id, data_inicio, data_real_termino, orcamento_total, previsao_termino,
+                   descricao, gerente_id, nome, status, CURRENT_TIMESTAMP
+            FROM projects
+            WHERE id IN (:ids)
+            """, nativeQuery = true)
+    int copyProjects(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO project_membros_archive (project_id, membros)
+            SELECT project_id, membros FROM project_membros WHERE project_id IN (:ids)
+            """, nativeQuery = true)
+    int copyMembros(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO projects_archive_resumo (status, quantidade, orcamento, com_termino, dias_ate_termino)
+            SELECT status, COUNT(*), SUM(orcamento_total), COUNT(data_real_termino),
+                   COALESCE(SUM(data_real_termino - data_inicio), 0)
+            FROM projects
+            WHERE id IN (:ids)
+            GROUP BY status
+            ON CONFLICT (status) DO UPDATE SET
+                quantidade = projects_archive_resumo.quantidade + EXCLUDED.quantidade,
+                orcamento = projects_archive_resumo.orcamento + EXCLUDED.orcamento,
+                com_termino = projects_archive_resumo.com_termino + EXCLUDED.com_termino,
+                dias_ate_termino = projects_archive_resumo.dias_ate_termino + EXCLUDED.dias_ate_termino
+            """, nativeQuery = true)
+    int accumulateSummary(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO membros_arquivados (member_id)
+            SELECT DISTINCT membros FROM project_membros WHERE project_id IN (:ids)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int recordMembers(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM project_membros WHERE project_id IN (:ids)", nativeQuery = true)
+    int deleteHotMembros(@Param("ids") Collection<Long> ids);
+
+    // Limpa o contexto de persistência: entidades já carregadas dos projetos movidos ficariam obsoletas
+    @Modifying(clearAutomatically = true)
+    @Query(value = "DELETE FROM projects WHERE id IN (:ids)", nativeQuery = true)
+    int deleteHotProjects(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,21 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Leituras de projetos que buscam só as colunas dos campos pedidos. O gerente só entra na consulta (LEFT JOIN)
+ * quando {@code gerente} é pedido e os membros só são lidos, numa única consulta IN, quando {@code membros} é pedido.
+ */
+public interface ProjectFieldsRepository {
+
+    Page<Map<String, Object>> findFields(Set<ProjectField> fields, Optional<StatusProjeto> status, Pageable pageable);
+
+    Optional<Map<String, Object>> findFieldsById(Long id, Set<ProjectField> fields);
+}
@@ -0,0 +1,125 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+public class ProjectFieldsRepositoryImpl implements ProjectFieldsRepository {
+
+    // Colunas necessárias para calcular o risco quando ele é pedido sem as datas e o orçamento
+    private static final List<String> RISCO_COLUMNS = List.of("dataInicio", "previsaoTermino", "orcamentoTotal");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findFields(Set<ProjectField> fields, Optional<StatusProjeto> status, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Project> root = query.from(Project.class);
+        query.multiselect(selections(fields, root));
+        status.ifPresent(s -> query.where(cb.equal(root.get("status"), s)));
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toRows(typed.getResultList(), fields);
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(status));
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Long id, Set<ProjectField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Project> root = query.from(Project.class);
+        query.multiselect(selections(fields, root));
+        query.where(cb.equal(root.get("id"), id));
+        return toRows(entityManager.createQuery(query).getResultList(), fields).stream().findFirst();
+    }
+
+    private List<Selection<?>> selections(Set<ProjectField> fields, Root<Project> root) {
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        fields.stream().filter(ProjectField::isColumn).forEach(f -> columns.add(f.nome()));
+        if (fields.contains(ProjectField.RISCO)) {
+            columns.addAll(RISCO_COLUMNS);
+        }
+        List<Selection<?>> selections = new ArrayList<>();
+        columns.forEach(c -> selections.add(root.get(c).alias(c)));
+        if (fields.contains(ProjectField.GERENTE)) {
+            Join<Project, Member> gerente = root.join("gerente", JoinType.LEFT);
+            selections.add(gerente.get("id").alias("gerenteId"));
+            selections.add(gerente.get("nome").alias("gerenteNome"));
+            selections.add(gerente.get("cargo").alias("gerenteCargo"));
+        }
+        return selections;
+    }
+
+    private List<Map<String, Object>> toRows(List<Tuple> tuples, Set<ProjectField> fields) {
+        Map<Long, List<Long>> membros = fields.contains(ProjectField.MEMBROS)
+                ? loadMembros(tuples.stream().map(t -> t.get("id", Long.class)).toList())
+                : Map.of();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (ProjectField field : fields) {
+                row.put(field.nome(), value(field, tuple, membros));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Object value(ProjectField field, Tuple tuple, Map<Long, List<Long>> membros) {
+        return switch (field) {
+            case GERENTE -> tuple.get("gerenteId") == null ? null : new MemberDTO(tuple.get("gerenteId", Long.class),
+                    tuple.get("gerenteNome", String.class), tuple.get("gerenteCargo", String.class));
+            case RISCO -> Project.calcularRisco(tuple.get("dataInicio", LocalDate.class),
+                    tuple.get("previsaoTermino", LocalDate.class), tuple.get("orcamentoTotal", BigDecimal.class));
+            case MEMBROS -> membros.getOrDefault(tuple.get("id", Long.class), List.of());
+            default -> tuple.get(field.nome());
+        };
+    }
+
+    private Map<Long, List<Long>> loadMembros(List<Long> projectIds) {
+        if (projectIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> pairs = entityManager.createQuery(
+                        "select p.id, m from Project p join p.membros m where p.id in :ids", Object[].class)
+                .setParameter("ids", projectIds)
+                .getResultList();
+        Map<Long, List<Long>> result = new HashMap<>();
+        for (Object[] pair : pairs) {
+            result.computeIfAbsent((Long) pair[0], k -> new ArrayList<>()).add((Long) pair[1]);
+        }
+        return result;
+    }
+
+    private long count(Optional<StatusProjeto> status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Project> root = query.from(Project.class);
+        query.select(cb.count(root));
+        status.ifPresent(s -> query.where(cb.equal(root.get("status"), s)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,67 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.Project;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas da varredura de projetos atrasados (ver ProjectOverdueScanner) e do checkpoint dos jobs em lotes.
+ */
+public interface ProjectOverdueRepository extends Repository<Project, Long> {
+
+    // Os status ativos (StatusProjeto.isActive) e NOT atrasado repetem o predicado de idx_projects_atraso_pendente,
+    // que é lido em ordem de id; o cursor por id mantém os lotes disjuntos e retomáveis
+    @Query(value = """
+            SELECT id
+            FROM projects
+            WHERE status IN ('EM_ANALISE', 'ANALISE_REALIZADA', 'ANALISE_APROVADA', 'INICIADO', 'PLANEJADO',
+                             'EM_ANDAMENTO')
+              AND NOT atrasado
+              AND previsao_termino < :hoje
+              AND id > :cursor
+            ORDER BY id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Long> findOverdueIds(@Param("hoje") LocalDate hoje, @Param("cursor") long cursor, @Param("limite") int limite);
+
+    // Repete o filtro: o projeto pode ter sido encerrado ou replanejado entre a leitura do lote e a marcação
+    @Modifying
+    @Query(value = """
+            UPDATE projects SET atrasado = TRUE
+            WHERE id IN (:ids)
+              AND status IN ('EM_ANALISE', 'ANALISE_REALIZADA', 'ANALISE_APROVADA', 'INICIADO', 'PLANEJADO',
+                             'EM_ANDAMENTO')
+              AND previsao_termino < :hoje
+              AND NOT atrasado
+            """, nativeQuery = true)
+    int flagOverdue(@Param("ids") Collection<Long> ids, @Param("hoje") LocalDate hoje);
+
+    // Marcações que deixaram de valer por escritas fora do JPA (as do JPA são recalculadas em Project)
+    @Modifying
+    @Query(value = """
+            UPDATE projects SET atrasado = FALSE
+            WHERE atrasado
+              AND (status IN ('ENCERRADO', 'CANCELADO') OR previsao_termino >= :hoje)
+            """, nativeQuery = true)
+    int clearResolved(@Param("hoje") LocalDate hoje);
+
+    // Só o checkpoint da execução do mesmo dia: o de uma execução interrompida em outro dia é ignorado
+    @Query(value = "SELECT ultimo_id FROM job_checkpoints WHERE job = :job AND dia = :dia", nativeQuery = true)
+    Optional<Long> findCheckpoint(@Param("job") String job, @Param("dia") LocalDate dia);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO job_checkpoints (job, dia, ultimo_id, atualizado_em)
+            VALUES (:job, :dia, :ultimoId, CURRENT_TIMESTAMP)
+            ON CONFLICT (job) DO UPDATE SET dia = EXCLUDED.dia, ultimo_id = EXCLUDED.ultimo_id,
+                                            atualizado_em = EXCLUDED.atualizado_em
+            """, nativeQuery = true)
+    int saveCheckpoint(@Param("job") String job, @Param("dia") LocalDate dia, @Param("ultimoId") long ultimoId);
+}
@@ -4,7 +4,100 @@ import com.planejao.gestao_projetos.domain.StatusProjeto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProjectRepository extends JpaRepository<Project, Long> {
-    Page<Project> findByStatus(StatusProjeto status, Pageable pageable);
-}
\ No newline at end of file
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectFieldsRepository {
+    // Listagens em JPQL com o alias p: com particionamento a ordenação chega com collate (ver ProjectField.collated),
+    // que as consultas derivadas não aceitam
+    @Override
+    @Query("select p from Project p")
+    Page<Project> findAll(Pageable pageable);
+
+    @Query("select p from Project p where p.status = :status")
+    Page<Project> findByStatus(@Param("status") StatusProjeto status, Pageable pageable);
+
+    // ?overdue=true: filtro pela coluna marcada pelo ProjectOverdueScanner (índice parcial idx_projects_atrasado)
+    @Query("select p from Project p where p.atrasado = true")
+    Page<Project> findByAtrasadoTrue(Pageable pageable);
+
+    @Query("select p from Project p where p.status = :status and p.atrasado = true")
+    Page<Project> findByStatusAndAtrasadoTrue(@Param("status") StatusProjeto status, Pageable pageable);
+
+    // Totais da camada fria, mantidos pelo arquivamento (ver ProjectArchiver)
+    @Query(value = """
+            SELECT status, quantidade, orcamento, com_termino AS comTermino, dias_ate_termino AS diasAteTermino
+            FROM projects_archive_resumo
+            """, nativeQuery = true)
+    List<ArchiveSummaryView> archiveSummary();
+
+    // Regra dos 3 projetos ativos: só a contagem, pelo índice idx_project_membros_membro, sem carregar projetos.
+    // Os status ativos repetem StatusProjeto.isActive
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM project_membros pm
+            JOIN projects p ON p.id = pm.project_id
+            WHERE pm.membros = :memberId
+              AND p.status IN ('EM_ANALISE', 'ANALISE_REALIZADA', 'ANALISE_APROVADA', 'INICIADO', 'PLANEJADO',
+                               'EM_ANDAMENTO')
+            """, nativeQuery = true)
+    long countActiveAllocations(@Param("memberId") Long memberId);
+
+    @Query(value = "SELECT member_id FROM membros_arquivados", nativeQuery = true)
+    List<Long> archivedMemberIds();
+
+    // Relatórios por dimensão cobrem as duas camadas (view projects_all).
+    // Duração em dias: término real quando existir, senão a previsão.
+    @Query(value = """
+            SELECT CAST(gerente_id AS VARCHAR) AS chave,
+                   COUNT(*) AS quantidade,
+                   COALESCE(SUM(orcamento_total), 0) AS orcamento,
+                   CAST(COALESCE(AVG(COALESCE(data_real_termino, previsao_termino) - data_inicio), 0) AS DOUBLE PRECISION) AS duracao
+            FROM projects_all
+            GROUP BY gerente_id
+            ORDER BY gerente_id
+            """, nativeQuery = true)
+    List<ReportBucketView> aggregateByGerente();
+
+    @Query(value = """
+            SELECT faixa AS chave,
+                   COUNT(*) AS quantidade,
+                   COALESCE(SUM(orcamento_total), 0) AS orcamento,
+                   CAST(COALESCE(AVG(COALESCE(data_real_termino, previsao_termino) - data_inicio), 0) AS DOUBLE PRECISION) AS duracao
+            FROM (
+                SELECT p.*,
+                       CASE
+                           WHEN data_inicio IS NULL OR previsao_termino IS NULL OR orcamento_total IS NULL THEN 'Indefinido'
+                           WHEN orcamento_total > :limiteAlto OR meses > :mesesAlto THEN 'Alto'
+                           WHEN orcamento_total > :limiteMedio OR meses > :mesesMedio THEN 'Medio'
+                           ELSE 'Baixo'
+                       END AS faixa
+                FROM (
+                    SELECT projects_all.*,
+                           EXTRACT(YEAR FROM AGE(previsao_termino, data_inicio)) * 12
+                               + EXTRACT(MONTH FROM AGE(previsao_termino, data_inicio)) AS meses
+                    FROM projects_all
+                ) p
+            ) classificados
+            GROUP BY faixa
+            ORDER BY faixa
+            """, nativeQuery = true)
+    List<ReportBucketView> aggregateByRisco(@Param("limiteMedio") BigDecimal limiteMedio,
+                                            @Param("limiteAlto") BigDecimal limiteAlto,
+                                            @Param("mesesMedio") int mesesMedio,
+                                            @Param("mesesAlto") int mesesAlto);
+
+    @Query(value = """
+            SELECT TO_CHAR(data_inicio, 'YYYY-MM') AS chave,
+                   COUNT(*) AS quantidade,
+                   COALESCE(SUM(orcamento_total), 0) AS orcamento,
+                   CAST(COALESCE(AVG(COALESCE(data_real_termino, previsao_termino) - data_inicio), 0) AS DOUBLE PRECISION) AS duracao
+            FROM projects_all
+            GROUP BY TO_CHAR(data_inicio, 'YYYY-MM')
+            ORDER BY chave
+            """, nativeQuery = true)
+    List<ReportBucketView> aggregateByMesInicio();
+}
@@ -0,0 +1,44 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.Project;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transições de status em lote ({@code PATCH /projects/status}, ver BulkStatusService).
+ */
+public interface ProjectStatusRepository extends Repository<Project, Long> {
+
+    @Query(value = "SELECT id, status FROM projects WHERE id IN (:ids)", nativeQuery = true)
+    List<ProjectStatusView> findStatusByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = """
+            SELECT id
+            FROM projects
+            WHERE status = :status
+              AND (CAST(:gerenteId AS BIGINT) IS NULL OR gerente_id = :gerenteId)
+            ORDER BY id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Long> findIdsByStatus(@Param("status") String status, @Param("gerenteId") Long gerenteId,
+                               @Param("limite") int limite);
+
+    // O status anterior esperado (nulo nos projetos sem status) faz parte do WHERE: quem mudou de status entre a
+    // leitura e o UPDATE fica de fora e não aparece no RETURNING. atrasado segue a mesma regra de
+    // Project.atualizarAtraso.
+    @Query(value = """
+            UPDATE projects
+            SET status = :novo,
+                data_real_termino = CASE WHEN :novo = 'ENCERRADO' THEN :hoje ELSE data_real_termino END,
+                atrasado = :novo NOT IN ('ENCERRADO', 'CANCELADO') AND previsao_termino < :hoje
+            WHERE id IN (:ids) AND status IS NOT DISTINCT FROM CAST(:anterior AS VARCHAR)
+            RETURNING id
+            """, nativeQuery = true)
+    List<Long> transition(@Param("ids") Collection<Long> ids, @Param("anterior") String anterior,
+                          @Param("novo") String novo, @Param("hoje") LocalDate hoje);
+}
@@ -0,0 +1,10 @@
+package com.planejao.gestao_projetos.repository;
+
+/**
+ * Id e status atual de um projeto, lidos para validar transições em lote.
+ */
+public interface ProjectStatusView {
+    Long getId();
+
+    String getStatus();
+}
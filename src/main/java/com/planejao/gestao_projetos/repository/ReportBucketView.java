@@ -0,0 +1,16 @@
+package com.planejao.gestao_projetos.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha agregada devolvida pelas consultas GROUP BY do relatório por dimensão.
+ */
+public interface ReportBucketView {
+    String getChave();
+
+    Long getQuantidade();
+
+    BigDecimal getOrcamento();
+
+    Double getDuracao();
+}
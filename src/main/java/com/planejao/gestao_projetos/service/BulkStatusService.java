@@ -0,0 +1,148 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.BulkStatusItemDTO;
+import com.planejao.gestao_projetos.dto.BulkStatusOutcome;
+import com.planejao.gestao_projetos.dto.BulkStatusRequestDTO;
+import com.planejao.gestao_projetos.dto.BulkStatusResultDTO;
+import com.planejao.gestao_projetos.dto.ProjectChangeEvent;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.ProjectStatusRepository;
+import com.planejao.gestao_projetos.repository.ProjectStatusView;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Transição de status em lote ({@code PATCH /projects/status}). Em vez de um findById + save por projeto, lê os status
+ * atuais numa consulta, valida cada um pela tabela de transições de {@link StatusProjeto} e aplica um único UPDATE por
+ * status anterior, condicionado a ele. Com particionamento cada shard é uma transação própria.
+ */
+@Service
+public class BulkStatusService {
+    private static final Logger logger = LoggerFactory.getLogger(BulkStatusService.class);
+
+    private final ProjectStatusRepository repository;
+    private final ProjectShards shards;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxProjects;
+
+    public BulkStatusService(ProjectStatusRepository repository, ProjectShards shards, ApplicationEventPublisher events,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${bulk-status.max-projects:1000}") int maxProjects) {
+        this.repository = repository;
+        this.shards = shards;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxProjects = maxProjects;
+    }
+
+    public BulkStatusResultDTO changeStatus(BulkStatusRequestDTO request) {
+        if (request.status() == null) {
+            throw new ProjectException("Status requerido");
+        }
+        StatusProjeto novo = parseStatus(request.status());
+        List<Long> ids = resolveIds(request);
+        Map<Long, BulkStatusItemDTO> porId = new HashMap<>();
+        ids.stream()
+                .collect(Collectors.groupingBy(shards::shardOf, LinkedHashMap::new, Collectors.toList()))
+                .forEach((shard, shardIds) -> shards.on(shard, () -> transactionTemplate.execute(tx -> apply(shardIds, novo)))
+                        .forEach(item -> porId.put(item.id(), item)));
+        List<BulkStatusItemDTO> resultados = ids.stream().map(porId::get).toList();
+        long alterados = resultados.stream().filter(r -> r.resultado() == BulkStatusOutcome.ALTERADO).count();
+        logger.atInfo().setMessage("Status em lote aplicado")
+                .addKeyValue("status", novo)
+                .addKeyValue("alterados", alterados)
+                .addKeyValue("solicitados", ids.size())
+                .log();
+        return new BulkStatusResultDTO(novo, alterados, resultados);
+    }
+
+    private List<Long> resolveIds(BulkStatusRequestDTO request) {
+        boolean porIds = request.ids() != null && !request.ids().isEmpty();
+        if (porIds == (request.filtro() != null)) {
+            throw new ProjectException("Informe a lista de ids ou um filtro");
+        }
+        if (porIds) {
+            if (request.ids().stream().anyMatch(Objects::isNull)) {
+                throw new ProjectException("A lista de ids não pode conter valores nulos");
+            }
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.ids()));
+            if (ids.size() > maxProjects) {
+                throw new ProjectException("Máximo de " + maxProjects + " projetos por requisição");
+            }
+            return ids;
+        }
+        BulkStatusRequestDTO.Filtro filtro = request.filtro();
+        if (filtro.statusAtual() == null) {
+            throw new ProjectException("filtro.statusAtual requerido");
+        }
+        String statusAtual = parseStatus(filtro.statusAtual()).name();
+        List<Long> ids = shards.scatter(shard -> repository.findIdsByStatus(statusAtual, filtro.gerenteId(), maxProjects + 1))
+                .stream().flatMap(List::stream).toList();
+        if (ids.size() > maxProjects) {
+            throw new ProjectException("O filtro seleciona mais de " + maxProjects + " projetos");
+        }
+        return ids;
+    }
+
+    private List<BulkStatusItemDTO> apply(List<Long> ids, StatusProjeto novo) {
+        // O status pode ser nulo: a ausência no mapa é que indica projeto inexistente
+        Map<Long, StatusProjeto> atuais = new HashMap<>();
+        for (ProjectStatusView view : repository.findStatusByIdIn(ids)) {
+            atuais.put(view.getId(), view.getStatus() == null ? null : StatusProjeto.valueOf(view.getStatus()));
+        }
+        Map<Long, BulkStatusOutcome> resultados = new HashMap<>();
+        Map<StatusProjeto, List<Long>> porAnterior = new LinkedHashMap<>();
+        for (Long id : ids) {
+            StatusProjeto atual = atuais.get(id);
+            if (!atuais.containsKey(id)) {
+                resultados.put(id, BulkStatusOutcome.NAO_ENCONTRADO);
+            } else if (!StatusProjeto.canTransition(atual, novo)) {
+                resultados.put(id, BulkStatusOutcome.TRANSICAO_INVALIDA);
+            } else {
+                porAnterior.computeIfAbsent(atual, s -> new ArrayList<>()).add(id);
+            }
+        }
+        LocalDate hoje = LocalDate.now();
+        porAnterior.forEach((anterior, grupo) -> {
+            Set<Long> alterados = new HashSet<>(repository.transition(grupo, anterior == null ? null : anterior.name(),
+                    novo.name(), hoje));
+            for (Long id : grupo) {
+                if (alterados.contains(id)) {
+                    resultados.put(id, BulkStatusOutcome.ALTERADO);
+                    events.publishEvent(ProjectChangeEvent.statusChanged(id, anterior, novo));
+                } else {
+                    resultados.put(id, BulkStatusOutcome.CONFLITO);
+                }
+            }
+        });
+        return ids.stream().map(id -> new BulkStatusItemDTO(id, atuais.get(id), resultados.get(id))).toList();
+    }
+
+    private StatusProjeto parseStatus(String status) {
+        try {
+            return StatusProjeto.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ProjectException("Status inválido: " + status);
+        }
+    }
+}
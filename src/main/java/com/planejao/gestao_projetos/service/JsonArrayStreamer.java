@@ -0,0 +1,91 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Escreve o resultado de uma consulta como array JSON enquanto o cursor avança: nenhuma lista de entidades ou DTOs é
+ * montada, e o primeiro bloco sai assim que o buffer do gerador enche. O gerador vem da fábrica do {@link ObjectMapper}
+ * da aplicação, que recicla os buffers (ver {@code JsonConfig}).
+ */
+@Component
+public class JsonArrayStreamer {
+
+    /** Escreve a linha atual do cursor como um elemento do array. */
+    @FunctionalInterface
+    public interface RowWriter {
+        void write(JsonGenerator json, ResultSet rs) throws SQLException, IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProjectShards shards;
+    private final TransactionTemplate readTransaction;
+
+    public JsonArrayStreamer(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ProjectShards shards,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.shards = shards;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /** Consulta sobre tabelas de projetos: os shards são lidos um de cada vez, cada um com seu cursor, no mesmo array. */
+    public StreamingResponseBody projects(String sql, List<Object> params, int fetchSize, RowWriter writer) {
+        return stream(true, sql, params, fetchSize, writer);
+    }
+
+    /** Consulta sobre tabelas replicadas em todos os shards (members): basta o shard padrão. */
+    public StreamingResponseBody replicated(String sql, List<Object> params, int fetchSize, RowWriter writer) {
+        return stream(false, sql, params, fetchSize, writer);
+    }
+
+    private StreamingResponseBody stream(boolean allShards, String sql, List<Object> params, int fetchSize,
+                                         RowWriter writer) {
+        return out -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartArray();
+                Runnable query = () -> readTransaction.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(sql);
+                    statement.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.size(); i++) {
+                        statement.setObject(i + 1, params.get(i));
+                    }
+                    return statement;
+                }, (RowCallbackHandler) rs -> write(writer, json, rs)));
+                if (allShards) {
+                    shards.forEachShard(shard -> query.run());
+                } else {
+                    query.run();
+                }
+                json.writeEndArray();
+            } catch (UncheckedIOException e) {
+                // Cliente desconectou no meio: o cursor já foi fechado com a transação
+                throw e.getCause();
+            }
+        };
+    }
+
+    private void write(RowWriter writer, JsonGenerator json, ResultSet rs) throws SQLException {
+        try {
+            writer.write(json, rs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Completa nos shards 1..N-1 os membros do shard 0 que não chegaram lá: as réplicas são escritas depois do commit do
+ * membro e uma falha nesse ponto só fica no log. Anda pelos membros do shard 0 por id em lotes de
+ * {@code sharding.reconcile.chunk-size} e insere os que faltam; sem particionamento não faz nada.
+ */
+@Service
+public class MemberReplicaReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(MemberReplicaReconciler.class);
+
+    private final MemberRepository repository;
+    private final ProjectShards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public MemberReplicaReconciler(MemberRepository repository, ProjectShards shards,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${sharding.reconcile.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${sharding.reconcile.cron:0 */15 * * * *}")
+    void scheduledReconcile() {
+        if (shards.isSharded()) {
+            reconcile();
+        }
+    }
+
+    /** Devolve quantas réplicas foram inseridas. */
+    public int reconcile() {
+        int copied = 0;
+        long after = 0;
+        List<MemberDTO> members;
+        do {
+            long cursor = after;
+            members = shards.on(0, () -> transactionTemplate.execute(
+                    tx -> repository.findProjectedAfter(cursor, Limit.of(chunkSize))));
+            if (members.isEmpty()) {
+                break;
+            }
+            after = members.get(members.size() - 1).id();
+            for (int shard = 1; shard < shards.count(); shard++) {
+                List<MemberDTO> chunk = members;
+                copied += shards.on(shard, () -> transactionTemplate.execute(tx -> copyMissing(chunk)));
+            }
+        } while (members.size() == chunkSize);
+        if (copied > 0) {
+            logger.warn("Reconciliação de membros: {} réplicas que faltavam foram inseridas", copied);
+        }
+        return copied;
+    }
+
+    private int copyMissing(List<MemberDTO> members) {
+        Set<Long> existing = new HashSet<>(repository.findIdsByIdIn(members.stream().map(MemberDTO::id).toList()));
+        int copied = 0;
+        for (MemberDTO member : members) {
+            if (!existing.contains(member.id())) {
+                copied += repository.insertReplica(member.id(), member.nome(), member.cargo());
+            }
+        }
+        return copied;
+    }
+}
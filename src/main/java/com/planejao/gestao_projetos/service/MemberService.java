@@ -1,30 +1,59 @@
 package com.planejao.gestao_projetos.service;
 
 import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.dto.CursorPageDTO;
+import com.planejao.gestao_projetos.dto.MemberCountDTO;
 import com.planejao.gestao_projetos.dto.MemberDTO;
 import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class MemberService {
     private static final Logger logger = LoggerFactory.getLogger(MemberService.class);
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
     private final MemberRepository repository;
+    private final ProjectShards shards;
+    private final JsonArrayStreamer streamer;
+    private final int exportFetchSize;
 
-    public MemberService(MemberRepository repository) {
+    public MemberService(MemberRepository repository, ProjectShards shards, JsonArrayStreamer streamer,
+                         @Value("${export.fetch-size:1000}") int exportFetchSize) {
         this.repository = repository;
+        this.shards = shards;
+        this.streamer = streamer;
+        this.exportFetchSize = exportFetchSize;
     }
 
+    @Transactional
     public MemberDTO createMember(String nome, String cargo) {
         logger.info("Criando membro: {} - {}", nome, cargo);
         Member member = new Member();
         member.setNome(nome);
         member.setCargo(cargo);
         Member saved = repository.save(member);
+        // Com particionamento o id vem do shard 0 e o membro é copiado para os demais, que referenciam members por FK,
+        // depois do commit
+        shards.replicate(shard -> repository.insertReplica(saved.getId(), saved.getNome(), saved.getCargo()));
         logger.info("Membro criado com ID: {}", saved.getId());
         return toDTO(saved);
     }
@@ -39,22 +68,74 @@ public class MemberService {
         return result;
     }
 
-    public List<MemberDTO> getAllMembers() {
-        logger.debug("Buscando todos os membros");
-        List<MemberDTO> members = repository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
-        logger.debug("Encontrados {} membros", members.size());
-        return members;
+    public Map<Long, MemberDTO> getMembersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        logger.debug("Buscando {} membros por ID", ids.size());
+        return repository.findProjectedByIdIn(ids).stream()
+                .collect(Collectors.toMap(MemberDTO::id, Function.identity()));
+    }
+
+    public Page<MemberDTO> getMembers(Pageable pageable) {
+        logger.debug("Buscando membros, página {}", pageable);
+        return repository.findAllProjected(orderedById(pageable));
+    }
+
+    public Page<MemberDTO> getMembersByCargo(String cargo, Pageable pageable) {
+        logger.debug("Buscando membros com cargo: {}, página {}", cargo, pageable);
+        return repository.findProjectedByCargo(cargo, orderedById(pageable));
+    }
+
+    public CursorPageDTO<MemberDTO> getMembersAfter(long after, int size) {
+        logger.debug("Buscando membros após ID: {}", after);
+        int limit = clamp(size);
+        return toCursorPage(repository.findProjectedAfter(after, Limit.of(limit)), limit);
+    }
+
+    public CursorPageDTO<MemberDTO> getMembersByCargoAfter(String cargo, long after, int size) {
+        logger.debug("Buscando membros com cargo: {} após ID: {}", cargo, after);
+        int limit = clamp(size);
+        return toCursorPage(repository.findProjectedByCargoAfter(cargo, after, Limit.of(limit)), limit);
+    }
+
+    // Todos os membros, sem limite de página, escritos enquanto o cursor avança
+    public StreamingResponseBody exportMembers(Optional<String> cargo) {
+        String sql = "SELECT id, nome, cargo FROM members" + (cargo.isPresent() ? " WHERE cargo = ?" : "") + " ORDER BY id";
+        return streamer.replicated(sql, cargo.<List<Object>>map(List::of).orElse(List.of()), exportFetchSize,
+                (json, rs) -> {
+                    json.writeStartObject();
+                    json.writeNumberField("id", rs.getLong(1));
+                    json.writeStringField("nome", rs.getString(2));
+                    json.writeStringField("cargo", rs.getString(3));
+                    json.writeEndObject();
+                });
+    }
+
+    public MemberCountDTO countMembers() {
+        Map<String, Long> porCargo = new TreeMap<>();
+        repository.countByCargo().forEach(c -> porCargo.put(c.getCargo(), c.getQuantidade()));
+        long total = porCargo.values().stream().mapToLong(Long::longValue).sum();
+        return new MemberCountDTO(total, porCargo);
+    }
+
+    // Sem ordem total o Postgres devolve as linhas em qualquer ordem e páginas por OFFSET repetem ou pulam membros: o id
+    // entra como ordem padrão e como desempate da ordem pedida
+    private static Pageable orderedById(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.getOrderFor("id") != null || pageable.isUnpaged()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(Sort.by("id")));
+    }
+
+    private int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
     }
 
-    public List<MemberDTO> getMembersByCargo(String cargo) {
-        logger.debug("Buscando membros com cargo: {}", cargo);
-        List<MemberDTO> members = repository.findByCargo(cargo).stream()
-                .map(this::toDTO)
-                .toList();
-        logger.debug("Encontrados {} membros com cargo {}", members.size(), cargo);
-        return members;
+    private CursorPageDTO<MemberDTO> toCursorPage(List<MemberDTO> content, int limit) {
+        Long next = content.size() == limit ? content.get(content.size() - 1).id() : null;
+        return new CursorPageDTO<>(content, next);
     }
 
     private MemberDTO toDTO(Member member) {
@@ -0,0 +1,954 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.PortfolioFilter;
+import com.planejao.gestao_projetos.dto.PortfolioSummaryDTO;
+import com.planejao.gestao_projetos.dto.ProjectChangeEvent;
+import com.planejao.gestao_projetos.dto.RiskChangeDTO;
+import com.planejao.gestao_projetos.dto.SimulationResultDTO;
+import com.planejao.gestao_projetos.dto.SimulationScenarioDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Snapshot colunar do portfólio em memória para filtros analíticos ad hoc ({@code GET /projects/report/portfolio}) e
+ * simulações de risco ({@code POST /projects/simulate}).
+ * Cada atributo é um vetor primitivo indexado pelo id do projeto (ids vêm da sequência, então os vetores são densos)
+ * e cada status tem um bitmap dos ids nele. A carga inicial lê as duas camadas de todos os shards direto do JDBC, sem
+ * materializar entidades; depois os eventos de alteração recarregam só o projeto afetado. Alterações feitas por outras
+ * réplicas ou por SQL direto não geram eventos aqui: a cada {@code portfolio-snapshot.poll-interval-ms} o log
+ * {@code project_changes} é lido a partir da última marca e esses projetos são relidos. Carga e recargas rodam em ordem
+ * numa única thread, e os filtros varrem os candidatos do bitmap em paralelo com fork/join.
+ *
+ * <p>Com {@code portfolio-snapshot.file.path} configurado, as colunas são gravadas periodicamente em disco
+ * ({@link PortfolioSnapshotFile}) junto com a marca de cada shard, o xmin do snapshot do banco lido antes delas. Na
+ * subida o arquivo é mapeado e só os projetos registrados em {@code project_changes} a partir da marca são relidos;
+ * arquivo ausente, corrompido, velho demais ou de outro banco cai na carga completa.
+ */
+@Service
+public class PortfolioSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSnapshot.class);
+
+    // Término real ainda não registrado
+    private static final int SEM_DATA = Integer.MIN_VALUE;
+    private static final StatusProjeto[] STATUS = StatusProjeto.values();
+    // status + orçamento + três datas + gerente + membros
+    private static final int BYTES_POR_PROJETO = 1 + 8 + 3 * 4 + 8 + 2;
+    // Datas em dias desde a época e orçamento em centavos, já convertidos no banco
+    private static final String SELECT_ROW = """
+            SELECT p.id,
+                   p.status,
+                   CAST(ROUND(p.orcamento_total * 100) AS BIGINT),
+                   p.data_inicio - DATE '1970-01-01',
+                   p.previsao_termino - DATE '1970-01-01',
+                   p.data_real_termino - DATE '1970-01-01',
+                   p.gerente_id,
+                   (SELECT COUNT(*) FROM project_membros_all m WHERE m.project_id = p.id)
+            FROM projects_all p
+            """;
+    // xid8 não tem mapeamento JDBC: sai como texto. A origem muda quando o banco é recriado
+    private static final String SELECT_MARK = """
+            SELECT CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text),
+                   CAST(EXTRACT(EPOCH FROM now()) * 1000 AS BIGINT),
+                   (SELECT origem FROM project_changes_origem)
+            """;
+    // Ids relidos por consulta na retomada
+    private static final int REPLAY_BATCH = 1000;
+    // Faixas de risco na ordem da simulação, com os nomes de Project.getRisco()
+    private static final String[] RISCOS = {"Baixo", "Medio", "Alto"};
+    private static final int BAIXO = 0;
+    private static final int MEDIO = 1;
+    private static final int ALTO = 2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProjectShards shards;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final int fetchSize;
+    private final int scanThreshold;
+    private final Path file;
+    private final int retentionHours;
+    private final ExecutorService worker;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private byte[] status = new byte[0];
+    private long[] orcamento = new long[0];
+    private int[] inicio = new int[0];
+    private int[] previsao = new int[0];
+    private int[] termino = new int[0];
+    private long[] gerente = new long[0];
+    private short[] membros = new short[0];
+    private final BitSet presentes = new BitSet();
+    private final BitSet[] porStatus = new BitSet[STATUS.length];
+    private volatile boolean loaded;
+    // Só a thread do snapshot lê e escreve as marcas: a confirmada acompanha o arquivo, a recente foi lida no último
+    // checkpoint e é confirmada no próximo, quando os eventos das transações anteriores a ela já foram aplicados
+    private PortfolioSnapshotFile.Mark[] confirmada;
+    private PortfolioSnapshotFile.Mark[] recente;
+    // Marca da última leitura do log: toda transação anterior a ela, de qualquer réplica, já foi aplicada
+    private PortfolioSnapshotFile.Mark[] lida;
+
+    public PortfolioSnapshot(JdbcTemplate jdbcTemplate, ProjectShards shards,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${portfolio-snapshot.enabled:true}") boolean enabled,
+                             @Value("${portfolio-snapshot.fetch-size:5000}") int fetchSize,
+                             @Value("${portfolio-snapshot.scan-threshold:16384}") int scanThreshold,
+                             @Value("${portfolio-snapshot.file.path:}") String file,
+                             @Value("${portfolio-snapshot.changes-retention-hours:168}") int retentionHours,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shards = shards;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+        this.scanThreshold = scanThreshold;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.retentionHours = retentionHours;
+        this.worker = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("portfolio-snapshot").daemon().factory());
+        for (int i = 0; i < STATUS.length; i++) {
+            porStatus[i] = new BitSet();
+        }
+        Gauge.builder("portfolio.snapshot.projects", this, PortfolioSnapshot::size).register(meterRegistry);
+        Gauge.builder("portfolio.snapshot.bytes", this, PortfolioSnapshot::memoryBytes).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (enabled) {
+            worker.execute(() -> {
+                if (!restore()) {
+                    load();
+                }
+            });
+        }
+    }
+
+    /**
+     * Recarrega o snapshot inteiro e espera terminar, para cargas feitas por fora da aplicação (SQL direto, restauração
+     * de backup). Os filtros esperam a recarga terminar.
+     */
+    public void reload() {
+        await(worker.submit(this::load));
+    }
+
+    /**
+     * Grava o arquivo e limpa o log de alterações além da retenção. O log é preenchido por gatilhos mesmo sem arquivo
+     * configurado, então a limpeza roda sempre.
+     */
+    @Scheduled(fixedDelayString = "${portfolio-snapshot.file.interval-ms:300000}",
+            initialDelayString = "${portfolio-snapshot.file.interval-ms:300000}")
+    void tick() {
+        worker.execute(() -> {
+            if (enabled && file != null && loaded) {
+                checkpoint();
+            }
+            prune();
+        });
+    }
+
+    /** Relê os projetos que o log registrou desde a última leitura, inclusive os alterados por outras réplicas. */
+    @Scheduled(fixedDelayString = "${portfolio-snapshot.poll-interval-ms:10000}",
+            initialDelayString = "${portfolio-snapshot.poll-interval-ms:10000}")
+    void poll() {
+        worker.execute(() -> {
+            if (enabled && loaded) {
+                catchUp();
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ProjectChangeEvent event) {
+        if (enabled) {
+            worker.execute(() -> refresh(event));
+        }
+    }
+
+    public PortfolioSummaryDTO summarize(PortfolioFilter filter) {
+        ensureReady();
+        Criteria criteria = Criteria.of(filter);
+        lock.readLock().lock();
+        try {
+            BitSet candidatos = candidates(criteria.status());
+            return ForkJoinPool.commonPool().invoke(new Scan(candidatos, criteria, 0, candidatos.length())).toDTO();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reclassifica o portfólio inteiro (as duas camadas) com os limites de risco e o deslocamento de cronograma do
+     * cenário, sem alterar nenhum projeto. Os meses entre início e previsão são contados como em
+     * {@link Project#getRisco()} ({@code ChronoUnit.MONTHS}), mas direto dos dias desde a época, sem criar datas.
+     */
+    public SimulationResultDTO simulate(SimulationScenarioDTO scenario) {
+        ensureReady();
+        Scenario parsed = Scenario.of(scenario);
+        lock.readLock().lock();
+        try {
+            return ForkJoinPool.commonPool().invoke(new Simulate(parsed, 0, presentes.length())).toDTO();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return presentes.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Memória ocupada pelas colunas e bitmaps, em bytes. */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bitmaps = (long) presentes.size() / 8 * (1 + STATUS.length);
+            return (long) status.length * BYTES_POR_PROJETO + bitmaps;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Espera a thread do snapshot aplicar tudo que já foi enfileirado
+    void sync() {
+        await(worker.submit(() -> { }));
+    }
+
+    /** Grava o arquivo agora, como o agendamento faria, e espera terminar. Sem arquivo configurado não faz nada. */
+    public void persist() {
+        await(worker.submit(this::checkpoint));
+    }
+
+    /**
+     * Refaz a memória como na subida: retoma do arquivo e do log de alterações ou, se não der, carrega do banco.
+     * Devolve se a retomada pelo arquivo funcionou.
+     */
+    public boolean warmStart() {
+        return await(worker.submit(() -> {
+            if (restore()) {
+                return true;
+            }
+            load();
+            return false;
+        }));
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        PortfolioSnapshotFile.Mark[] marks = new PortfolioSnapshotFile.Mark[shards.count()];
+        lock.writeLock().lock();
+        try {
+            presentes.clear();
+            for (BitSet bitmap : porStatus) {
+                bitmap.clear();
+            }
+            // Uma consulta por shard lida com cursor (fetch size), direto para as colunas; a marca é lida antes
+            shards.forEachShard(shard -> readTransaction.executeWithoutResult(tx -> {
+                marks[shard] = mark();
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(SELECT_ROW);
+                    statement.setFetchSize(fetchSize);
+                    return statement;
+                }, (RowCallbackHandler) this::put);
+            }));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        confirmada = marks;
+        recente = null;
+        lida = marks;
+        loaded = true;
+        logger.info("Snapshot do portfólio carregado: {} projetos, {} KB em {} ms", size(), memoryBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private boolean restore() {
+        if (file == null || !Files.exists(file)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        PortfolioSnapshotFile.Contents contents;
+        try {
+            contents = PortfolioSnapshotFile.read(file);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Arquivo do snapshot do portfólio {} ilegível, recarregando do banco: {}", file, e.getMessage());
+            return false;
+        }
+        if (contents.marks().length != shards.count()) {
+            logger.warn("Arquivo do snapshot do portfólio gravado com {} shards, a aplicação tem {}; recarregando do banco",
+                    contents.marks().length, shards.count());
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            install(contents.columns());
+            PortfolioSnapshotFile.Mark[] marks = new PortfolioSnapshotFile.Mark[shards.count()];
+            int[] relidos = new int[1];
+            shards.forEachShard(shard -> readTransaction.executeWithoutResult(tx -> {
+                marks[shard] = mark();
+                relidos[0] += replay(contents.marks()[shard], marks[shard]);
+            }));
+            confirmada = marks;
+            recente = null;
+            lida = marks;
+            loaded = true;
+            logger.info("Snapshot do portfólio retomado de {}: {} projetos, {} relidos do log em {} ms", file, size(),
+                    relidos[0], (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao retomar o snapshot do portfólio de {}, recarregando do banco: {}", file, e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void install(PortfolioSnapshotFile.Columns columns) {
+        status = columns.status();
+        orcamento = columns.orcamento();
+        inicio = columns.inicio();
+        previsao = columns.previsao();
+        termino = columns.termino();
+        gerente = columns.gerente();
+        membros = columns.membros();
+        presentes.clear();
+        presentes.or(BitSet.valueOf(columns.presentes()));
+        for (BitSet bitmap : porStatus) {
+            bitmap.clear();
+        }
+        for (int id = presentes.nextSetBit(0); id >= 0; id = presentes.nextSetBit(id + 1)) {
+            if (id >= status.length || status[id] < 0 || status[id] >= STATUS.length) {
+                throw new IllegalStateException("Projeto " + id + " fora das colunas do arquivo");
+            }
+            porStatus[status[id]].set(id);
+        }
+    }
+
+    // Relê os projetos alterados por transações que o arquivo pode não ter visto; devolve quantos
+    private int replay(PortfolioSnapshotFile.Mark arquivo, PortfolioSnapshotFile.Mark atual) {
+        if (!arquivo.origem().equals(atual.origem())) {
+            throw new IllegalStateException("arquivo gravado para outro banco");
+        }
+        if (arquivo.xmin() > atual.xmin()) {
+            throw new IllegalStateException("marca do arquivo à frente do banco");
+        }
+        // O log guarda retenção completa, mas uma transação longa pode ter registrado antes da marca: metade de folga
+        if (atual.capturadaEm() - arquivo.capturadaEm() > retentionHours * 3_600_000L / 2) {
+            throw new IllegalStateException("arquivo mais velho que o log de alterações");
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT DISTINCT project_id FROM project_changes WHERE txid >= CAST(CAST(? AS text) AS xid8)",
+                Long.class, Long.toUnsignedString(arquivo.xmin()));
+        for (int from = 0; from < ids.size(); from += REPLAY_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + REPLAY_BATCH));
+            Set<Long> ausentes = new HashSet<>(batch);
+            jdbcTemplate.query(SELECT_ROW + " WHERE p.id = ANY(?)",
+                    statement -> statement.setArray(1, statement.getConnection().createArrayOf("bigint", batch.toArray())),
+                    (RowCallbackHandler) rs -> {
+                        ausentes.remove(rs.getLong(1));
+                        put(rs);
+                    });
+            ausentes.forEach(this::clear);
+        }
+        return ids.size();
+    }
+
+    // Roda na thread do snapshot; uma marca que não dá para retomar (banco recriado, log já limpo) recarrega tudo
+    private void catchUp() {
+        PortfolioSnapshotFile.Mark[] marks = new PortfolioSnapshotFile.Mark[shards.count()];
+        try {
+            shards.forEachShard(shard -> readTransaction.executeWithoutResult(tx -> {
+                marks[shard] = mark();
+                lock.writeLock().lock();
+                try {
+                    replay(lida[shard], marks[shard]);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }));
+        } catch (IllegalStateException e) {
+            logger.warn("Log de alterações do portfólio não cobre a última leitura ({}), recarregando do banco",
+                    e.getMessage());
+            load();
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao ler o log de alterações do portfólio: {}", e.getMessage());
+            return;
+        }
+        lida = marks;
+    }
+
+    private PortfolioSnapshotFile.Mark mark() {
+        return jdbcTemplate.queryForObject(SELECT_MARK, (rs, n) -> new PortfolioSnapshotFile.Mark(
+                Long.parseUnsignedLong(rs.getString(1)), rs.getLong(2), rs.getObject(3, UUID.class)));
+    }
+
+    // Grava com a marca confirmada e lê a próxima; roda na thread do snapshot, única que altera as colunas
+    private void checkpoint() {
+        if (file == null || !loaded) {
+            return;
+        }
+        PortfolioSnapshotFile.Mark[] proxima = (recente != null ? recente : confirmada).clone();
+        // O arquivo só pode prometer o que a leitura do log (alterações de outras réplicas) já aplicou
+        for (int shard = 0; shard < proxima.length; shard++) {
+            if (lida[shard].xmin() < proxima[shard].xmin()) {
+                proxima[shard] = lida[shard];
+            }
+        }
+        confirmada = proxima;
+        write(confirmada);
+        try {
+            PortfolioSnapshotFile.Mark[] marks = new PortfolioSnapshotFile.Mark[shards.count()];
+            shards.forEachShard(shard -> marks[shard] = readTransaction.execute(tx -> mark()));
+            recente = marks;
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao ler a marca do snapshot do portfólio: {}", e.getMessage());
+        }
+    }
+
+    private void write(PortfolioSnapshotFile.Mark[] marks) {
+        long start = System.nanoTime();
+        int capacity = presentes.length();
+        try {
+            PortfolioSnapshotFile.write(file, marks, new PortfolioSnapshotFile.Columns(presentes.toLongArray(), status,
+                    orcamento, inicio, previsao, termino, gerente, membros), capacity);
+            logger.debug("Snapshot do portfólio gravado em {}: {} ids em {} ms", file, capacity,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Falha ao gravar o snapshot do portfólio em {}", file, e);
+        }
+    }
+
+    private void prune() {
+        try {
+            shards.forEachShard(shard -> writeTransaction.executeWithoutResult(tx -> jdbcTemplate.update(
+                    "DELETE FROM project_changes WHERE alterado_em < now() - ? * INTERVAL '1 hour'", retentionHours)));
+        } catch (RuntimeException e) {
+            logger.warn("Falha ao limpar o log de alterações do portfólio: {}", e.getMessage());
+        }
+    }
+
+    private void refresh(ProjectChangeEvent event) {
+        long id = event.projectId();
+        try {
+            switch (event.tipo()) {
+                // Arquivar só troca a camada: o projeto continua no portfólio com os mesmos dados
+                case ARQUIVADO -> { }
+                case EXCLUIDO -> remove(id);
+                default -> shards.on(shards.shardOf(id), () -> readTransaction.execute(tx ->
+                        jdbcTemplate.query(SELECT_ROW + " WHERE p.id = ?", rs -> {
+                            lock.writeLock().lock();
+                            try {
+                                if (rs.next()) {
+                                    put(rs);
+                                } else {
+                                    clear(id);
+                                }
+                            } finally {
+                                lock.writeLock().unlock();
+                            }
+                            return null;
+                        }, id)));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Falha ao atualizar o snapshot do portfólio para o projeto {}", id, e);
+        }
+    }
+
+    private void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            clear(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear(long id) {
+        if (id < status.length && presentes.get((int) id)) {
+            porStatus[status[(int) id]].clear((int) id);
+            presentes.clear((int) id);
+        }
+    }
+
+    private void put(ResultSet rs) throws SQLException {
+        long id = rs.getLong(1);
+        String situacao = rs.getString(2);
+        if (id >= Integer.MAX_VALUE - 8 || situacao == null) {
+            logger.warn("Projeto {} fora do snapshot do portfólio (id fora do intervalo ou sem status)", id);
+            return;
+        }
+        int slot = (int) id;
+        ensureCapacity(slot + 1);
+        clear(slot);
+        int ordinal = StatusProjeto.valueOf(situacao).ordinal();
+        status[slot] = (byte) ordinal;
+        orcamento[slot] = rs.getLong(3);
+        inicio[slot] = rs.getInt(4);
+        previsao[slot] = rs.getInt(5);
+        int fim = rs.getInt(6);
+        termino[slot] = rs.wasNull() ? SEM_DATA : fim;
+        gerente[slot] = rs.getLong(7);
+        membros[slot] = (short) Math.min(rs.getLong(8), Short.MAX_VALUE);
+        porStatus[ordinal].set(slot);
+        presentes.set(slot);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= status.length) {
+            return;
+        }
+        int length = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, status.length * 3L / 2));
+        status = Arrays.copyOf(status, length);
+        orcamento = Arrays.copyOf(orcamento, length);
+        inicio = Arrays.copyOf(inicio, length);
+        previsao = Arrays.copyOf(previsao, length);
+        termino = Arrays.copyOf(termino, length);
+        gerente = Arrays.copyOf(gerente, length);
+        membros = Arrays.copyOf(membros, length);
+    }
+
+    private void ensureReady() {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Snapshot do portfólio desligado");
+        }
+        if (!loaded) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Snapshot do portfólio em carga");
+        }
+    }
+
+    private BitSet candidates(Set<StatusProjeto> filtro) {
+        if (filtro.size() == STATUS.length) {
+            return presentes;
+        }
+        BitSet result = new BitSet();
+        for (StatusProjeto s : filtro) {
+            result.or(porStatus[s.ordinal()]);
+        }
+        return result;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Falha no snapshot do portfólio", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera pelo snapshot do portfólio interrompida", e);
+        }
+    }
+
+    // Aplica os eventos já enfileirados e grava com a marca confirmada, sem ler outra do banco
+    @PreDestroy
+    void shutdown() {
+        if (enabled && file != null) {
+            worker.execute(() -> {
+                if (loaded) {
+                    write(confirmada);
+                }
+            });
+        }
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(30, TimeUnit.SECONDS)) {
+                worker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            worker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Filtro já convertido para as unidades das colunas; limites ausentes viram os extremos do tipo
+    private record Criteria(Set<StatusProjeto> status, int inicioDe, int inicioAte, int previsaoDe, int previsaoAte,
+                            long orcamentoMin, long orcamentoMax, int minMembros, int maxMembros, boolean porGerente,
+                            long gerenteId) {
+
+        static Criteria of(PortfolioFilter filter) {
+            Set<StatusProjeto> status = parseStatus(filter.status());
+            if (filter.ativo() != null) {
+                status.removeIf(s -> s.isActive() != filter.ativo());
+            }
+            return new Criteria(status,
+                    epochDay(filter.inicioDe(), Integer.MIN_VALUE), epochDay(filter.inicioAte(), Integer.MAX_VALUE),
+                    epochDay(filter.previsaoDe(), Integer.MIN_VALUE), epochDay(filter.previsaoAte(), Integer.MAX_VALUE),
+                    cents(filter.orcamentoMin(), RoundingMode.CEILING, Long.MIN_VALUE),
+                    cents(filter.orcamentoMax(), RoundingMode.FLOOR, Long.MAX_VALUE),
+                    filter.minMembros() == null ? Integer.MIN_VALUE : filter.minMembros(),
+                    filter.maxMembros() == null ? Integer.MAX_VALUE : filter.maxMembros(),
+                    filter.gerenteId() != null, filter.gerenteId() == null ? 0 : filter.gerenteId());
+        }
+
+        private static Set<StatusProjeto> parseStatus(String csv) {
+            if (csv == null || csv.isBlank()) {
+                return EnumSet.allOf(StatusProjeto.class);
+            }
+            EnumSet<StatusProjeto> result = EnumSet.noneOf(StatusProjeto.class);
+            for (String name : csv.split(",")) {
+                try {
+                    result.add(StatusProjeto.valueOf(name.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    throw new ProjectException("Status inválido: " + name.trim());
+                }
+            }
+            return result;
+        }
+
+        private static int epochDay(LocalDate date, int absent) {
+            return date == null ? absent : Math.toIntExact(date.toEpochDay());
+        }
+
+        private static long cents(BigDecimal value, RoundingMode rounding, long absent) {
+            return value == null ? absent : value.movePointRight(2).setScale(0, rounding).longValueExact();
+        }
+    }
+
+    private final class Scan extends RecursiveTask<Partial> {
+        private final BitSet candidatos;
+        private final Criteria criteria;
+        private final int from;
+        private final int to;
+
+        Scan(BitSet candidatos, Criteria criteria, int from, int to) {
+            this.candidatos = candidatos;
+            this.criteria = criteria;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= scanThreshold) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            Scan left = new Scan(candidatos, criteria, from, middle);
+            left.fork();
+            Partial right = new Scan(candidatos, criteria, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Partial scan() {
+            Partial partial = new Partial();
+            Criteria c = criteria;
+            for (int id = candidatos.nextSetBit(from); id >= 0 && id < to; id = candidatos.nextSetBit(id + 1)) {
+                if (inicio[id] < c.inicioDe() || inicio[id] > c.inicioAte()
+                        || previsao[id] < c.previsaoDe() || previsao[id] > c.previsaoAte()
+                        || orcamento[id] < c.orcamentoMin() || orcamento[id] > c.orcamentoMax()
+                        || membros[id] < c.minMembros() || membros[id] > c.maxMembros()
+                        || (c.porGerente() && gerente[id] != c.gerenteId())) {
+                    continue;
+                }
+                partial.quantidade++;
+                partial.orcamento += orcamento[id];
+                partial.membros += membros[id];
+                partial.duracaoPrevista += previsao[id] - inicio[id];
+                if (termino[id] != SEM_DATA) {
+                    partial.comTermino++;
+                    partial.duracaoReal += termino[id] - inicio[id];
+                }
+                partial.porStatus[status[id]]++;
+            }
+            return partial;
+        }
+    }
+
+    // Cenário já convertido para centavos e meses; os limites atuais vêm de Project
+    private record Scenario(long medioAtual, long altoAtual, long medio, long alto, int mesesMedio, int mesesAlto,
+                            int atraso, boolean[] deslocar, int limiteMudancas) {
+
+        private static final int MAX_ATRASO_MESES = 120;
+        private static final int MAX_MUDANCAS = 1000;
+
+        static Scenario of(SimulationScenarioDTO dto) {
+            BigDecimal medio = Objects.requireNonNullElse(dto.limiteOrcamentoMedio(), Project.LIMITE_ORCAMENTO_MEDIO);
+            BigDecimal alto = Objects.requireNonNullElse(dto.limiteOrcamentoAlto(), Project.LIMITE_ORCAMENTO_ALTO);
+            if (medio.signum() < 0 || medio.compareTo(alto) > 0) {
+                throw new ProjectException("Limites de orçamento devem ser positivos, com o médio até o alto");
+            }
+            int mesesMedio = Objects.requireNonNullElse(dto.mesesRiscoMedio(), Project.MESES_RISCO_MEDIO);
+            int mesesAlto = Objects.requireNonNullElse(dto.mesesRiscoAlto(), Project.MESES_RISCO_ALTO);
+            if (mesesMedio < 0 || mesesMedio > mesesAlto) {
+                throw new ProjectException("Limites de meses devem ser positivos, com o médio até o alto");
+            }
+            int atraso = Objects.requireNonNullElse(dto.atrasoMeses(), 0);
+            if (Math.abs(atraso) > MAX_ATRASO_MESES) {
+                throw new ProjectException("O atraso deve ficar entre -" + MAX_ATRASO_MESES + " e " + MAX_ATRASO_MESES
+                        + " meses");
+            }
+            int limiteMudancas = Objects.requireNonNullElse(dto.limiteMudancas(), 100);
+            if (limiteMudancas < 0 || limiteMudancas > MAX_MUDANCAS) {
+                throw new ProjectException("O limite de mudanças listadas deve ficar entre 0 e " + MAX_MUDANCAS);
+            }
+            boolean[] deslocar = new boolean[STATUS.length];
+            Criteria.parseStatus(dto.status()).forEach(s -> deslocar[s.ordinal()] = true);
+            return new Scenario(cents(Project.LIMITE_ORCAMENTO_MEDIO), cents(Project.LIMITE_ORCAMENTO_ALTO),
+                    cents(medio), cents(alto), mesesMedio, mesesAlto, atraso, deslocar, limiteMudancas);
+        }
+
+        // "orçamento > limite" em centavos inteiros: o limite arredonda para baixo; acima do long nada o ultrapassa
+        private static long cents(BigDecimal limite) {
+            BigDecimal centavos = limite.movePointRight(2).setScale(0, RoundingMode.FLOOR);
+            return centavos.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : centavos.longValue();
+        }
+    }
+
+    private final class Simulate extends RecursiveTask<Simulation> {
+        private final Scenario scenario;
+        private final int from;
+        private final int to;
+
+        Simulate(Scenario scenario, int from, int to) {
+            this.scenario = scenario;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Simulation compute() {
+            if (to - from <= scanThreshold) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            Simulate left = new Simulate(scenario, from, middle);
+            left.fork();
+            Simulation right = new Simulate(scenario, middle, to).compute();
+            return left.join().merge(right);
+        }
+
+        private Simulation scan() {
+            Scenario c = scenario;
+            Simulation simulation = new Simulation(c.limiteMudancas());
+            for (int id = presentes.nextSetBit(from); id >= 0 && id < to; id = presentes.nextSetBit(id + 1)) {
+                long inicioMes = mesDia(inicio[id]);
+                long previsaoMes = mesDia(previsao[id]);
+                long meses = (previsaoMes - inicioMes) / 32;
+                int atual = risco(orcamento[id], meses, c.medioAtual(), c.altoAtual(), Project.MESES_RISCO_MEDIO,
+                        Project.MESES_RISCO_ALTO);
+                if (c.atraso() != 0 && c.deslocar()[status[id]]) {
+                    meses = (plusMonths(previsaoMes, c.atraso()) - inicioMes) / 32;
+                }
+                int simulado = risco(orcamento[id], meses, c.medio(), c.alto(), c.mesesMedio(), c.mesesAlto());
+                simulation.add(id, orcamento[id], atual, simulado);
+            }
+            return simulation;
+        }
+    }
+
+    private static int risco(long orcamento, long meses, long limiteMedio, long limiteAlto, int mesesMedio,
+                             int mesesAlto) {
+        if (orcamento > limiteAlto || meses > mesesAlto) {
+            return ALTO;
+        }
+        if (orcamento > limiteMedio || meses > mesesMedio) {
+            return MEDIO;
+        }
+        return BAIXO;
+    }
+
+    // Mês proléptico * 32 + dia, o mesmo empacotamento de LocalDate.monthsUntil: a diferença entre duas datas dividida
+    // por 32 são os meses completos. Conversão de dias desde a época para ano/mês/dia do calendário civil
+    private static long mesDia(int epochDay) {
+        long z = epochDay + 719_468L;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1_460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long dia = doy - (153 * mp + 2) / 5 + 1;
+        long mes = mp < 10 ? mp + 3 : mp - 9;
+        long ano = yoe + era * 400 + (mes <= 2 ? 1 : 0);
+        return (ano * 12 + mes - 1) * 32 + dia;
+    }
+
+    // Como LocalDate.plusMonths: o dia passa para o último do mês quando não existe nele
+    private static long plusMonths(long mesDia, int meses) {
+        long mes = Math.floorDiv(mesDia, 32) + meses;
+        int dia = (int) Math.floorMod(mesDia, 32);
+        long ano = Math.floorDiv(mes, 12);
+        int diasNoMes = switch ((int) Math.floorMod(mes, 12) + 1) {
+            case 2 -> Year.isLeap(ano) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+        return mes * 32 + Math.min(dia, diasNoMes);
+    }
+
+    private static final class Simulation {
+        private final long[] quantidadeAtual = new long[RISCOS.length];
+        private final long[] quantidadeSimulada = new long[RISCOS.length];
+        private final long[] orcamentoAtual = new long[RISCOS.length];
+        private final long[] orcamentoSimulado = new long[RISCOS.length];
+        private final int limite;
+        private long mudancas;
+        // Primeiros projetos que mudam de faixa, em ordem de id; alocados na primeira mudança
+        private int[] ids;
+        private byte[] de;
+        private byte[] para;
+        private int listados;
+
+        Simulation(int limite) {
+            this.limite = limite;
+        }
+
+        void add(int id, long orcamento, int atual, int simulado) {
+            quantidadeAtual[atual]++;
+            quantidadeSimulada[simulado]++;
+            orcamentoAtual[atual] += orcamento;
+            orcamentoSimulado[simulado] += orcamento;
+            if (atual != simulado) {
+                mudancas++;
+                list(id, atual, simulado);
+            }
+        }
+
+        private void list(int id, int atual, int simulado) {
+            if (listados == limite) {
+                return;
+            }
+            if (ids == null) {
+                ids = new int[limite];
+                de = new byte[limite];
+                para = new byte[limite];
+            }
+            ids[listados] = id;
+            de[listados] = (byte) atual;
+            para[listados] = (byte) simulado;
+            listados++;
+        }
+
+        // other cobre ids maiores: a lista continua em ordem
+        Simulation merge(Simulation other) {
+            for (int i = 0; i < RISCOS.length; i++) {
+                quantidadeAtual[i] += other.quantidadeAtual[i];
+                quantidadeSimulada[i] += other.quantidadeSimulada[i];
+                orcamentoAtual[i] += other.orcamentoAtual[i];
+                orcamentoSimulado[i] += other.orcamentoSimulado[i];
+            }
+            mudancas += other.mudancas;
+            for (int i = 0; i < other.listados; i++) {
+                list(other.ids[i], other.de[i], other.para[i]);
+            }
+            return this;
+        }
+
+        SimulationResultDTO toDTO() {
+            Map<String, Long> porFaixaAtual = new LinkedHashMap<>();
+            Map<String, Long> porFaixaSimulada = new LinkedHashMap<>();
+            Map<String, BigDecimal> orcamentoPorFaixaAtual = new LinkedHashMap<>();
+            Map<String, BigDecimal> orcamentoPorFaixaSimulada = new LinkedHashMap<>();
+            long quantidade = 0;
+            for (int i = 0; i < RISCOS.length; i++) {
+                porFaixaAtual.put(RISCOS[i], quantidadeAtual[i]);
+                porFaixaSimulada.put(RISCOS[i], quantidadeSimulada[i]);
+                orcamentoPorFaixaAtual.put(RISCOS[i], BigDecimal.valueOf(orcamentoAtual[i], 2));
+                orcamentoPorFaixaSimulada.put(RISCOS[i], BigDecimal.valueOf(orcamentoSimulado[i], 2));
+                quantidade += quantidadeAtual[i];
+            }
+            List<RiskChangeDTO> lista = new ArrayList<>(listados);
+            for (int i = 0; i < listados; i++) {
+                lista.add(new RiskChangeDTO((long) ids[i], RISCOS[de[i]], RISCOS[para[i]]));
+            }
+            return new SimulationResultDTO(quantidade, porFaixaAtual, porFaixaSimulada, orcamentoPorFaixaAtual,
+                    orcamentoPorFaixaSimulada, mudancas, lista);
+        }
+    }
+
+    private static final class Partial {
+        private long quantidade;
+        private long orcamento;
+        private long membros;
+        private long duracaoPrevista;
+        private long comTermino;
+        private long duracaoReal;
+        private final long[] porStatus = new long[STATUS.length];
+
+        Partial merge(Partial other) {
+            quantidade += other.quantidade;
+            orcamento += other.orcamento;
+            membros += other.membros;
+            duracaoPrevista += other.duracaoPrevista;
+            comTermino += other.comTermino;
+            duracaoReal += other.duracaoReal;
+            for (int i = 0; i < porStatus.length; i++) {
+                porStatus[i] += other.porStatus[i];
+            }
+            return this;
+        }
+
+        PortfolioSummaryDTO toDTO() {
+            BigDecimal total = BigDecimal.valueOf(orcamento, 2);
+            Map<String, Long> quantidadePorStatus = new LinkedHashMap<>();
+            for (int i = 0; i < porStatus.length; i++) {
+                if (porStatus[i] > 0) {
+                    quantidadePorStatus.put(STATUS[i].name(), porStatus[i]);
+                }
+            }
+            if (quantidade == 0) {
+                return new PortfolioSummaryDTO(0, total, BigDecimal.ZERO, 0, 0, 0, quantidadePorStatus);
+            }
+            return new PortfolioSummaryDTO(quantidade, total,
+                    total.divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.HALF_UP),
+                    (double) membros / quantidade, (double) duracaoPrevista / quantidade,
+                    comTermino == 0 ? 0 : (double) duracaoReal / comTermino, quantidadePorStatus);
+        }
+    }
+}
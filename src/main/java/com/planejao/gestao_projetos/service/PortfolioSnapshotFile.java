@@ -0,0 +1,209 @@
+package com.planejao.gestao_projetos.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+/**
+ * Formato binário do {@link PortfolioSnapshot} em disco: cabeçalho com a marca de cada shard, as colunas primitivas
+ * como estão na memória e um CRC32C de tudo no final. Gravado e lido por mapeamento de memória, uma seção por coluna,
+ * com cópia em bloco entre o mapeamento e os vetores. A gravação vai para um arquivo temporário que substitui o
+ * anterior só depois do {@code force}; um arquivo truncado, corrompido ou de outra versão falha na leitura.
+ */
+final class PortfolioSnapshotFile {
+
+    // "PSNP" em little-endian
+    private static final int MAGIC = 0x504E5350;
+    private static final int VERSION = 1;
+    // magic, versão, shards, capacidade, palavras do bitmap
+    private static final int HEADER_BYTES = 5 * 4;
+    // xmin, capturada em, origem
+    private static final int MARK_BYTES = 8 + 8 + 16;
+    // status + orçamento + três datas + gerente + membros
+    private static final int BYTES_POR_PROJETO = 1 + 8 + 3 * 4 + 8 + 2;
+
+    /**
+     * Ponto do log de alterações de um shard a partir do qual o arquivo precisa ser reaplicado: o xmin do snapshot do
+     * banco (toda transação com txid menor já estava visível), o instante em que foi lido e a origem do banco.
+     */
+    record Mark(long xmin, long capturadaEm, UUID origem) {
+    }
+
+    /** Colunas indexadas pelo id; {@code presentes} são as palavras do bitmap. */
+    record Columns(long[] presentes, byte[] status, long[] orcamento, int[] inicio, int[] previsao, int[] termino,
+                   long[] gerente, short[] membros) {
+    }
+
+    record Contents(Mark[] marks, Columns columns) {
+    }
+
+    private PortfolioSnapshotFile() {
+    }
+
+    /** Grava as {@code capacity} primeiras posições de cada coluna (os vetores em memória podem ser maiores). */
+    static void write(Path path, Mark[] marks, Columns columns, int capacity) throws IOException {
+        if ((long) capacity * Long.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot grande demais para mapear uma coluna: " + capacity + " ids");
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Sections out = new Sections(channel, FileChannel.MapMode.READ_WRITE, crc);
+            ByteBuffer header = out.next(HEADER_BYTES + (long) marks.length * MARK_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).putInt(marks.length).putInt(capacity)
+                    .putInt(columns.presentes().length);
+            for (Mark mark : marks) {
+                header.putLong(mark.xmin()).putLong(mark.capturadaEm())
+                        .putLong(mark.origem().getMostSignificantBits()).putLong(mark.origem().getLeastSignificantBits());
+            }
+            out.done(header);
+            ByteBuffer presentes = out.next((long) columns.presentes().length * Long.BYTES);
+            presentes.asLongBuffer().put(columns.presentes());
+            out.done(presentes);
+            ByteBuffer status = out.next(capacity);
+            status.put(columns.status(), 0, capacity);
+            out.done(status);
+            out.done(longs(out, columns.orcamento(), capacity));
+            out.done(ints(out, columns.inicio(), capacity));
+            out.done(ints(out, columns.previsao(), capacity));
+            out.done(ints(out, columns.termino(), capacity));
+            out.done(longs(out, columns.gerente(), capacity));
+            ByteBuffer membros = out.next((long) capacity * Short.BYTES);
+            membros.asShortBuffer().put(columns.membros(), 0, capacity);
+            out.done(membros);
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt((int) crc.getValue()).flip();
+            channel.write(trailer, out.position);
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + Integer.BYTES) {
+                throw new IOException("Arquivo do snapshot truncado");
+            }
+            CRC32C crc = new CRC32C();
+            Sections in = new Sections(channel, FileChannel.MapMode.READ_ONLY, crc);
+            ByteBuffer header = in.next(HEADER_BYTES);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Arquivo não é um snapshot do portfólio");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Versão do snapshot não suportada: " + version);
+            }
+            int shards = header.getInt();
+            int capacity = header.getInt();
+            int words = header.getInt();
+            long expected = HEADER_BYTES + (long) shards * MARK_BYTES + (long) words * Long.BYTES
+                    + (long) capacity * BYTES_POR_PROJETO + Integer.BYTES;
+            if (shards <= 0 || capacity < 0 || words < 0 || (long) words * Long.SIZE < capacity || expected != size) {
+                throw new IOException("Cabeçalho do snapshot inconsistente com o tamanho do arquivo");
+            }
+            in.done(header);
+            ByteBuffer marcas = in.next((long) shards * MARK_BYTES);
+            Mark[] marks = new Mark[shards];
+            for (int i = 0; i < shards; i++) {
+                marks[i] = new Mark(marcas.getLong(), marcas.getLong(), new UUID(marcas.getLong(), marcas.getLong()));
+            }
+            in.done(marcas);
+            long[] presentes = new long[words];
+            ByteBuffer bitmap = in.next((long) words * Long.BYTES);
+            bitmap.asLongBuffer().get(presentes);
+            in.done(bitmap);
+            byte[] status = new byte[capacity];
+            ByteBuffer statusBuffer = in.next(capacity);
+            statusBuffer.get(status);
+            in.done(statusBuffer);
+            long[] orcamento = new long[capacity];
+            in.done(longs(in, orcamento));
+            int[] inicio = new int[capacity];
+            in.done(ints(in, inicio));
+            int[] previsao = new int[capacity];
+            in.done(ints(in, previsao));
+            int[] termino = new int[capacity];
+            in.done(ints(in, termino));
+            long[] gerente = new long[capacity];
+            in.done(longs(in, gerente));
+            short[] membros = new short[capacity];
+            ByteBuffer membrosBuffer = in.next((long) capacity * Short.BYTES);
+            membrosBuffer.asShortBuffer().get(membros);
+            in.done(membrosBuffer);
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(trailer, in.position);
+            if (trailer.flip().getInt() != (int) crc.getValue()) {
+                throw new IOException("Checksum do snapshot não confere");
+            }
+            return new Contents(marks, new Columns(presentes, status, orcamento, inicio, previsao, termino, gerente,
+                    membros));
+        }
+    }
+
+    private static ByteBuffer longs(Sections out, long[] values, int capacity) throws IOException {
+        ByteBuffer buffer = out.next((long) capacity * Long.BYTES);
+        buffer.asLongBuffer().put(values, 0, capacity);
+        return buffer;
+    }
+
+    private static ByteBuffer ints(Sections out, int[] values, int capacity) throws IOException {
+        ByteBuffer buffer = out.next((long) capacity * Integer.BYTES);
+        buffer.asIntBuffer().put(values, 0, capacity);
+        return buffer;
+    }
+
+    private static ByteBuffer longs(Sections in, long[] values) throws IOException {
+        ByteBuffer buffer = in.next((long) values.length * Long.BYTES);
+        buffer.asLongBuffer().get(values);
+        return buffer;
+    }
+
+    private static ByteBuffer ints(Sections in, int[] values) throws IOException {
+        ByteBuffer buffer = in.next((long) values.length * Integer.BYTES);
+        buffer.asIntBuffer().get(values);
+        return buffer;
+    }
+
+    // Mapeia as seções em sequência; cada seção entra no checksum inteira, do início ao fim do mapeamento
+    private static final class Sections {
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final CRC32C crc;
+        private long position;
+
+        Sections(FileChannel channel, FileChannel.MapMode mode, CRC32C crc) {
+            this.channel = channel;
+            this.mode = mode;
+            this.crc = crc;
+        }
+
+        ByteBuffer next(long size) throws IOException {
+            MappedByteBuffer buffer = channel.map(mode, position, size);
+            position += size;
+            return buffer.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void done(ByteBuffer section) {
+            // As visões (asLongBuffer etc.) não movem a posição da seção: o checksum cobre o mapeamento inteiro
+            ByteBuffer all = section.duplicate().clear();
+            crc.update(all);
+            if (mode == FileChannel.MapMode.READ_WRITE) {
+                ((MappedByteBuffer) section).force();
+            }
+        }
+    }
+}
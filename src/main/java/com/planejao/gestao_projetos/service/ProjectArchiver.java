@@ -0,0 +1,99 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectChangeEvent;
+import com.planejao.gestao_projetos.dto.ProjectChangeType;
+import com.planejao.gestao_projetos.repository.ArchiveCandidateView;
+import com.planejao.gestao_projetos.repository.ProjectArchiveRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Move projetos encerrados e cancelados há mais de {@code archive.min-age-days} dias de {@code projects} para
+ * {@code projects_archive}, em lotes de {@code archive.chunk-size}. Cada lote é uma transação curta: copia projetos e
+ * membros, acumula os totais usados pelo relatório e apaga as linhas quentes, sem segurar locks durante a execução
+ * inteira.
+ */
+@Service
+public class ProjectArchiver {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectArchiver.class);
+
+    private final ProjectArchiveRepository archiveRepository;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectShards shards;
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int chunkSize;
+
+    public ProjectArchiver(ProjectArchiveRepository archiveRepository, ApplicationEventPublisher events,
+                           PlatformTransactionManager transactionManager, ProjectShards shards,
+                           @Value("${archive.enabled:true}") boolean enabled,
+                           @Value("${archive.min-age-days:365}") int minAgeDays,
+                           @Value("${archive.chunk-size:500}") int chunkSize) {
+        this.archiveRepository = archiveRepository;
+        this.events = events;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${archive.cron:0 30 3 * * *}")
+    void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    // Cada shard tem a sua camada fria; com particionamento eles são arquivados um após o outro
+    public int archive() {
+        LocalDate corte = LocalDate.now().minusDays(minAgeDays);
+        int[] total = {0};
+        shards.forEachShard(shard -> total[0] += archiveShard(corte));
+        if (total[0] > 0) {
+            logger.info("Arquivados {} projetos terminados antes de {}", total[0], corte);
+        }
+        return total[0];
+    }
+
+    private int archiveShard(LocalDate corte) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(tx -> archiveChunk(corte));
+            total += moved;
+        } while (moved == chunkSize);
+        return total;
+    }
+
+    private int archiveChunk(LocalDate corte) {
+        List<ArchiveCandidateView> candidates = archiveRepository.lockArchivable(corte, chunkSize);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = candidates.stream().map(ArchiveCandidateView::getId).toList();
+        archiveRepository.copyProjects(ids);
+        archiveRepository.copyMembros(ids);
+        archiveRepository.accumulateSummary(ids);
+        archiveRepository.recordMembers(ids);
+        archiveRepository.deleteHotMembros(ids);
+        archiveRepository.deleteHotProjects(ids);
+        for (ArchiveCandidateView candidate : candidates) {
+            events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.ARQUIVADO, candidate.getId(),
+                    StatusProjeto.valueOf(candidate.getStatus())));
+        }
+        return candidates.size();
+    }
+}
@@ -0,0 +1,202 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Feed de alterações de projetos via Server-Sent Events ({@code GET /projects/stream}). Os eventos publicados pelo
+ * {@link ProjectService} entram no feed só depois do commit, recebem um id sequencial e ficam num buffer circular
+ * para que clientes reconectando com {@code Last-Event-ID} recebam o que perderam. O id leva a época da instância
+ * ({@code <época>-<sequência>}): a sequência recomeça a cada subida, e um id de outra época recebe RESET em vez de
+ * eventos sem relação com ele. Cada assinante tem uma fila limitada drenada por uma virtual thread, então conexões
+ * ociosas custam apenas uma thread estacionada.
+ */
+@Service
+public class ProjectChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectChangeFeed.class);
+
+    // Marcadores internos: comentário de keep-alive e aviso de que o histórico pedido já saiu do buffer
+    private static final FeedEntry HEARTBEAT = new FeedEntry(0, null);
+    private static final FeedEntry RESET = new FeedEntry(-1, null);
+
+    private final FeedEntry[] replay;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final String epoch = String.format("%08x", ThreadLocalRandom.current().nextInt());
+    private long nextId = 1;
+
+    public ProjectChangeFeed(@Value("${change-feed.replay-size:1024}") int replaySize,
+                             @Value("${change-feed.subscriber-buffer:256}") int subscriberBuffer,
+                             @Value("${change-feed.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${change-feed.timeout-ms:1800000}") long timeoutMillis,
+                             MeterRegistry meterRegistry) {
+        this.replay = new FeedEntry[replaySize];
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        Gauge.builder("changefeed.subscribers", subscribers, List::size).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Optional<StatusProjeto> statusFilter, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Limite de conexões do feed atingido");
+        }
+        return subscribe(new SseEmitter(timeoutMillis), statusFilter, lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Optional<StatusProjeto> statusFilter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, statusFilter.orElse(null),
+                new LinkedBlockingQueue<>(subscriberBuffer + replay.length));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // O worker existe antes do registro: uma publicação concorrente nunca encontra assinante sem worker
+        subscriber.worker = Thread.ofVirtual().name("change-feed-", subscriber.hashCode()).start(subscriber::drain);
+        // O replay e o registro acontecem sob o mesmo lock da publicação: nenhum evento se perde ou se repete
+        synchronized (this) {
+            subscriber.offer(HEARTBEAT);
+            if (lastEventId != null) {
+                replayAfter(lastEventId, subscriber);
+            }
+            subscribers.add(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onChange(ProjectChangeEvent event) {
+        publish(event);
+    }
+
+    synchronized void publish(ProjectChangeEvent event) {
+        FeedEntry entry = new FeedEntry(nextId++, event);
+        replay[(int) (entry.id() % replay.length)] = entry;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(entry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${change-feed.heartbeat-ms:15000}")
+    void heartbeat() {
+        subscribers.forEach(s -> s.offer(HEARTBEAT));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(Subscriber::close);
+    }
+
+    private void replayAfter(String lastEventId, Subscriber subscriber) {
+        long oldest = Math.max(1, nextId - replay.length);
+        long last = sequence(lastEventId);
+        // Id de outra época vem de antes de um restart; id anterior ao buffer perdeu eventos. Nos dois casos o cliente
+        // precisa recarregar o estado antes de seguir com o feed.
+        if (last < 0 || last >= nextId || last + 1 < oldest) {
+            subscriber.offer(RESET);
+            last = oldest - 1;
+        }
+        for (long id = last + 1; id < nextId; id++) {
+            subscriber.offer(replay[(int) (id % replay.length)]);
+        }
+    }
+
+    // Sequência de um id desta época; -1 para id de outra época ou malformado
+    private long sequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record FeedEntry(long id, ProjectChangeEvent event) {
+
+        SseEmitter.SseEventBuilder toSse(String epoch) {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            if (this == RESET) {
+                return SseEmitter.event().name("RESET").data("recarregar");
+            }
+            return SseEmitter.event().id(epoch + "-" + id).name(event.tipo().name())
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final StatusProjeto statusFilter;
+        private final BlockingQueue<FeedEntry> queue;
+        private volatile boolean closed;
+        private volatile Thread worker;
+
+        Subscriber(SseEmitter emitter, StatusProjeto statusFilter, BlockingQueue<FeedEntry> queue) {
+            this.emitter = emitter;
+            this.statusFilter = statusFilter;
+            this.queue = queue;
+        }
+
+        void offer(FeedEntry entry) {
+            if (entry.event() != null && statusFilter != null && !entry.event().matches(statusFilter)) {
+                return;
+            }
+            // Cliente lento demais: derruba a conexão; ele volta com Last-Event-ID e recupera pelo replay
+            if (!queue.offer(entry)) {
+                logger.warn("Assinante do feed de projetos descartado por fila cheia");
+                close();
+            }
+        }
+
+        void drain() {
+            try {
+                while (!closed) {
+                    emitter.send(queue.take().toSse(epoch));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Conexão do feed de projetos encerrada: {}", e.getMessage());
+                close();
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            if (worker != null && worker != Thread.currentThread()) {
+                worker.interrupt();
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exportação completa de projetos ({@code GET /projects/export}) sem o limite de página: cada linha do cursor vira um
+ * objeto com o mesmo formato de {@link com.planejao.gestao_projetos.dto.ProjectDTO}, escrito assim que é lido. O
+ * gerente vem por join e os membros por subconsulta correlacionada, que não bloqueia o fluxo como um GROUP BY; os ids
+ * dos membros saem em ordem crescente.
+ * A ordem não é garantida: com particionamento os shards são lidos um depois do outro, e sem ORDER BY o filtro por
+ * status não precisa percorrer a PK nem ordenar antes do primeiro byte.
+ */
+@Service
+public class ProjectExport {
+
+    private final JsonArrayStreamer streamer;
+    private final int fetchSize;
+
+    public ProjectExport(JsonArrayStreamer streamer, @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.streamer = streamer;
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody export(Optional<StatusProjeto> statusFilter, boolean includeArchived) {
+        String sql = """
+                SELECT p.id, p.nome, p.data_inicio, p.previsao_termino, p.data_real_termino, p.orcamento_total,
+                       p.descricao, g.id, g.nome, g.cargo, p.status,
+                       ARRAY(SELECT m.membros FROM %s m WHERE m.project_id = p.id ORDER BY m.membros)
+                FROM %s p
+                LEFT JOIN members g ON g.id = p.gerente_id
+                %s
+                """.formatted(includeArchived ? "project_membros_all" : "project_membros",
+                includeArchived ? "projects_all" : "projects", statusFilter.isPresent() ? "WHERE p.status = ?" : "");
+        List<Object> params = statusFilter.<List<Object>>map(status -> List.of(status.name())).orElse(List.of());
+        return streamer.projects(sql, params, fetchSize, this::write);
+    }
+
+    // Datas saem como o texto ISO do Postgres; só o risco precisa delas como LocalDate
+    private void write(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        LocalDate inicio = rs.getObject(3, LocalDate.class);
+        LocalDate previsao = rs.getObject(4, LocalDate.class);
+        BigDecimal orcamento = rs.getBigDecimal(6);
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        json.writeStringField("nome", rs.getString(2));
+        json.writeStringField("dataInicio", rs.getString(3));
+        json.writeStringField("previsaoTermino", rs.getString(4));
+        json.writeStringField("dataRealTermino", rs.getString(5));
+        json.writeNumberField("orcamentoTotal", orcamento);
+        json.writeStringField("descricao", rs.getString(7));
+        long gerente = rs.getLong(8);
+        if (rs.wasNull()) {
+            json.writeNullField("gerente");
+        } else {
+            json.writeObjectFieldStart("gerente");
+            json.writeNumberField("id", gerente);
+            json.writeStringField("nome", rs.getString(9));
+            json.writeStringField("cargo", rs.getString(10));
+            json.writeEndObject();
+        }
+        json.writeStringField("status", rs.getString(11));
+        json.writeStringField("risco", Project.calcularRisco(inicio, previsao, orcamento));
+        json.writeArrayFieldStart("membros");
+        Array membros = rs.getArray(12);
+        for (Long membro : (Long[]) membros.getArray()) {
+            json.writeNumber(membro);
+        }
+        membros.free();
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,199 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.repository.ProjectOverdueRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Marca {@code projects.atrasado} nos projetos ativos cuja previsão de término já passou, para que
+ * {@code GET /projects?overdue=true} seja um filtro indexado. A varredura anda por id em lotes de
+ * {@code overdue.chunk-size}: a leitura do próximo lote segue enquanto até {@code overdue.threads} lotes são marcados
+ * num executor limitado, e o checkpoint em {@code job_checkpoints} avança só até o último lote concluído em ordem.
+ * O checkpoint guarda o dia da execução: uma execução interrompida é retomada no mesmo dia, e no dia seguinte a
+ * varredura recomeça do início.
+ * Um advisory lock do Postgres garante uma única execução entre as réplicas.
+ */
+@Service
+public class ProjectOverdueScanner {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectOverdueScanner.class);
+
+    static final String JOB = "overdue-scan";
+    // Chave do pg_try_advisory_lock; qualquer instância que use a mesma chave disputa o mesmo lock
+    static final long LOCK_KEY = 7_135_001L;
+
+    private final ProjectOverdueRepository repository;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final ProjectShards shards;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int threads;
+    private final Timer duration;
+    private final Counter flaggedRows;
+    private volatile double rowsPerSecond;
+
+    public ProjectOverdueScanner(ProjectOverdueRepository repository, DataSource dataSource,
+                                 PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                 ProjectShards shards,
+                                 @Value("${overdue.enabled:true}") boolean enabled,
+                                 @Value("${overdue.chunk-size:1000}") int chunkSize,
+                                 @Value("${overdue.threads:2}") int threads) {
+        this.repository = repository;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        // Fila do tamanho do pool: quem submete roda o lote quando tudo está ocupado, sem acumular lotes lidos
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), Thread.ofPlatform().name("overdue-scan-", 0).factory(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.duration = Timer.builder("overdue.scan.duration").register(meterRegistry);
+        this.flaggedRows = Counter.builder("overdue.scan.flagged").register(meterRegistry);
+        Gauge.builder("overdue.scan.rows-per-second", this, s -> s.rowsPerSecond).register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${overdue.cron:0 5 0 * * *}")
+    void scheduledScan() {
+        if (enabled) {
+            scan();
+        }
+    }
+
+    /**
+     * Executa a varredura se nenhuma outra réplica estiver executando; devolve quantos projetos foram marcados. Com
+     * particionamento cada shard é varrido em sequência, com lock e checkpoint próprios.
+     */
+    public int scan() {
+        int[] flagged = {0};
+        shards.forEachShard(shard -> flagged[0] += scanShard());
+        return flagged[0];
+    }
+
+    private int scanShard() {
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!tryLock(lockConnection)) {
+                logger.info("Varredura de atrasados já em execução em outra instância");
+                return 0;
+            }
+            try {
+                return duration.record(this::runLocked);
+            } finally {
+                unlock(lockConnection);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha no lock da varredura de atrasados", e);
+        }
+    }
+
+    private int runLocked() {
+        LocalDate hoje = LocalDate.now();
+        long start = System.nanoTime();
+        long cursor = transactionTemplate.execute(tx -> repository.findCheckpoint(JOB, hoje).orElse(0L));
+        if (cursor > 0) {
+            logger.info("Retomando varredura de atrasados a partir do id {}", cursor);
+        }
+        int flagged = 0;
+        Deque<Chunk> pending = new ArrayDeque<>();
+        List<Long> ids;
+        do {
+            long after = cursor;
+            ids = transactionTemplate.execute(tx -> repository.findOverdueIds(hoje, after, chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            List<Long> chunk = ids;
+            cursor = ids.get(ids.size() - 1);
+            pending.add(new Chunk(cursor, executor.submit(shards.bind(() -> transactionTemplate.execute(
+                    tx -> repository.flagOverdue(chunk, hoje))))));
+            while (pending.size() > threads) {
+                flagged += complete(pending.poll(), hoje);
+            }
+        } while (ids.size() == chunkSize);
+        while (!pending.isEmpty()) {
+            flagged += complete(pending.poll(), hoje);
+        }
+        int cleared = transactionTemplate.execute(tx -> {
+            repository.saveCheckpoint(JOB, hoje, 0);
+            return repository.clearResolved(hoje);
+        });
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        rowsPerSecond = seconds > 0 ? flagged / seconds : 0;
+        flaggedRows.increment(flagged);
+        logger.info("Varredura de atrasados: {} marcados, {} desmarcados em {} ms", flagged, cleared,
+                Math.round(seconds * 1000));
+        return flagged;
+    }
+
+    // Checkpoint só depois do lote concluído, na ordem de leitura: uma queda retoma sem pular lotes em andamento
+    private int complete(Chunk chunk, LocalDate hoje) {
+        int flagged;
+        try {
+            flagged = chunk.result().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao marcar lote de projetos atrasados", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Varredura de atrasados interrompida", e);
+        }
+        transactionTemplate.executeWithoutResult(tx -> repository.saveCheckpoint(JOB, hoje, chunk.lastId()));
+        return flagged;
+    }
+
+    // Lock de sessão: fica com a conexão dedicada durante toda a execução, independente das transações dos lotes
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                boolean locked = result.getBoolean(1);
+                connection.commit();
+                return locked;
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+            connection.commit();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Chunk(long lastId, Future<Integer> result) {}
+}
@@ -2,61 +2,167 @@ package com.planejao.gestao_projetos.service;
 
 import com.planejao.gestao_projetos.domain.Project;
 import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.ProjectView;
 import com.planejao.gestao_projetos.domain.StatusProjeto;
 import com.planejao.gestao_projetos.dto.*;
 import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.ArchiveSummaryView;
+import com.planejao.gestao_projetos.repository.ProjectArchiveRepository;
 import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Cada operação é uma unidade de trabalho: uma transação e uma conexão do pool. Leituras são read-only,
+// o que desliga o dirty checking do Hibernate e abre a transação como READ ONLY no Postgres.
 @Service
+@Transactional(readOnly = true)
 public class ProjectService {
     private static final Logger logger = LoggerFactory.getLogger(ProjectService.class);
+    private static final String TRANSICAO_INVALIDA = "Transição de status inválida. Deve seguir a sequência ou cancelar.";
     private final ProjectRepository repository;
+    private final ProjectArchiveRepository archiveRepository;
     private final MemberService memberService;
+    private final ApplicationEventPublisher events;
+    private final ProjectShards shards;
 
-    private final List<StatusProjeto> sequence = Arrays.asList(
-            StatusProjeto.EM_ANALISE, StatusProjeto.ANALISE_REALIZADA, StatusProjeto.ANALISE_APROVADA,
-            StatusProjeto.INICIADO, StatusProjeto.PLANEJADO, StatusProjeto.EM_ANDAMENTO, StatusProjeto.ENCERRADO
-    );
-
-    public ProjectService(ProjectRepository repository, MemberService memberService) {
+    public ProjectService(ProjectRepository repository, ProjectArchiveRepository archiveRepository,
+                          MemberService memberService, ApplicationEventPublisher events, ProjectShards shards) {
         this.repository = repository;
+        this.archiveRepository = archiveRepository;
         this.memberService = memberService;
+        this.events = events;
+        this.shards = shards;
     }
 
+    // Com particionamento as listagens consultam todos os shards em paralelo e intercalam as páginas
     public Page<ProjectDTO> list(Pageable pageable, Optional<StatusProjeto> statusFilter) {
-        if (statusFilter.isPresent()) {
-            return repository.findByStatus(statusFilter.get(), pageable).map(this::toDTO);
+        return shards.scatterPage(pageable, ProjectField::comparator, ProjectField::collated, page -> {
+            if (statusFilter.isPresent()) {
+                return repository.findByStatus(statusFilter.get(), page).map(this::toDTO);
+            }
+            return repository.findAll(page).map(this::toDTO);
+        });
+    }
+
+    // A camada fria só é lida quando pedida: a listagem padrão continua restrita a projects
+    public Page<ProjectDTO> list(Pageable pageable, Optional<StatusProjeto> statusFilter, boolean includeArchived) {
+        if (!includeArchived) {
+            return list(pageable, statusFilter);
         }
-        return repository.findAll(pageable).map(this::toDTO);
+        return shards.scatterPage(pageable, ProjectField::comparator, ProjectField::collated, page ->
+                statusFilter.map(status -> archiveRepository.findByStatus(status, page))
+                        .orElseGet(() -> archiveRepository.findAll(page))
+                        .map(this::toDTO));
+    }
+
+    // Projetos arquivados nunca estão atrasados: só a camada quente é lida
+    public Page<ProjectDTO> listOverdue(Pageable pageable, Optional<StatusProjeto> statusFilter) {
+        return shards.scatterPage(pageable, ProjectField::comparator, ProjectField::collated, page ->
+                statusFilter.map(status -> repository.findByStatusAndAtrasadoTrue(status, page))
+                        .orElseGet(() -> repository.findByAtrasadoTrue(page))
+                        .map(this::toDTO));
     }
 
     public ProjectDTO getById(Long id) {
-        return repository.findById(id).map(this::toDTO).orElseThrow(() -> new ProjectException("Projeto não encontrado"));
+        shards.route(id);
+        return repository.findById(id).map(this::toDTO)
+                .or(() -> archiveRepository.findByIdAndArquivadoTrue(id).map(this::toDTO))
+                .orElseThrow(() -> new ProjectException("Projeto não encontrado"));
+    }
+
+    // A projeção por campo não traz as colunas de ordenação; com particionamento a página é intercalada pelos DTOs
+    public Page<Map<String, Object>> list(Pageable pageable, Optional<StatusProjeto> statusFilter, Set<ProjectField> fields) {
+        if (shards.isSharded()) {
+            return list(pageable, statusFilter).map(dto -> ProjectField.select(dto, fields));
+        }
+        return repository.findFields(fields, statusFilter, pageable);
     }
 
+    public Page<Map<String, Object>> list(Pageable pageable, Optional<StatusProjeto> statusFilter, Set<ProjectField> fields,
+                                          boolean includeArchived) {
+        if (!includeArchived) {
+            return list(pageable, statusFilter, fields);
+        }
+        return list(pageable, statusFilter, true).map(dto -> ProjectField.select(dto, fields));
+    }
+
+    public Map<String, Object> getById(Long id, Set<ProjectField> fields) {
+        shards.route(id);
+        return repository.findFieldsById(id, fields)
+                .or(() -> archiveRepository.findByIdAndArquivadoTrue(id).map(p -> ProjectField.select(toDTO(p), fields)))
+                .orElseThrow(() -> new ProjectException("Projeto não encontrado"));
+    }
+
+    // ?expand=membros: os membros de todos os projetos da página vêm numa única consulta IN, em vez de um
+    // GET /members/{id} por membro no cliente
+    public Page<ExpandedProjectDTO> listExpanded(Pageable pageable, Optional<StatusProjeto> statusFilter,
+                                                 boolean includeArchived) {
+        Page<ProjectDTO> page = list(pageable, statusFilter, includeArchived);
+        Map<Long, MemberDTO> members = membersOf(page.getContent().stream().map(ProjectDTO::membros));
+        return page.map(dto -> ExpandedProjectDTO.of(dto, members));
+    }
+
+    public ExpandedProjectDTO getByIdExpanded(Long id) {
+        ProjectDTO dto = getById(id);
+        return ExpandedProjectDTO.of(dto, membersOf(Stream.of(dto.membros())));
+    }
+
+    public Page<Map<String, Object>> list(Pageable pageable, Optional<StatusProjeto> statusFilter, Set<ProjectField> fields,
+                                          boolean includeArchived, Set<ProjectExpansion> expand) {
+        Page<Map<String, Object>> page = list(pageable, statusFilter, fields, includeArchived);
+        if (expand.contains(ProjectExpansion.MEMBROS) && fields.contains(ProjectField.MEMBROS)) {
+            expandMembros(page.getContent());
+        }
+        return page;
+    }
+
+    public Map<String, Object> getById(Long id, Set<ProjectField> fields, Set<ProjectExpansion> expand) {
+        Map<String, Object> row = getById(id, fields);
+        if (expand.contains(ProjectExpansion.MEMBROS) && fields.contains(ProjectField.MEMBROS)) {
+            expandMembros(List.of(row));
+        }
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expandMembros(List<Map<String, Object>> rows) {
+        Map<Long, MemberDTO> members = membersOf(rows.stream().map(row -> (List<Long>) row.get("membros")));
+        for (Map<String, Object> row : rows) {
+            List<Long> ids = (List<Long>) row.get("membros");
+            row.put("membros", ids.stream().map(members::get).filter(Objects::nonNull).toList());
+        }
+    }
+
+    private Map<Long, MemberDTO> membersOf(Stream<List<Long>> membros) {
+        Set<Long> ids = membros.filter(Objects::nonNull).flatMap(List::stream).collect(Collectors.toSet());
+        return memberService.getMembersByIds(ids);
+    }
+
+    @Transactional
     public ProjectDTO create(ProjectRequestDTO dto) {
-        logger.info("Criando projeto: {}", dto.nome());
-        logger.debug("Dados recebidos: {}", dto);
+        logger.atDebug().setMessage("Criando projeto").addKeyValue("dados", dto).log();
 
         if (dto.membros().isEmpty()) {
-            logger.error("Tentativa de criar projeto sem membros");
+            logger.atError().setMessage("Tentativa de criar projeto sem membros").addKeyValue("nome", dto.nome()).log();
             throw new ProjectException("Deve alocar pelo menos 1 membro");
         }
 
-        logger.debug("Validando gerente com ID: {}", dto.gerenteId());
+        shards.use(shards.shardForNewProject());
         Member gerente = convertAndValidateMember(dto.gerenteId(), false);
-        logger.info("Gerente validado: {} (ID: {})", gerente.getNome(), gerente.getId());
 
         Project project = new Project();
         project.setNome(dto.nome());
@@ -68,96 +174,124 @@ public class ProjectService {
         project.setStatus(StatusProjeto.EM_ANALISE);
         project.setMembros(new ArrayList<>());
 
-        logger.debug("Salvando projeto no banco...");
         Project saved = repository.save(project);
-        logger.info("Projeto salvo com ID: {}", saved.getId());
-
-        logger.debug("Adicionando {} membros ao projeto", dto.membros().size());
+        // Locks em ordem de id: duas criações com os mesmos membros não esperam uma pela outra em ciclo
+        dto.membros().stream().sorted().forEach(shards::lockUntilCompletion);
         for (Long memberId : dto.membros()) {
-            logger.debug("Adicionando membro ID: {}", memberId);
-            addMember(saved.getId(), memberId);
+            allocateMember(saved.getId(), memberId);
         }
+        events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.CRIADO, saved.getId(), saved.getStatus()));
 
-        logger.info("Projeto criado com sucesso: {} (ID: {})", saved.getNome(), saved.getId());
+        logger.atInfo().setMessage("Projeto criado")
+                .addKeyValue("projetoId", saved.getId())
+                .addKeyValue("gerenteId", gerente.getId())
+                .addKeyValue("membros", dto.membros().size())
+                .log();
         return toDTO(saved);
     }
 
+    @Transactional
     public ProjectDTO update(Long id, ProjectUpdateDTO dto) {
-        logger.info("Atualizando projeto ID: {}", id);
-        logger.debug("Dados recebidos: {}", dto);
+        logger.atDebug().setMessage("Atualizando projeto").addKeyValue("projetoId", id).addKeyValue("dados", dto).log();
 
+        shards.route(id);
         Project project = repository.findById(id).orElseThrow(() -> {
-            logger.error("Projeto não encontrado com ID: {}", id);
+            logger.atError().setMessage("Projeto não encontrado").addKeyValue("projetoId", id).log();
             return new ProjectException("Projeto não encontrado");
         });
 
-        logger.debug("Projeto encontrado: {} (ID: {})", project.getNome(), project.getId());
+        applyUpdate(project, dto);
+        Project saved = repository.save(project);
+        logger.atInfo().setMessage("Projeto atualizado").addKeyValue("projetoId", saved.getId()).log();
+
+        return toDTO(saved);
+    }
 
+    // Valida antes de alterar qualquer campo, para que uma falha não deixe o projeto parcialmente atualizado.
+    // Roda sempre na transação de quem chama; a validação recusada não condena o lote inteiro do pipeline.
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ProjectException.class)
+    void applyUpdate(Project project, ProjectUpdateDTO dto) {
+        Member gerente = null;
+        if (dto.gerenteId() != null) {
+            gerente = convertAndValidateMember(dto.gerenteId(), false);
+        }
         if (dto.nome() != null) {
-            logger.debug("Atualizando nome: {} -> {}", project.getNome(), dto.nome());
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "nome")
+                    .addKeyValue("de", project.getNome()).addKeyValue("para", dto.nome()).log();
             project.setNome(dto.nome());
         }
         if (dto.dataInicio() != null) {
-            logger.debug("Atualizando data início: {} -> {}", project.getDataInicio(), dto.dataInicio());
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "dataInicio")
+                    .addKeyValue("de", project.getDataInicio()).addKeyValue("para", dto.dataInicio()).log();
             project.setDataInicio(dto.dataInicio());
         }
         if (dto.previsaoTermino() != null) {
-            logger.debug("Atualizando previsão término: {} -> {}", project.getPrevisaoTermino(), dto.previsaoTermino());
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "previsaoTermino")
+                    .addKeyValue("de", project.getPrevisaoTermino()).addKeyValue("para", dto.previsaoTermino()).log();
             project.setPrevisaoTermino(dto.previsaoTermino());
         }
         if (dto.dataRealTermino() != null) {
-            logger.debug("Atualizando data real término: {} -> {}", project.getDataRealTermino(), dto.dataRealTermino());
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "dataRealTermino")
+                    .addKeyValue("de", project.getDataRealTermino()).addKeyValue("para", dto.dataRealTermino()).log();
             project.setDataRealTermino(dto.dataRealTermino());
         }
         if (dto.orcamentoTotal() != null) {
-            logger.debug("Atualizando orçamento: {} -> {}", project.getOrcamentoTotal(), dto.orcamentoTotal());
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "orcamentoTotal")
+                    .addKeyValue("de", project.getOrcamentoTotal()).addKeyValue("para", dto.orcamentoTotal()).log();
             project.setOrcamentoTotal(dto.orcamentoTotal());
         }
         if (dto.descricao() != null) {
-            logger.debug("Atualizando descrição");
+            logger.atDebug().setMessage("Campo alterado").addKeyValue("campo", "descricao").log();
             project.setDescricao(dto.descricao());
         }
-        if (dto.gerenteId() != null) {
-            logger.debug("Validando novo gerente com ID: {}", dto.gerenteId());
-            Member gerente = convertAndValidateMember(dto.gerenteId(), false);
-            logger.info("Novo gerente validado: {} (ID: {})", gerente.getNome(), gerente.getId());
+        if (gerente != null) {
             project.setGerente(gerente);
         }
-
-        logger.debug("Salvando projeto atualizado...");
-        Project saved = repository.save(project);
-        logger.info("Projeto atualizado com sucesso: {} (ID: {})", saved.getNome(), saved.getId());
-
-        return toDTO(saved);
+        events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.ATUALIZADO, project.getId(), project.getStatus()));
     }
 
+    @Transactional
     public void delete(Long id) {
+        shards.route(id);
         Project project = repository.findById(id).orElseThrow(() -> new ProjectException("Projeto não encontrado"));
         if (List.of(StatusProjeto.INICIADO, StatusProjeto.EM_ANDAMENTO, StatusProjeto.ENCERRADO).contains(project.getStatus())) {
             throw new ProjectException("Não é permitido excluir projetos nos status iniciado, em andamento ou encerrado");
         }
         repository.delete(project);
+        events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.EXCLUIDO, id, project.getStatus()));
     }
 
+    @Transactional
     public ProjectDTO changeStatus(Long id, StatusProjeto newStatus) {
+        shards.route(id);
         Project project = repository.findById(id).orElseThrow(() -> new ProjectException("Projeto não encontrado"));
+        applyStatus(project, newStatus);
+        return toDTO(repository.save(project));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY, noRollbackFor = ProjectException.class)
+    void applyStatus(Project project, StatusProjeto newStatus) {
         StatusProjeto current = project.getStatus();
-        if (newStatus == StatusProjeto.CANCELADO) {
-            project.setStatus(newStatus);
-        } else {
-            int currentIndex = sequence.indexOf(current);
-            if (currentIndex == -1 || sequence.indexOf(newStatus) != currentIndex + 1) {
-                throw new ProjectException("Transição de status inválida. Deve seguir a sequência ou cancelar.");
-            }
-            project.setStatus(newStatus);
-            if (newStatus == StatusProjeto.ENCERRADO) {
-                project.setDataRealTermino(LocalDate.now());
-            }
+        if (!StatusProjeto.canTransition(current, newStatus)) {
+            throw new ProjectException(TRANSICAO_INVALIDA);
         }
-        return toDTO(repository.save(project));
+        project.setStatus(newStatus);
+        if (newStatus == StatusProjeto.ENCERRADO) {
+            project.setDataRealTermino(LocalDate.now());
+        }
+        events.publishEvent(ProjectChangeEvent.statusChanged(project.getId(), current, newStatus));
     }
 
+    @Transactional
     public ProjectDTO addMember(Long id, Long memberId) {
+        shards.route(id);
+        ProjectDTO updated = allocateMember(id, memberId);
+        events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.MEMBROS_ALTERADOS, id, updated.status()));
+        return updated;
+    }
+
+    // Compartilhado com create, que publica um único CRIADO em vez de um evento por membro
+    private ProjectDTO allocateMember(Long id, Long memberId) {
         Project project = repository.findById(id).orElseThrow(() -> new ProjectException("Projeto não encontrado"));
         convertAndValidateMember(memberId, true);
         if (project.getMembros().contains(memberId)) {
@@ -166,9 +300,11 @@ public class ProjectService {
         if (project.getMembros().size() >= 10) {
             throw new ProjectException("Projeto já tem o máximo de 10 membros");
         }
-        long activeProjects = repository.findAll().stream()
-                .filter(p -> p.getStatus().isActive() && p.getMembros().contains(memberId))
-                .count();
+        // A regra vale para o portfólio inteiro: com particionamento cada shard conta os seus em paralelo. O lock do
+        // membro fica até o commit, então uma alocação concorrente só conta depois que esta estiver gravada
+        shards.lockUntilCompletion(memberId);
+        long activeProjects = shards.scatter(shard -> repository.countActiveAllocations(memberId))
+                .stream().mapToLong(Long::longValue).sum();
         if (activeProjects >= 3) {
             throw new ProjectException("Membro já alocado em 3 projetos ativos");
         }
@@ -176,7 +312,9 @@ public class ProjectService {
         return toDTO(repository.save(project));
     }
 
+    @Transactional
     public ProjectDTO removeMember(Long id, Long memberId) {
+        shards.route(id);
         Project project = repository.findById(id).orElseThrow(() -> new ProjectException("Projeto não encontrado"));
         if (!project.getMembros().remove(memberId)) {
             throw new ProjectException("Membro não encontrado no projeto");
@@ -184,10 +322,30 @@ public class ProjectService {
         if (project.getMembros().isEmpty()) {
             throw new ProjectException("Projeto deve ter pelo menos 1 membro");
         }
+        events.publishEvent(ProjectChangeEvent.of(ProjectChangeType.MEMBROS_ALTERADOS, id, project.getStatus()));
         return toDTO(repository.save(project));
     }
 
+    // Com particionamento cada shard monta os seus totais em paralelo e aqui eles são somados
     public ReportDTO getReport() {
+        Map<String, Long> qtdPorStatus = new HashMap<>();
+        Map<String, BigDecimal> totalOrcado = new HashMap<>();
+        long encerradosComTermino = 0;
+        long diasAteTermino = 0;
+        Set<Long> unicos = new HashSet<>();
+        for (ReportPartial parcial : shards.scatter(shard -> reportPartial())) {
+            parcial.qtdPorStatus().forEach((status, qtd) -> qtdPorStatus.merge(status, qtd, Long::sum));
+            parcial.totalOrcado().forEach((status, total) -> totalOrcado.merge(status, total, BigDecimal::add));
+            encerradosComTermino += parcial.encerradosComTermino();
+            diasAteTermino += parcial.diasAteTermino();
+            unicos.addAll(parcial.membros());
+        }
+        double mediaDuracao = encerradosComTermino == 0 ? 0 : (double) diasAteTermino / encerradosComTermino;
+        return new ReportDTO(qtdPorStatus, totalOrcado, mediaDuracao, unicos.size());
+    }
+
+    // Varre só a camada quente; a fria entra pelos totais mantidos pelo arquivamento
+    private ReportPartial reportPartial() {
         List<Project> all = repository.findAll();
         Map<String, Long> qtdPorStatus = all.stream()
                 .collect(Collectors.groupingBy(p -> p.getStatus().name(), Collectors.counting()));
@@ -197,50 +355,68 @@ public class ProjectService {
         List<Project> encerrados = all.stream()
                 .filter(p -> p.getStatus() == StatusProjeto.ENCERRADO && p.getDataRealTermino() != null)
                 .toList();
-        double mediaDuracao = encerrados.isEmpty() ? 0 : encerrados.stream()
+        long encerradosComTermino = encerrados.size();
+        long diasAteTermino = encerrados.stream()
                 .mapToLong(p -> ChronoUnit.DAYS.between(p.getDataInicio(), p.getDataRealTermino()))
-                .average().orElse(0);
-        Set<Long> unicos = all.stream().flatMap(p -> p.getMembros().stream()).collect(Collectors.toSet());
-        return new ReportDTO(qtdPorStatus, totalOrcado, mediaDuracao, unicos.size());
+                .sum();
+        for (ArchiveSummaryView arquivados : repository.archiveSummary()) {
+            qtdPorStatus.merge(arquivados.getStatus(), arquivados.getQuantidade(), Long::sum);
+            totalOrcado.merge(arquivados.getStatus(), arquivados.getOrcamento(), BigDecimal::add);
+            if (StatusProjeto.ENCERRADO.name().equals(arquivados.getStatus())) {
+                encerradosComTermino += arquivados.getComTermino();
+                diasAteTermino += arquivados.getDiasAteTermino();
+            }
+        }
+        Set<Long> membros = all.stream().flatMap(p -> p.getMembros().stream()).collect(Collectors.toSet());
+        membros.addAll(repository.archivedMemberIds());
+        return new ReportPartial(qtdPorStatus, totalOrcado, encerradosComTermino, diasAteTermino, membros);
     }
 
     private Member convertAndValidateMember(Long memberId, boolean isTeamMember) {
-        logger.debug("Validando membro com ID: {} (isTeamMember: {})", memberId, isTeamMember);
-
         MemberDTO memberDTO = memberService.getMember(memberId);
         if (memberDTO == null) {
-            logger.error("Membro não encontrado com ID: {}", memberId);
+            logger.atError().setMessage("Membro não encontrado").addKeyValue("membroId", memberId).log();
             throw new ProjectException("Membro não encontrado");
         }
 
-        logger.debug("Membro encontrado: {} - {}", memberDTO.nome(), memberDTO.cargo());
-
-        if (isTeamMember) {
-            if (!"funcionario".equals(memberDTO.cargo())) {
-                logger.error("Membro {} tem cargo '{}' mas deveria ser 'funcionario'", memberDTO.nome(), memberDTO.cargo());
-                throw new ProjectException("Apenas membros com atribuição 'funcionário' podem ser associados");
-            }
-        } else {
-            if (!"gerente".equals(memberDTO.cargo())) {
-                logger.error("Membro {} tem cargo '{}' mas deveria ser 'gerente'", memberDTO.nome(), memberDTO.cargo());
-                throw new ProjectException("Apenas membros com atribuição 'gerente' podem ser gerentes responsáveis");
-            }
+        String esperado = isTeamMember ? "funcionario" : "gerente";
+        if (!esperado.equals(memberDTO.cargo())) {
+            logger.atError().setMessage("Cargo incompatível")
+                    .addKeyValue("membroId", memberId)
+                    .addKeyValue("cargo", memberDTO.cargo())
+                    .addKeyValue("esperado", esperado)
+                    .log();
+            throw new ProjectException(isTeamMember
+                    ? "Apenas membros com atribuição 'funcionário' podem ser associados"
+                    : "Apenas membros com atribuição 'gerente' podem ser gerentes responsáveis");
         }
 
         Member member = new Member();
         member.setId(memberDTO.id());
         member.setNome(memberDTO.nome());
         member.setCargo(memberDTO.cargo());
-
-        logger.debug("Membro validado com sucesso: {} - {}", member.getNome(), member.getCargo());
+        logger.atDebug().setMessage("Membro validado").addKeyValue("membroId", memberId)
+                .addKeyValue("cargo", member.getCargo()).log();
         return member;
     }
 
-    private ProjectDTO toDTO(Project p) {
-        MemberDTO gerenteDTO = (p.getGerente() != null)
-                ? new MemberDTO(p.getGerente().getId(), p.getGerente().getNome(), p.getGerente().getCargo())
-                : null;
+    // Copia os membros: a coleção lazy do Hibernate não pode chegar ao Jackson depois que a sessão fechou
+    ProjectDTO toDTO(Project p) {
+        return new ProjectDTO(p.getId(), p.getNome(), p.getDataInicio(), p.getPrevisaoTermino(), p.getDataRealTermino(),
+                p.getOrcamentoTotal(), p.getDescricao(), toDTO(p.getGerente()), p.getStatus(), p.getRisco(),
+                p.getMembros() == null ? null : List.copyOf(p.getMembros()));
+    }
+
+    private ProjectDTO toDTO(ProjectView p) {
         return new ProjectDTO(p.getId(), p.getNome(), p.getDataInicio(), p.getPrevisaoTermino(), p.getDataRealTermino(),
-                p.getOrcamentoTotal(), p.getDescricao(), gerenteDTO, p.getStatus(), p.getRisco(), p.getMembros());
+                p.getOrcamentoTotal(), p.getDescricao(), toDTO(p.getGerente()), p.getStatus(), p.getRisco(),
+                List.copyOf(p.getMembros()));
+    }
+
+    private MemberDTO toDTO(Member gerente) {
+        return gerente != null ? new MemberDTO(gerente.getId(), gerente.getNome(), gerente.getCargo()) : null;
     }
+
+    private record ReportPartial(Map<String, Long> qtdPorStatus, Map<String, BigDecimal> totalOrcado,
+                                 long encerradosComTermino, long diasAteTermino, Set<Long> membros) {}
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Linha do tempo ({@code GET /projects/timeline}): projetos cujo período, do início ao término real ou previsto, se
+ * sobrepõe a uma janela. A sobreposição usa a coluna {@code periodo} (daterange com índice GiST) e o resultado é
+ * escrito como array JSON enquanto o cursor avança, sem montar a lista em memória. A ordem não é garantida.
+ */
+@Service
+public class ProjectTimeline {
+
+    private final JsonArrayStreamer streamer;
+    private final int fetchSize;
+
+    public ProjectTimeline(JsonArrayStreamer streamer, @Value("${timeline.fetch-size:1000}") int fetchSize) {
+        this.streamer = streamer;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Valida a janela já na thread da requisição: depois que o corpo começa a ser escrito o status não muda mais.
+     */
+    public StreamingResponseBody stream(LocalDate from, LocalDate to, Optional<Long> gerenteId,
+                                        Optional<Long> membroId, boolean includeArchived) {
+        if (from.isAfter(to)) {
+            throw new ProjectException("Janela inválida: 'from' depois de 'to'");
+        }
+        String sql = query(gerenteId.isPresent(), membroId.isPresent(), includeArchived);
+        List<Object> params = new ArrayList<>(List.of(from, to));
+        gerenteId.ifPresent(params::add);
+        membroId.ifPresent(params::add);
+        return streamer.projects(sql, params, fetchSize, this::write);
+    }
+
+    private String query(boolean porGerente, boolean porMembro, boolean includeArchived) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT p.id, p.nome, p.status, p.data_inicio, p.previsao_termino, p.data_real_termino, p.gerente_id
+                FROM %s p
+                WHERE p.periodo && daterange(CAST(? AS DATE), CAST(? AS DATE), '[]')
+                """.formatted(includeArchived ? "projects_all" : "projects"));
+        if (porGerente) {
+            sql.append(" AND p.gerente_id = ?");
+        }
+        if (porMembro) {
+            sql.append(" AND EXISTS (SELECT 1 FROM ").append(includeArchived ? "project_membros_all" : "project_membros")
+                    .append(" m WHERE m.project_id = p.id AND m.membros = ?)");
+        }
+        return sql.toString();
+    }
+
+    // Datas saem como o texto ISO do Postgres, sem passar por LocalDate
+    private void write(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", rs.getLong(1));
+        json.writeStringField("nome", rs.getString(2));
+        json.writeStringField("status", rs.getString(3));
+        json.writeStringField("dataInicio", rs.getString(4));
+        json.writeStringField("previsaoTermino", rs.getString(5));
+        String termino = rs.getString(6);
+        if (termino != null) {
+            json.writeStringField("dataRealTermino", termino);
+        }
+        long gerente = rs.getLong(7);
+        if (!rs.wasNull()) {
+            json.writeNumberField("gerenteId", gerente);
+        }
+        json.writeEndObject();
+    }
+}
@@ -0,0 +1,230 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.dto.WriteStatus;
+import com.planejao.gestao_projetos.dto.WriteTicketDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fila de escritas assíncronas ({@code Prefer: respond-async}) de projetos. Um único worker drena a fila em lotes,
+ * agrupa as escritas por projeto (várias escritas no mesmo projeto viram um único UPDATE) e aplica o lote inteiro
+ * numa transação. A fila e os tickets ficam na memória desta instância: o andamento de uma escrita só é consultável
+ * nela, e um reinício perde os dois.
+ */
+@Service
+public class ProjectWritePipeline implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWritePipeline.class);
+
+    private final ProjectService projectService;
+    private final ProjectRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProjectShards shards;
+    private final BlockingQueue<PendingWrite> queue;
+    private final Map<UUID, WriteTicketDTO> tickets = new ConcurrentHashMap<>();
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final long retentionMinutes;
+    private volatile boolean running;
+    private Thread worker;
+
+    public ProjectWritePipeline(ProjectService projectService, ProjectRepository repository,
+                                PlatformTransactionManager transactionManager, ProjectShards shards,
+                                @Value("${async-writes.queue-capacity:10000}") int queueCapacity,
+                                @Value("${async-writes.max-batch-size:200}") int maxBatchSize,
+                                @Value("${async-writes.linger-ms:5}") long lingerMillis,
+                                @Value("${async-writes.retention-minutes:15}") long retentionMinutes) {
+        this.projectService = projectService;
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = shards;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.lingerMillis = lingerMillis;
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    public WriteTicketDTO submitUpdate(Long projectId, ProjectUpdateDTO dto) {
+        return submit(new PendingWrite(UUID.randomUUID(), projectId, dto, null));
+    }
+
+    public WriteTicketDTO submitStatus(Long projectId, StatusProjeto status) {
+        return submit(new PendingWrite(UUID.randomUUID(), projectId, null, status));
+    }
+
+    /**
+     * Se o cabeçalho {@code Prefer} pede {@code respond-async}: o cabeçalho pode se repetir e cada valor pode ser uma
+     * lista ({@code respond-async, wait=5}) com parâmetros ({@code respond-async; x=1}).
+     */
+    public static boolean respondAsync(List<String> prefer) {
+        if (prefer == null) {
+            return false;
+        }
+        return prefer.stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(preference -> preference.split(";", 2)[0].trim())
+                .anyMatch("respond-async"::equalsIgnoreCase);
+    }
+
+    public WriteTicketDTO getTicket(UUID trackingId) {
+        WriteTicketDTO ticket = tickets.get(trackingId);
+        if (ticket == null) {
+            throw new ProjectException("Escrita não encontrada");
+        }
+        return ticket;
+    }
+
+    private WriteTicketDTO submit(PendingWrite write) {
+        WriteTicketDTO ticket = new WriteTicketDTO(write.trackingId(), write.projectId(), WriteStatus.PENDENTE,
+                null, Instant.now(), null);
+        tickets.put(write.trackingId(), ticket);
+        if (!queue.offer(write)) {
+            tickets.remove(write.trackingId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Fila de escritas assíncronas cheia");
+        }
+        return ticket;
+    }
+
+    private void drain() {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Espera um pouco por mais escritas quando a fila está rasa, para que o commit valha por várias
+                if (lingerMillis > 0 && queue.size() < maxBatchSize - 1) {
+                    Thread.sleep(lingerMillis);
+                }
+                queue.drainTo(batch, maxBatchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(w -> complete(w.trackingId(), "Escrita interrompida"));
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Falha inesperada ao processar lote de {} escritas", batch.size(), e);
+                batch.forEach(w -> complete(w.trackingId(), "Erro interno ao aplicar escrita"));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Com particionamento o lote vira uma transação por shard
+    void processBatch(List<PendingWrite> batch) {
+        batch.stream()
+                .collect(Collectors.groupingBy(w -> shards.shardOf(w.projectId()), LinkedHashMap::new, Collectors.toList()))
+                .forEach((shard, writes) -> shards.on(shard, () -> {
+                    processShardBatch(writes);
+                    return null;
+                }));
+    }
+
+    private void processShardBatch(List<PendingWrite> batch) {
+        Map<Long, List<PendingWrite>> byProject = batch.stream()
+                .collect(Collectors.groupingBy(PendingWrite::projectId, LinkedHashMap::new, Collectors.toList()));
+        try {
+            transactionTemplate.execute(tx -> applyAll(byProject)).forEach(this::complete);
+            logger.debug("Lote de {} escritas aplicado em {} projetos", batch.size(), byProject.size());
+        } catch (RuntimeException e) {
+            // Um projeto com erro no flush não deve derrubar o lote inteiro: reaplica projeto a projeto
+            logger.warn("Commit em lote falhou, reaplicando {} projetos individualmente", byProject.size(), e);
+            byProject.forEach((projectId, writes) -> {
+                try {
+                    transactionTemplate.execute(tx -> applyAll(Map.of(projectId, writes))).forEach(this::complete);
+                } catch (RuntimeException ex) {
+                    logger.error("Falha ao aplicar escritas do projeto ID: {}", projectId, ex);
+                    writes.forEach(w -> complete(w.trackingId(), "Erro ao salvar projeto"));
+                }
+            });
+        }
+    }
+
+    // Retorna o resultado de cada escrita (null = aplicada); os tickets só mudam depois do commit
+    private Map<UUID, String> applyAll(Map<Long, List<PendingWrite>> byProject) {
+        Map<Long, Project> projects = repository.findAllById(byProject.keySet()).stream()
+                .collect(Collectors.toMap(Project::getId, Function.identity()));
+        Map<UUID, String> outcomes = new LinkedHashMap<>();
+        byProject.forEach((projectId, writes) -> {
+            Project project = projects.get(projectId);
+            for (PendingWrite write : writes) {
+                if (project == null) {
+                    outcomes.put(write.trackingId(), "Projeto não encontrado");
+                    continue;
+                }
+                try {
+                    if (write.update() != null) {
+                        projectService.applyUpdate(project, write.update());
+                    } else {
+                        projectService.applyStatus(project, write.status());
+                    }
+                    outcomes.put(write.trackingId(), null);
+                } catch (ProjectException e) {
+                    outcomes.put(write.trackingId(), e.getMessage());
+                }
+            }
+        });
+        repository.saveAll(projects.values());
+        return outcomes;
+    }
+
+    private void complete(UUID trackingId, String erro) {
+        tickets.computeIfPresent(trackingId, (id, ticket) -> ticket.complete(erro));
+    }
+
+    @Scheduled(fixedDelayString = "${async-writes.eviction-interval-ms:60000}")
+    public void evictCompletedTickets() {
+        Instant limit = Instant.now().minus(retentionMinutes, ChronoUnit.MINUTES);
+        tickets.values().removeIf(t -> t.concluidoEm() != null && t.concluidoEm().isBefore(limit));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::drain, "project-write-pipeline");
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    record PendingWrite(UUID trackingId, Long projectId, ProjectUpdateDTO update, StatusProjeto status) {}
+}
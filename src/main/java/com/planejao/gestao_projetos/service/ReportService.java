@@ -0,0 +1,96 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.dto.DimensionalReportDTO;
+import com.planejao.gestao_projetos.dto.ReportBucketDTO;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.repository.ReportBucketView;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+@Service
+public class ReportService {
+    private static final Logger logger = LoggerFactory.getLogger(ReportService.class);
+    // Gerentes na ordem numérica do id, como no ORDER BY gerente_id; projetos sem gerente por último
+    private static final Comparator<String> BY_GERENTE = Comparator.comparing(
+            (String chave) -> chave.chars().allMatch(Character::isDigit) ? Long.parseLong(chave) : null,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final ProjectRepository repository;
+    private final ExecutorService executor;
+    private final ProjectShards shards;
+
+    public ReportService(ProjectRepository repository, @Qualifier("reportExecutor") ExecutorService executor,
+                         ProjectShards shards) {
+        this.repository = repository;
+        this.executor = executor;
+        this.shards = shards;
+    }
+
+    /**
+     * Agrega o portfólio por gerente, faixa de risco e mês de início. Cada dimensão é um GROUP BY
+     * executado no banco em paralelo, então o tempo de resposta é o da consulta mais lenta.
+     */
+    public DimensionalReportDTO getDimensionalReport() {
+        CompletableFuture<List<ReportBucketDTO>> porGerente = aggregate(repository::aggregateByGerente, BY_GERENTE);
+        CompletableFuture<List<ReportBucketDTO>> porRisco = aggregate(() -> repository.aggregateByRisco(
+                Project.LIMITE_ORCAMENTO_MEDIO, Project.LIMITE_ORCAMENTO_ALTO,
+                Project.MESES_RISCO_MEDIO, Project.MESES_RISCO_ALTO), Comparator.naturalOrder());
+        CompletableFuture<List<ReportBucketDTO>> porMesInicio = aggregate(repository::aggregateByMesInicio,
+                Comparator.naturalOrder());
+        try {
+            return new DimensionalReportDTO(porGerente.join(), porRisco.join(), porMesInicio.join());
+        } catch (CompletionException e) {
+            logger.error("Falha ao gerar relatório por dimensão", e.getCause());
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Com particionamento cada dimensão roda em todos os shards e os grupos de mesma chave são combinados
+    private CompletableFuture<List<ReportBucketDTO>> aggregate(Supplier<List<ReportBucketView>> query,
+                                                               Comparator<String> order) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<List<ReportBucketDTO>> parciais = shards.scatter(shard -> query.get().stream().map(this::toDTO).toList());
+            return parciais.size() == 1 ? parciais.get(0) : merge(parciais, order);
+        }, executor);
+    }
+
+    private List<ReportBucketDTO> merge(List<List<ReportBucketDTO>> parciais, Comparator<String> order) {
+        Map<String, ReportBucketDTO> porChave = new LinkedHashMap<>();
+        for (List<ReportBucketDTO> buckets : parciais) {
+            for (ReportBucketDTO bucket : buckets) {
+                porChave.merge(bucket.chave(), bucket, this::combine);
+            }
+        }
+        return porChave.values().stream().sorted(Comparator.comparing(ReportBucketDTO::chave, order)).toList();
+    }
+
+    // A média de duração é ponderada pela quantidade de projetos de cada shard
+    private ReportBucketDTO combine(ReportBucketDTO a, ReportBucketDTO b) {
+        long quantidade = a.quantidade() + b.quantidade();
+        double media = quantidade == 0 ? 0
+                : (a.mediaDuracaoDias() * a.quantidade() + b.mediaDuracaoDias() * b.quantidade()) / quantidade;
+        return new ReportBucketDTO(a.chave(), quantidade, a.orcamentoTotal().add(b.orcamentoTotal()), media);
+    }
+
+    private ReportBucketDTO toDTO(ReportBucketView view) {
+        return new ReportBucketDTO(
+                view.getChave() != null ? view.getChave() : "Indefinido",
+                view.getQuantidade() != null ? view.getQuantidade() : 0,
+                view.getOrcamento() != null ? view.getOrcamento() : BigDecimal.ZERO,
+                view.getDuracao() != null ? view.getDuracao() : 0);
+    }
+}
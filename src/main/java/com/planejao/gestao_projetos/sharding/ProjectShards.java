@@ -0,0 +1,362 @@
+package com.planejao.gestao_projetos.sharding;
+
+import com.planejao.gestao_projetos.exception.ProjectException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Distribuição de projetos entre shards ({@code sharding.enabled=true}). A chave é o id do projeto: cada shard gera
+ * ids com incremento N a partir de {@code shard + 1}, então {@code (id - 1) % N} diz onde o projeto está. Membros são
+ * replicados em todos os shards. Sem particionamento há um único shard e todas as operações rodam direto na thread e
+ * na transação de quem chama.
+ */
+@Component
+public class ProjectShards {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectShards.class);
+    private static final String LOCK = "SELECT pg_advisory_xact_lock(?)";
+
+    private final int count;
+    private final int maxPageDepth;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    public ProjectShards(ShardingProperties properties, PlatformTransactionManager transactionManager,
+                         JdbcTemplate jdbcTemplate) {
+        this.count = properties.enabled() ? properties.shards().size() : 1;
+        this.maxPageDepth = properties.maxPageDepth();
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public int shardOf(long projectId) {
+        return (int) Math.floorMod(projectId - 1, (long) count);
+    }
+
+    /** Shard de um projeto novo: distribuição circular, o id gerado pelo shard mantém o roteamento. */
+    public int shardForNewProject() {
+        return Math.floorMod(nextShard.getAndIncrement(), count);
+    }
+
+    public void route(long projectId) {
+        use(shardOf(projectId));
+    }
+
+    /**
+     * Direciona a transação atual para o shard. Precisa vir antes do primeiro comando SQL da transação: a conexão só é
+     * aberta nesse momento. O shard vale até o fim da transação.
+     */
+    public void use(int shard) {
+        if (!isSharded()) {
+            return;
+        }
+        ShardContext.set(shard);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ShardContext.set(null);
+                }
+            });
+        }
+    }
+
+    /** Executa na thread atual com o shard definido; quem chama abre as transações dentro de {@code work}. */
+    public <T> T on(int shard, Supplier<T> work) {
+        if (!isSharded()) {
+            return work.get();
+        }
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            on(shard, () -> {
+                work.accept(current);
+                return null;
+            });
+        }
+    }
+
+    /** Tarefa para outra thread, levando o shard da thread atual. */
+    public <T> Callable<T> bind(Callable<T> task) {
+        if (!isSharded()) {
+            return task;
+        }
+        Integer shard = ShardContext.current();
+        // Com CallerRunsPolicy a tarefa roda na própria thread de quem submeteu, que segue no seu shard depois dela
+        return () -> {
+            Integer previous = ShardContext.current();
+            ShardContext.set(shard);
+            try {
+                return task.call();
+            } finally {
+                ShardContext.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Executa {@code query} em todos os shards em paralelo, cada um numa transação read-only própria, e devolve os
+     * resultados na ordem dos shards.
+     */
+    public <T> List<T> scatter(IntFunction<T> query) {
+        if (!isSharded()) {
+            return List.of(query.apply(0));
+        }
+        List<Future<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            futures.add(executor.submit(() -> {
+                ShardContext.set(current);
+                try {
+                    return readTransaction.execute(tx -> query.apply(current));
+                } finally {
+                    ShardContext.set(null);
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(count);
+        for (Future<T> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    /**
+     * Página sobre todos os shards: cada shard devolve as primeiras {@code offset + size} linhas na mesma ordenação e as
+     * listas são intercaladas (merge k-way) até a página pedida. O total é a soma dos totais. Como cada shard lê a
+     * profundidade inteira, páginas que passam de {@code sharding.max-page-depth} linhas são recusadas. O
+     * {@code order} intercala na mesma ordem que o {@code sqlOrder} produz no banco.
+     */
+    public <T> Page<T> scatterPage(Pageable pageable, Function<Sort, Comparator<T>> order,
+                                   UnaryOperator<Sort> sqlOrder, Function<Pageable, Page<T>> query) {
+        if (!isSharded()) {
+            return query.apply(pageable);
+        }
+        if (pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() > maxPageDepth) {
+            throw new ProjectException("Com particionamento a paginação vai até o registro " + maxPageDepth
+                    + "; refine os filtros ou a ordenação");
+        }
+        Sort sort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id")) : pageable.getSort();
+        Comparator<T> comparator = order.apply(sort);
+        Sort sqlSort = sqlOrder.apply(sort);
+        Pageable window = pageable.isPaged()
+                ? PageRequest.of(0, Math.toIntExact(pageable.getOffset() + pageable.getPageSize()), sqlSort)
+                : Pageable.unpaged(sqlSort);
+        List<Page<T>> pages = scatter(shard -> query.apply(window));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        return new PageImpl<>(merge(pages, comparator, skip, limit), pageable, total);
+    }
+
+    /**
+     * Advisory lock de transação no shard 0, mantido até o fim da transação atual: serializa escritas sujeitas a uma
+     * regra do portfólio inteiro, como a de 3 projetos ativos por membro. No shard 0, ou sem particionamento, o lock
+     * vai na própria transação; nos demais uma conexão do shard 0 segura o lock até o commit ou rollback de quem chama.
+     */
+    public void lockUntilCompletion(long key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O lock entre shards exige uma transação ativa");
+        }
+        Integer current = ShardContext.current();
+        if (current == null || current == 0) {
+            jdbcTemplate.queryForList(LOCK, key);
+            return;
+        }
+        // Uma conexão por transação: os locks seguintes (outros membros, ou o mesmo de novo) vão na mesma sessão e
+        // não esperam por um lock que a própria transação já tem
+        Connection connection = (Connection) TransactionSynchronizationManager.getResource(this);
+        if (connection == null) {
+            connection = on(0, () -> lock(openConnection(), key));
+            TransactionSynchronizationManager.bindResource(this, connection);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release((Connection) TransactionSynchronizationManager.unbindResource(ProjectShards.this));
+                }
+            });
+        } else {
+            lock(connection, key);
+        }
+    }
+
+    private Connection openConnection() {
+        try {
+            return jdbcTemplate.getDataSource().getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao abrir a conexão do lock entre shards", e);
+        }
+    }
+
+    // A conexão do proxy lazy só escolhe o shard no primeiro comando, que roda aqui ainda com o shard 0 definido
+    private Connection lock(Connection connection, long key) {
+        try (PreparedStatement statement = connection.prepareStatement(LOCK)) {
+            statement.setLong(1, key);
+            statement.execute();
+            return connection;
+        } catch (SQLException e) {
+            if (!TransactionSynchronizationManager.hasResource(this)) {
+                release(connection);
+            }
+            throw new IllegalStateException("Falha no lock entre shards", e);
+        }
+    }
+
+    // O rollback encerra a transação do lock e o libera
+    private void release(Connection connection) {
+        try (connection) {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.warn("Falha ao liberar o lock entre shards", e);
+        }
+    }
+
+    /**
+     * Escreve nos demais shards (membros recém-criados no shard 0), cada um numa transação própria aberta só depois do
+     * commit da transação atual: um rollback no shard 0 não deixa cópias. Uma cópia que falha é registrada no log e
+     * completada pela reconciliação de membros ({@code MemberReplicaReconciler}).
+     */
+    public void replicate(IntConsumer write) {
+        if (!isSharded()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            copyToReplicas(write);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                copyToReplicas(write);
+            }
+        });
+    }
+
+    private void copyToReplicas(IntConsumer write) {
+        for (int shard = 1; shard < count; shard++) {
+            int current = shard;
+            try {
+                on(shard, () -> writeTransaction.execute(tx -> {
+                    write.accept(current);
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao replicar no shard {}; a reconciliação de membros completa a cópia", current, e);
+            }
+        }
+    }
+
+    private <T> List<T> merge(List<Page<T>> pages, Comparator<T> comparator, long skip, int limit) {
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.head(), b.head()));
+        for (Page<T> page : pages) {
+            if (page.hasContent()) {
+                heads.add(new Cursor<>(page.getContent()));
+            }
+        }
+        List<T> result = new ArrayList<>();
+        long position = 0;
+        while (!heads.isEmpty() && result.size() < limit) {
+            Cursor<T> cursor = heads.poll();
+            if (position++ >= skip) {
+                result.add(cursor.head());
+            }
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return result;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Falha na consulta distribuída entre shards", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta distribuída entre shards interrompida", e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> rows;
+        private int index;
+
+        Cursor(List<T> rows) {
+            this.rows = rows;
+        }
+
+        T head() {
+            return rows.get(index);
+        }
+
+        boolean advance() {
+            return ++index < rows.size();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.planejao.gestao_projetos.sharding;
+
+/**
+ * Shard da thread atual, lido pelo {@link ShardRoutingDataSource} quando a conexão é de fato aberta. Sem shard
+ * definido as conexões vão para o shard 0, que também serve as leituras de membros (replicados em todos).
+ */
+final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+}
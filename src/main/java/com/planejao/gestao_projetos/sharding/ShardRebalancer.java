@@ -0,0 +1,209 @@
+package com.planejao.gestao_projetos.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Distribuição das linhas entre os shards na subida. {@link #validate} nunca apaga nada: um shard vazio só passa a
+ * gerar ids para N shards, e um shard que já tem projetos com outro incremento interrompe a subida.
+ * {@link #rebalance} ({@code sharding.rebalance=true}) é o passo explícito para a primeira subida com N shards ou uma
+ * mudança de N: cada projeto fora do shard dono é copiado para ele, com seus membros alocados, e só é removido da
+ * origem depois do commit da cópia. Uma execução interrompida pode ser repetida: a cópia ignora ids que o destino já
+ * tem.
+ */
+public final class ShardRebalancer {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+    private static final int BATCH = 1000;
+
+    // Tabela de projetos e a de membros alocados que referencia seus ids
+    private record Tier(String projects, String membros) {}
+
+    private static final List<Tier> TIERS = List.of(new Tier("projects", "project_membros"),
+            new Tier("projects_archive", "project_membros_archive"));
+
+    private final int count;
+    private final List<NamedParameterJdbcTemplate> jdbc = new ArrayList<>();
+    private final List<TransactionTemplate> transactions = new ArrayList<>();
+
+    public ShardRebalancer(List<? extends DataSource> shards) {
+        this.count = shards.size();
+        for (DataSource shard : shards) {
+            jdbc.add(new NamedParameterJdbcTemplate(shard));
+            transactions.add(new TransactionTemplate(new DataSourceTransactionManager(shard)));
+        }
+    }
+
+    public void validate() {
+        for (int shard = 0; shard < count; shard++) {
+            long increment = increment(shard);
+            if (increment == count) {
+                continue;
+            }
+            if (hasProjects(shard)) {
+                throw new IllegalStateException(String.format("O shard %d já tem projetos e gera ids com incremento "
+                        + "%d, não %d: suba uma vez com sharding.rebalance=true para redistribuí-los", shard, increment,
+                        count));
+            }
+            restartIds(shard);
+        }
+    }
+
+    public void rebalance() {
+        logger.info("Redistribuindo projetos entre {} shards", count);
+        // Os projetos copiados referenciam membros por FK: todo shard precisa conhecer todos os membros antes
+        copyMembers();
+        for (int source = 0; source < count; source++) {
+            for (Tier tier : TIERS) {
+                int moved = move(source, tier);
+                if (moved > 0) {
+                    logger.info("Shard {}: {} linhas de {} copiadas para o shard dono", source, moved, tier.projects());
+                }
+            }
+        }
+        for (int shard = 0; shard < count; shard++) {
+            rebuildArchiveSummary(shard);
+            restartIds(shard);
+        }
+    }
+
+    private int move(int source, Tier tier) {
+        String columns = columns(source, tier.projects());
+        String values = columns.replaceAll("(\\w+)", ":$1");
+        int moved = 0;
+        List<Map<String, Object>> rows;
+        do {
+            rows = read(source, "SELECT " + columns + " FROM " + tier.projects()
+                    + " WHERE MOD(id - 1, :count) <> :shard ORDER BY id LIMIT :limite",
+                    Map.of("count", count, "shard", source, "limite", BATCH));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+            Map<Long, List<Long>> membros = read(source, "SELECT project_id, membros FROM " + tier.membros()
+                    + " WHERE project_id IN (:ids)", Map.of("ids", ids)).stream()
+                    .collect(Collectors.groupingBy(row -> ((Number) row.get("project_id")).longValue(),
+                            Collectors.mapping(row -> ((Number) row.get("membros")).longValue(), Collectors.toList())));
+            Map<Integer, List<Map<String, Object>>> porDono = rows.stream().collect(Collectors.groupingBy(
+                    row -> Math.floorMod(((Number) row.get("id")).longValue() - 1, count), LinkedHashMap::new,
+                    Collectors.toList()));
+            porDono.forEach((target, linhas) -> transactions.get(target).executeWithoutResult(tx -> {
+                for (Map<String, Object> row : linhas) {
+                    // Um projeto que o dono já tem (bancos clonados antes da divisão) fica como está no dono
+                    int inserted = jdbc.get(target).update("INSERT INTO " + tier.projects() + " (" + columns
+                            + ") VALUES (" + values + ") ON CONFLICT (id) DO NOTHING", row);
+                    if (inserted == 0) {
+                        continue;
+                    }
+                    long id = ((Number) row.get("id")).longValue();
+                    for (long membro : membros.getOrDefault(id, List.of())) {
+                        jdbc.get(target).update("INSERT INTO " + tier.membros() + " (project_id, membros) "
+                                + "VALUES (:id, :membro)", Map.of("id", id, "membro", membro));
+                    }
+                }
+            }));
+            // Só depois do commit em todos os donos
+            transactions.get(source).executeWithoutResult(tx -> {
+                jdbc.get(source).update("DELETE FROM " + tier.membros() + " WHERE project_id IN (:ids)",
+                        Map.of("ids", ids));
+                jdbc.get(source).update("DELETE FROM " + tier.projects() + " WHERE id IN (:ids)", Map.of("ids", ids));
+            });
+            moved += rows.size();
+        } while (rows.size() == BATCH);
+        return moved;
+    }
+
+    private void copyMembers() {
+        for (int source = 0; source < count; source++) {
+            long after = 0;
+            List<Map<String, Object>> members;
+            do {
+                members = read(source, "SELECT id, nome, cargo FROM members WHERE id > :after ORDER BY id LIMIT :limite",
+                        Map.of("after", after, "limite", BATCH));
+                if (members.isEmpty()) {
+                    break;
+                }
+                after = ((Number) members.get(members.size() - 1).get("id")).longValue();
+                MapSqlParameterSource[] batch = members.stream().map(MapSqlParameterSource::new)
+                        .toArray(MapSqlParameterSource[]::new);
+                for (int target = 0; target < count; target++) {
+                    if (target != source) {
+                        int shard = target;
+                        transactions.get(shard).executeWithoutResult(tx -> jdbc.get(shard).batchUpdate(
+                                "INSERT INTO members (id, nome, cargo) VALUES (:id, :nome, :cargo) "
+                                        + "ON CONFLICT (id) DO NOTHING", batch));
+                    }
+                }
+            } while (members.size() == BATCH);
+        }
+        // Ids de membros copiados de outro shard não passaram pela sequência local
+        for (int shard = 0; shard < count; shard++) {
+            int current = shard;
+            transactions.get(shard).executeWithoutResult(tx -> jdbc.get(current).getJdbcTemplate().queryForObject(
+                    "SELECT setval(pg_get_serial_sequence('members', 'id'), GREATEST((SELECT MAX(id) FROM members), 1))",
+                    Long.class));
+        }
+    }
+
+    private void rebuildArchiveSummary(int shard) {
+        transactions.get(shard).executeWithoutResult(tx -> {
+            var jdbcTemplate = jdbc.get(shard).getJdbcTemplate();
+            jdbcTemplate.update("DELETE FROM projects_archive_resumo");
+            jdbcTemplate.update("""
+                    INSERT INTO projects_archive_resumo (status, quantidade, orcamento, com_termino, dias_ate_termino)
+                    SELECT status, COUNT(*), SUM(orcamento_total), COUNT(data_real_termino),
+                           COALESCE(SUM(data_real_termino - data_inicio), 0)
+                    FROM projects_archive GROUP BY status
+                    """);
+            jdbcTemplate.update("DELETE FROM membros_arquivados");
+            jdbcTemplate.update("INSERT INTO membros_arquivados (member_id) "
+                    + "SELECT DISTINCT membros FROM project_membros_archive");
+        });
+    }
+
+    // O shard passa a gerar ids congruentes a shard + 1 (mod N), acima de todo id que já tem
+    private void restartIds(int shard) {
+        transactions.get(shard).executeWithoutResult(tx -> {
+            var jdbcTemplate = jdbc.get(shard).getJdbcTemplate();
+            long max = jdbcTemplate.queryForObject("SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM projects), "
+                    + "(SELECT COALESCE(MAX(id), 0) FROM projects_archive))", Long.class);
+            long next = max + 1 + Math.floorMod(shard - max, (long) count);
+            jdbcTemplate.execute("ALTER TABLE projects ALTER COLUMN id SET INCREMENT BY " + count
+                    + " RESTART WITH " + next);
+        });
+    }
+
+    private long increment(int shard) {
+        return transactions.get(shard).execute(tx -> jdbc.get(shard).getJdbcTemplate().queryForObject(
+                "SELECT seqincrement FROM pg_sequence "
+                        + "WHERE seqrelid = pg_get_serial_sequence('projects', 'id')::regclass", Long.class));
+    }
+
+    private boolean hasProjects(int shard) {
+        return transactions.get(shard).execute(tx -> jdbc.get(shard).getJdbcTemplate().queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM projects) OR EXISTS (SELECT 1 FROM projects_archive)", Boolean.class));
+    }
+
+    // Colunas gravadas pela aplicação; as geradas (periodo) são recalculadas no destino
+    private String columns(int shard, String table) {
+        return String.join(", ", read(shard, """
+                SELECT attname FROM pg_attribute
+                WHERE attrelid = CAST(:tabela AS regclass) AND attnum > 0 AND NOT attisdropped AND attgenerated = ''
+                ORDER BY attnum
+                """, Map.of("tabela", table)).stream().map(row -> (String) row.get("attname")).toList());
+    }
+
+    private List<Map<String, Object>> read(int shard, String sql, Map<String, ?> params) {
+        return transactions.get(shard).execute(tx -> jdbc.get(shard).queryForList(sql, params));
+    }
+}
@@ -0,0 +1,16 @@
+package com.planejao.gestao_projetos.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+@ConfigurationProperties(prefix = "sharding")
+public record ShardingProperties(boolean enabled, boolean rebalance, int maxPageDepth, List<Shard> shards) {
+
+    public ShardingProperties {
+        maxPageDepth = maxPageDepth > 0 ? maxPageDepth : 10_000;
+        shards = shards == null ? List.of() : List.copyOf(shards);
+    }
+
+    public record Shard(String url, String username, String password, int maxPoolSize) {}
+}
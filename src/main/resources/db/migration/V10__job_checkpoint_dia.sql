@@ -0,0 +1,3 @@
+-- Dia da execução dona do checkpoint: o de uma execução que caiu num dia anterior não vale para a de hoje, que
+-- tem outro corte de previsão e precisa recomeçar do id 0
+ALTER TABLE job_checkpoints ADD COLUMN dia DATE;
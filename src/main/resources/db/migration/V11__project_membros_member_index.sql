@@ -0,0 +1,2 @@
+-- A regra de 3 projetos ativos conta as alocações de um membro em cada shard a cada alocação
+CREATE INDEX idx_project_membros_membro ON project_membros (membros);
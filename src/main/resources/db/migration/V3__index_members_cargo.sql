@@ -0,0 +1,2 @@
+-- Suporta a listagem por cargo (inclusive por cursor, ordenada por id) e a contagem por cargo
+CREATE INDEX idx_members_cargo ON members (cargo, id);
@@ -0,0 +1,55 @@
+-- Camada fria: projetos encerrados/cancelados antigos saem de projects e project_membros
+CREATE TABLE projects_archive (
+    id BIGINT PRIMARY KEY,
+    data_inicio DATE NOT NULL,
+    data_real_termino DATE,
+    orcamento_total NUMERIC(38,2) NOT NULL,
+    previsao_termino DATE NOT NULL,
+    descricao VARCHAR(255),
+    gerente_id BIGINT,
+    nome VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    arquivado_em TIMESTAMP NOT NULL,
+    FOREIGN KEY (gerente_id) REFERENCES members(id)
+);
+
+CREATE TABLE project_membros_archive (
+    project_id BIGINT NOT NULL,
+    membros BIGINT NOT NULL,
+    FOREIGN KEY (project_id) REFERENCES projects_archive(id),
+    FOREIGN KEY (membros) REFERENCES members(id)
+);
+
+CREATE INDEX idx_project_membros_archive_project ON project_membros_archive (project_id);
+
+-- O arquivamento remove membros por project_id; a tabela quente não tinha índice nessa coluna
+CREATE INDEX idx_project_membros_project ON project_membros (project_id);
+
+-- Totais da camada fria mantidos pelo arquivamento, para o relatório não precisar varrê-la
+CREATE TABLE projects_archive_resumo (
+    status VARCHAR(255) PRIMARY KEY,
+    quantidade BIGINT NOT NULL,
+    orcamento NUMERIC(38,2) NOT NULL,
+    com_termino BIGINT NOT NULL,
+    dias_ate_termino BIGINT NOT NULL
+);
+
+CREATE TABLE membros_arquivados (
+    member_id BIGINT PRIMARY KEY,
+    FOREIGN KEY (member_id) REFERENCES members(id)
+);
+
+-- Leitura das duas camadas juntas (?includeArchived=true e GET /projects/{id})
+CREATE VIEW projects_all AS
+SELECT id, data_inicio, data_real_termino, orcamento_total, previsao_termino, descricao, gerente_id, nome, status,
+       FALSE AS arquivado
+FROM projects
+UNION ALL
+SELECT id, data_inicio, data_real_termino, orcamento_total, previsao_termino, descricao, gerente_id, nome, status,
+       TRUE AS arquivado
+FROM projects_archive;
+
+CREATE VIEW project_membros_all AS
+SELECT project_id, membros FROM project_membros
+UNION ALL
+SELECT project_id, membros FROM project_membros_archive;
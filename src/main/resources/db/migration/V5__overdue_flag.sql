@@ -0,0 +1,15 @@
+-- Projetos ativos que passaram da previsão de término, marcados pelo ProjectOverdueScanner
+ALTER TABLE projects ADD COLUMN atrasado BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Varredura: status ativos com previsão já vencida
+CREATE INDEX idx_projects_status_previsao ON projects (status, previsao_termino);
+
+-- ?overdue=true e a limpeza de marcações resolvidas leem só as linhas marcadas
+CREATE INDEX idx_projects_atrasado ON projects (id) WHERE atrasado;
+
+-- Último id processado por job em lotes; 0 quando a última execução terminou
+CREATE TABLE job_checkpoints (
+    job VARCHAR(100) PRIMARY KEY,
+    ultimo_id BIGINT NOT NULL,
+    atualizado_em TIMESTAMP NOT NULL
+);
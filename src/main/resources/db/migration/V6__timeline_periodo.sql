@@ -0,0 +1,23 @@
+-- Período ocupado por cada projeto na linha do tempo (GET /projects/timeline): do início ao término real ou, enquanto
+-- não houver, à previsão. GREATEST evita um intervalo invertido quando o término fica antes do início.
+ALTER TABLE projects ADD COLUMN periodo DATERANGE GENERATED ALWAYS AS (
+    daterange(data_inicio, GREATEST(data_inicio, COALESCE(data_real_termino, previsao_termino)), '[]')
+) STORED;
+
+ALTER TABLE projects_archive ADD COLUMN periodo DATERANGE GENERATED ALWAYS AS (
+    daterange(data_inicio, GREATEST(data_inicio, COALESCE(data_real_termino, previsao_termino)), '[]')
+) STORED;
+
+-- Sobreposição com a janela pedida (&&) sem varrer a tabela
+CREATE INDEX idx_projects_periodo ON projects USING GIST (periodo);
+CREATE INDEX idx_projects_archive_periodo ON projects_archive USING GIST (periodo);
+
+-- A coluna nova entra no fim da view, como exige CREATE OR REPLACE
+CREATE OR REPLACE VIEW projects_all AS
+SELECT id, data_inicio, data_real_termino, orcamento_total, previsao_termino, descricao, gerente_id, nome, status,
+       FALSE AS arquivado, periodo
+FROM projects
+UNION ALL
+SELECT id, data_inicio, data_real_termino, orcamento_total, previsao_termino, descricao, gerente_id, nome, status,
+       TRUE AS arquivado, periodo
+FROM projects_archive;
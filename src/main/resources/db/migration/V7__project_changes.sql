@@ -0,0 +1,64 @@
+-- Projetos alterados por transação, para o snapshot do portfólio retomar de um arquivo: quem leu o banco com o xmin
+-- X reaplica os projetos registrados com txid >= X. Limpo pela aplicação depois do período de retenção.
+CREATE TABLE project_changes (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    project_id BIGINT NOT NULL,
+    txid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    alterado_em TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_project_changes_txid ON project_changes (txid);
+CREATE INDEX idx_project_changes_alterado_em ON project_changes (alterado_em);
+
+-- Identifica este banco para o arquivo do snapshot: um banco recriado (ou limpo pelo Flyway) ganha outra origem, e
+-- um arquivo gravado antes não pode ser retomado por um log que não o acompanha
+CREATE TABLE project_changes_origem (
+    origem UUID NOT NULL
+);
+INSERT INTO project_changes_origem (origem) VALUES (gen_random_uuid());
+
+-- Gatilhos por comando com tabelas de transição: um INSERT ... SELECT por comando, não um por linha. Atualizações só
+-- contam quando mudam colunas do snapshot (a marcação de atrasados, por exemplo, não entra). Arquivar é um DELETE
+-- em projects, já registrado; a camada fria não precisa de gatilhos próprios.
+CREATE FUNCTION registrar_alteracao_projetos() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO project_changes (project_id) SELECT id FROM novos;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO project_changes (project_id) SELECT id FROM antigos;
+    ELSE
+        INSERT INTO project_changes (project_id)
+        SELECT n.id
+        FROM novos n
+        JOIN antigos a ON a.id = n.id
+        WHERE (n.status, n.orcamento_total, n.data_inicio, n.previsao_termino, n.data_real_termino, n.gerente_id)
+              IS DISTINCT FROM
+              (a.status, a.orcamento_total, a.data_inicio, a.previsao_termino, a.data_real_termino, a.gerente_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER projects_insert_changes AFTER INSERT ON projects
+    REFERENCING NEW TABLE AS novos FOR EACH STATEMENT EXECUTE FUNCTION registrar_alteracao_projetos();
+CREATE TRIGGER projects_update_changes AFTER UPDATE ON projects
+    REFERENCING NEW TABLE AS novos OLD TABLE AS antigos FOR EACH STATEMENT EXECUTE FUNCTION registrar_alteracao_projetos();
+CREATE TRIGGER projects_delete_changes AFTER DELETE ON projects
+    REFERENCING OLD TABLE AS antigos FOR EACH STATEMENT EXECUTE FUNCTION registrar_alteracao_projetos();
+
+-- A quantidade de membros também está no snapshot
+CREATE FUNCTION registrar_alteracao_membros() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO project_changes (project_id) SELECT DISTINCT project_id FROM novos;
+    ELSE
+        INSERT INTO project_changes (project_id) SELECT DISTINCT project_id FROM antigos;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER project_membros_insert_changes AFTER INSERT ON project_membros
+    REFERENCING NEW TABLE AS novos FOR EACH STATEMENT EXECUTE FUNCTION registrar_alteracao_membros();
+CREATE TRIGGER project_membros_delete_changes AFTER DELETE ON project_membros
+    REFERENCING OLD TABLE AS antigos FOR EACH STATEMENT EXECUTE FUNCTION registrar_alteracao_membros();
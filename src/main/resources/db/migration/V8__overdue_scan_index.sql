@@ -0,0 +1,6 @@
+-- A varredura filtra os status ativos com IN (NOT IN não vira faixa de índice) e anda por id: o índice parcial só
+-- guarda os candidatos ainda não marcados, em ordem de id, e as linhas marcadas saem dele à medida que o lote avança
+DROP INDEX idx_projects_status_previsao;
+CREATE INDEX idx_projects_atraso_pendente ON projects (id, previsao_termino)
+    WHERE NOT atrasado
+      AND status IN ('EM_ANALISE', 'ANALISE_REALIZADA', 'ANALISE_APROVADA', 'INICIADO', 'PLANEJADO', 'EM_ANDAMENTO');
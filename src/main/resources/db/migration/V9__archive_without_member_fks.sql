@@ -0,0 +1,5 @@
+-- A camada fria é uma cópia histórica: não impede excluir os membros que ela cita. Quem lê o arquivo trata o
+-- gerente ou membro que não existe mais (ver ProjectView)
+ALTER TABLE projects_archive DROP CONSTRAINT projects_archive_gerente_id_fkey;
+ALTER TABLE project_membros_archive DROP CONSTRAINT project_membros_archive_membros_fkey;
+ALTER TABLE membros_arquivados DROP CONSTRAINT membros_arquivados_member_id_fkey;
@@ -0,0 +1,170 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.ProjectArchiver;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Latência dos caminhos quentes (listagem, validação do addMember, relatório) conforme cresce o volume de projetos
+ * terminados, com eles ainda em {@code projects} e depois de arquivados:
+ * {@code mvn test -Dbenchmark=true -Dtest=ArchiveTierBenchmark}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ArchiveTierBenchmark {
+
+    private static final String MARCADOR = "benchmark-arquivo";
+    private static final int[] TERMINADOS = {0, 2_000, 10_000};
+    private static final int RUNS = 3;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectArchiver archiver;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Member> members = new ArrayList<>();
+    private Member gerente;
+    private Member funcionario;
+    private Member extra;
+    private Project hot;
+
+    @BeforeEach
+    void setUp() {
+        gerente = save("Gerente Benchmark", "gerente");
+        funcionario = save("Funcionario Benchmark", "funcionario");
+        extra = save("Extra Benchmark", "funcionario");
+        hot = new Project();
+        hot.setNome("Benchmark quente");
+        hot.setDataInicio(LocalDate.now());
+        hot.setPrevisaoTermino(LocalDate.now().plusMonths(1));
+        hot.setOrcamentoTotal(BigDecimal.ONE);
+        hot.setDescricao(MARCADOR);
+        hot.setGerente(gerente);
+        hot.setStatus(StatusProjeto.EM_ANDAMENTO);
+        hot.setMembros(new ArrayList<>(List.of(funcionario.getId())));
+        hot = projectRepository.save(hot);
+    }
+
+    @AfterEach
+    void tearDown() {
+        removeSeeded();
+        projectRepository.deleteById(hot.getId());
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    void hotPathLatencyAsArchiveGrows() {
+        System.out.printf("%-10s %-22s %12s %14s %14s%n", "terminados", "onde estão", "listagem ms", "addMember ms", "relatório ms");
+        for (int terminados : TERMINADOS) {
+            seedTerminated(terminados);
+            if (terminados > 0 && projectRepository.count() < terminados) {
+                throw new IllegalStateException("Projetos terminados não foram gravados");
+            }
+            measure(terminados, "camada quente");
+            archiver.archive();
+            measure(terminados, "arquivados");
+            removeSeeded();
+        }
+    }
+
+    private void measure(int terminados, String label) {
+        double list = time(() -> projectService.list(PageRequest.of(0, 20), Optional.empty()));
+        double addMember = time(() -> {
+            projectService.addMember(hot.getId(), extra.getId());
+            projectService.removeMember(hot.getId(), extra.getId());
+        });
+        double report = time(() -> projectService.getReport());
+        System.out.printf("%-10d %-22s %12.1f %14.1f %14.1f%n", terminados, label, list, addMember, report);
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+
+    private void seedTerminated(int count) {
+        transactionTemplate.executeWithoutResult(tx -> insertTerminated(count));
+    }
+
+    private void insertTerminated(int count) {
+        jdbcTemplate.update("""
+                INSERT INTO projects (data_inicio, previsao_termino, data_real_termino, orcamento_total, descricao,
+                                      gerente_id, nome, status)
+                SELECT DATE '2000-01-01', DATE '2000-03-01', DATE '2000-02-20', 1000, ?, ?, 'Terminado ' || g,
+                       CASE WHEN g % 2 = 0 THEN 'ENCERRADO' ELSE 'CANCELADO' END
+                FROM generate_series(1, ?) g
+                """, MARCADOR, gerente.getId(), count);
+        jdbcTemplate.update("""
+                INSERT INTO project_membros (project_id, membros)
+                SELECT id, ? FROM projects WHERE descricao = ? AND status IN ('ENCERRADO', 'CANCELADO')
+                """, funcionario.getId(), MARCADOR);
+    }
+
+    // Remove o que foi semeado nas duas camadas e recalcula os totais da camada fria a partir do que sobrou
+    private void removeSeeded() {
+        transactionTemplate.executeWithoutResult(tx -> deleteSeeded());
+    }
+
+    private void deleteSeeded() {
+        jdbcTemplate.update("DELETE FROM project_membros_archive WHERE project_id IN "
+                + "(SELECT id FROM projects_archive WHERE descricao = ?)", MARCADOR);
+        jdbcTemplate.update("DELETE FROM projects_archive WHERE descricao = ?", MARCADOR);
+        jdbcTemplate.update("DELETE FROM project_membros WHERE project_id IN "
+                + "(SELECT id FROM projects WHERE descricao = ? AND id <> ?)", MARCADOR, hot.getId());
+        jdbcTemplate.update("DELETE FROM projects WHERE descricao = ? AND id <> ?", MARCADOR, hot.getId());
+        jdbcTemplate.update("DELETE FROM projects_archive_resumo");
+        jdbcTemplate.update("""
+                INSERT INTO projects_archive_resumo (status, quantidade, orcamento, com_termino, dias_ate_termino)
+                SELECT status, COUNT(*), SUM(orcamento_total), COUNT(data_real_termino),
+                       COALESCE(SUM(data_real_termino - data_inicio), 0)
+                FROM projects_archive GROUP BY status
+                """);
+        jdbcTemplate.update("DELETE FROM membros_arquivados");
+        jdbcTemplate.update("INSERT INTO membros_arquivados (member_id) SELECT DISTINCT membros FROM project_membros_archive");
+    }
+
+    private Member save(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        member = memberRepository.save(member);
+        members.add(member);
+        return member;
+    }
+}
@@ -0,0 +1,163 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.ProjectExport;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Resposta com {@value #PROJETOS} projetos: página materializada (DTOs + ObjectMapper) contra a exportação em fluxo,
+ * sem e com gzip. Mede o tempo até o primeiro byte, o total, o tamanho e quanto a thread da requisição aloca:
+ * {@code mvn test -Dbenchmark=true -Dtest=ExportBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "portfolio-snapshot.enabled=false"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExportBenchmark {
+
+    private static final String MARCADOR = "benchmark-export";
+    private static final int PROJETOS = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectExport export;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        projects.insert(PROJETOS, """
+                DATE '2024-01-01' + g % 365, DATE '2024-06-01' + g % 365, 1000 + g, 'Exportação ' || g,
+                'EM_ANDAMENTO'""");
+        projects.allocate(projects.member("Funcionario Benchmark", "funcionario"), 1);
+        projects.analyze();
+    }
+
+    @AfterEach
+    void tearDown() {
+        projects.cleanup();
+    }
+
+    @Test
+    void timeToFirstByteAndAllocation() throws IOException {
+        System.out.printf("%-28s %10s %12s %10s %12s %14s%n", "resposta", "objetos", "1º byte ms", "total ms", "KB",
+                "MB aloc/req");
+        measure("página materializada", false, out -> {
+            Page<ProjectDTO> page = projectService.list(PageRequest.of(0, PROJETOS + 100, Sort.by("id")),
+                    Optional.empty(), false);
+            objectMapper.writeValue(out, page);
+        });
+        measure("exportação em fluxo", false, out -> export.export(Optional.empty(), false).writeTo(out));
+        measure("exportação em fluxo + gzip", true, out -> export.export(Optional.empty(), false).writeTo(out));
+    }
+
+    private void measure(String label, boolean gzip, Response response) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CountingStream warmup = new CountingStream();
+        write(response, warmup, gzip);
+        double firstByte = 0;
+        double total = 0;
+        long alocado = 0;
+        for (int i = 0; i < RUNS; i++) {
+            CountingStream out = new CountingStream();
+            long alocAntes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            write(response, out, gzip);
+            total += (System.nanoTime() - start) / 1e6;
+            firstByte += (out.firstWrite - start) / 1e6;
+            alocado += threads.getCurrentThreadAllocatedBytes() - alocAntes;
+        }
+        System.out.printf("%-28s %10d %12.1f %10.1f %12d %14.1f%n", label, warmup.objects, firstByte / RUNS,
+                total / RUNS, warmup.bytes / 1024, alocado / 1024.0 / 1024 / RUNS);
+    }
+
+    // Com gzip os objetos são contados antes da compressão e os bytes depois, como o Tomcat escreveria no socket
+    private void write(Response response, CountingStream out, boolean gzip) throws IOException {
+        if (!gzip) {
+            response.writeTo(out);
+            return;
+        }
+        CountingStream plain = new CountingStream();
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out, 8192)) {
+            // O cabeçalho gzip sai no construtor; o primeiro byte que conta é o do primeiro bloco comprimido
+            out.firstWrite = 0;
+            response.writeTo(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    plain.write(b, off, len);
+                    compressed.write(b, off, len);
+                }
+            });
+        }
+        out.objects = plain.objects;
+    }
+
+    @FunctionalInterface
+    private interface Response {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // Descarta a resposta, contando bytes e projetos e registrando o instante do primeiro bloco escrito
+    private static final class CountingStream extends OutputStream {
+        private long firstWrite;
+        private long bytes;
+        private int objects;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (firstWrite == 0) {
+                firstWrite = System.nanoTime();
+            }
+            bytes += len;
+            for (int i = off; i < off + len - 5; i++) {
+                if (b[i] == '"' && b[i + 1] == 'r' && b[i + 2] == 'i' && b[i + 3] == 's' && b[i + 4] == 'c') {
+                    objects++;
+                }
+            }
+        }
+    }
+}
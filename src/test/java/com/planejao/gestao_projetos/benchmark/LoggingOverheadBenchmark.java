@@ -0,0 +1,135 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.GestaoProjetosApplication;
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.logging.DebugSamplingFilter;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Latência de PUT /projects/{id} (filtro de amostragem + service) com o log antigo, DEBUG dos services e SQL formatado
+ * escritos de forma síncrona, contra o perfil prod: JSON assíncrono, INFO e DEBUG em 1% das requisições. Cada modo sobe
+ * seu próprio contexto e a saída padrão vai para target/logging-benchmark.log, como o stdout de um contêiner:
+ * {@code mvn test -Dbenchmark=true -Dtest=LoggingOverheadBenchmark}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoggingOverheadBenchmark {
+
+    private static final int PROJETOS = 20;
+    private static final int WARMUP = 500;
+    private static final int REQUESTS = 3000;
+    private static final String[] COMUNS = {
+            "--server.port=0", "--rate-limit.enabled=false", "--portfolio-snapshot.enabled=false"};
+
+    @Test
+    void requestLatency() throws Exception {
+        PrintStream console = System.out;
+        Path saida = Path.of("target", "logging-benchmark.log");
+        List<String> linhas = new ArrayList<>();
+        try (PrintStream arquivo = new PrintStream(new FileOutputStream(saida.toFile()), true, StandardCharsets.UTF_8)) {
+            System.setOut(arquivo);
+            linhas.add(run("antigo (síncrono, DEBUG, show-sql)", saida, null,
+                    "--logging.level.com.planejao.gestao_projetos=DEBUG", "--spring.jpa.show-sql=true",
+                    "--spring.jpa.properties.hibernate.format_sql=true"));
+            linhas.add(run("prod (assíncrono, JSON, 1% DEBUG)", saida, "prod"));
+        } finally {
+            System.setOut(console);
+        }
+        System.out.printf("%-36s %9s %9s %9s %12s %12s%n", "modo", "média ms", "p50 ms", "p99 ms", "KB aloc/req",
+                "bytes log/req");
+        linhas.forEach(System.out::println);
+    }
+
+    private String run(String label, Path saida, String profile, String... args) throws Exception {
+        String[] todos = concat(COMUNS, args);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(GestaoProjetosApplication.class);
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = builder.run(todos)) {
+            ProjectService projectService = context.getBean(ProjectService.class);
+            DebugSamplingFilter filter = context.getBean(DebugSamplingFilter.class);
+            List<Long> ids = fixtures(context);
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long[] latencias = new long[REQUESTS];
+            long alocado = 0;
+            long bytesAntes = 0;
+            for (int i = -WARMUP; i < REQUESTS; i++) {
+                if (i == 0) {
+                    System.out.flush();
+                    bytesAntes = Files.size(saida);
+                }
+                Long id = ids.get(Math.floorMod(i, ids.size()));
+                ProjectUpdateDTO dto = new ProjectUpdateDTO("Log " + i, null, LocalDate.now().plusDays(30 + i % 7),
+                        null, BigDecimal.valueOf(1000 + i), "Descrição " + i, null);
+                MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/projects/" + id);
+                long alocAntes = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> projectService.update(id, dto));
+                long elapsed = System.nanoTime() - start;
+                if (i >= 0) {
+                    latencias[i] = elapsed;
+                    alocado += threads.getCurrentThreadAllocatedBytes() - alocAntes;
+                }
+            }
+            context.getBean(ProjectRepository.class).deleteAllById(ids);
+            context.close();
+            long bytesLog = Files.size(saida) - bytesAntes;
+            Arrays.sort(latencias);
+            double media = Arrays.stream(latencias).average().orElse(0) / 1e6;
+            return String.format("%-36s %9.3f %9.3f %9.3f %12.1f %12d", label, media, latencias[REQUESTS / 2] / 1e6,
+                    latencias[REQUESTS * 99 / 100] / 1e6, alocado / 1024.0 / REQUESTS, bytesLog / REQUESTS);
+        }
+    }
+
+    private List<Long> fixtures(ConfigurableApplicationContext context) {
+        MemberRepository memberRepository = context.getBean(MemberRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        Member gerente = new Member();
+        gerente.setNome("Gerente Benchmark");
+        gerente.setCargo("gerente");
+        gerente = memberRepository.save(gerente);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PROJETOS; i++) {
+            Project project = new Project();
+            project.setNome("Benchmark " + i);
+            project.setDataInicio(LocalDate.now());
+            project.setPrevisaoTermino(LocalDate.now().plusMonths(1));
+            project.setOrcamentoTotal(BigDecimal.ONE);
+            project.setDescricao("Benchmark");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.EM_ANALISE);
+            ids.add(projectRepository.save(project).getId());
+        }
+        return ids;
+    }
+
+    private static String[] concat(String[] a, String[] b) {
+        String[] all = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        return all;
+    }
+}
@@ -0,0 +1,120 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.MemberService;
+import com.planejao.gestao_projetos.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Página de projetos com os membros resolvidos: listagem seguida de um {@code GET /members/{id}} por membro (como a
+ * interface fazia) contra {@code ?expand=membros}:
+ * {@code mvn test -Dbenchmark=true -Dtest=MemberExpansionBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemberExpansionBenchmark {
+
+    private static final int PROJETOS = 50;
+    private static final int MEMBROS_POR_PROJETO = 5;
+    private static final int RUNS = 20;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Member> members = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Member gerente = save("Gerente Benchmark", "gerente");
+        for (int i = 0; i < PROJETOS; i++) {
+            List<Long> membros = new ArrayList<>();
+            for (int j = 0; j < MEMBROS_POR_PROJETO; j++) {
+                membros.add(save("Funcionario " + i + "-" + j, "funcionario").getId());
+            }
+            Project project = new Project();
+            project.setNome("Benchmark expansão " + i);
+            project.setDataInicio(LocalDate.now());
+            project.setPrevisaoTermino(LocalDate.now().plusMonths(1));
+            project.setOrcamentoTotal(BigDecimal.ONE);
+            project.setDescricao("benchmark-expansao");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.PLANEJADO);
+            project.setMembros(membros);
+            projects.add(projectRepository.save(project));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll(projects);
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    void expandedPageVersusPerMemberLookups() {
+        PageRequest page = PageRequest.of(0, PROJETOS);
+        Optional<StatusProjeto> planejado = Optional.of(StatusProjeto.PLANEJADO);
+        System.out.printf("%-28s %10s %10s%n", "caminho", "ms/página", "consultas");
+        measure("listagem + GET por membro", () -> {
+            for (ProjectDTO project : projectService.list(page, planejado)) {
+                project.membros().forEach(memberService::getMember);
+            }
+        });
+        measure("?expand=membros", () -> projectService.listExpanded(page, planejado, false));
+    }
+
+    private void measure(String label, Runnable operation) {
+        operation.run();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        double ms = (System.nanoTime() - start) / 1e6 / RUNS;
+        System.out.printf("%-28s %10.1f %10d%n", label, ms, statistics.getPrepareStatementCount() / RUNS);
+    }
+
+    private Member save(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        member = memberRepository.save(member);
+        members.add(member);
+        return member;
+    }
+}
@@ -0,0 +1,104 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.ProjectOverdueScanner;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Varredura de atrasados sobre {@value #PROJETOS} projetos ativos (metade vencida) e a primeira página de atrasados:
+ * filtro pela coluna marcada contra calcular o atraso de cada projeto na leitura:
+ * {@code mvn test -Dbenchmark=true -Dtest=OverdueScanBenchmark}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OverdueScanBenchmark {
+
+    private static final String MARCADOR = "benchmark-atraso";
+    private static final int PROJETOS = 50_000;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private ProjectOverdueScanner scanner;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        projects.insert(PROJETOS, """
+                CURRENT_DATE - 60, CURRENT_DATE + CASE WHEN g % 2 = 0 THEN -1 ELSE 30 END, 1000, 'Atraso ' || g,
+                'EM_ANDAMENTO'""");
+    }
+
+    @AfterEach
+    void tearDown() {
+        projects.cleanup();
+    }
+
+    @Test
+    void scanThroughputAndOverdueFilter() {
+        long start = System.nanoTime();
+        int flagged = scanner.scan();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("varredura: %d marcados em %.0f ms (%.0f linhas/s)%n", flagged, seconds * 1000, flagged / seconds);
+
+        PageRequest page = PageRequest.of(0, 20);
+        double indexed = time(() -> projectService.listOverdue(page, Optional.empty()));
+        double computed = time(() -> {
+            LocalDate hoje = LocalDate.now();
+            List<Project> atrasados = projectRepository.findAll().stream()
+                    .filter(p -> p.getStatus().isActive() && p.getPrevisaoTermino().isBefore(hoje))
+                    .limit(20)
+                    .toList();
+            if (atrasados.isEmpty()) {
+                throw new IllegalStateException("Nenhum atrasado");
+            }
+        });
+        System.out.printf("%-30s %10s%n", "primeira página de atrasados", "ms");
+        System.out.printf("%-30s %10.1f%n", "calculado na leitura", computed);
+        System.out.printf("%-30s %10.1f%n", "?overdue=true (coluna)", indexed);
+        System.out.printf("status EM_ANDAMENTO atrasados: %d%n",
+                projectService.listOverdue(page, Optional.of(StatusProjeto.EM_ANDAMENTO)).getTotalElements());
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+}
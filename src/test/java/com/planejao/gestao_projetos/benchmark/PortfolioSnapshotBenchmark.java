@@ -0,0 +1,129 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.dto.PortfolioFilter;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.PortfolioSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * "Orçamento dos projetos ativos iniciados no 2º trimestre com mais de 5 membros" sobre {@value #PROJETOS} projetos:
+ * snapshot colunar contra carregar as entidades e filtrar em memória, e contra uma consulta SQL escrita para a pergunta.
+ * Também compara a memória do snapshot com a do grafo de entidades:
+ * {@code mvn test -Dbenchmark=true -Dtest=PortfolioSnapshotBenchmark}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PortfolioSnapshotBenchmark {
+
+    private static final String MARCADOR = "benchmark-portfolio";
+    private static final int PROJETOS = 50_000;
+    private static final int RUNS = 5;
+    private static final LocalDate ABRIL = LocalDate.of(2025, 4, 1);
+    private static final LocalDate JUNHO = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private PortfolioSnapshot snapshot;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        // Início espalhado por 2025, 1 a 10 membros por projeto (o próprio gerente, repetido)
+        projects.insert(PROJETOS, """
+                DATE '2025-01-01' + g % 365, DATE '2025-01-01' + g % 365 + 90, 1000 + g % 500000, 'Portfólio ' || g,
+                CASE WHEN g % 4 = 0 THEN 'ENCERRADO' ELSE 'EM_ANDAMENTO' END""");
+        projects.allocate(projects.gerente(), 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projects.cleanup();
+        snapshot.reload();
+    }
+
+    @Test
+    void adHocFilterAndMemory() {
+        long start = System.nanoTime();
+        snapshot.reload();
+        System.out.printf("carga do snapshot: %d projetos em %.0f ms%n", snapshot.size(),
+                (System.nanoTime() - start) / 1e6);
+
+        PortfolioFilter filter = new PortfolioFilter(null, true, ABRIL, JUNHO, null, null, null, null, 6, null, null);
+        BigDecimal esperado = snapshot.summarize(filter).orcamentoTotal();
+        double columnar = time(() -> snapshot.summarize(filter));
+        double sql = time(() -> check(esperado, jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(p.orcamento_total), 0) FROM projects_all p
+                WHERE p.status NOT IN ('ENCERRADO', 'CANCELADO') AND p.data_inicio BETWEEN ? AND ?
+                  AND (SELECT COUNT(*) FROM project_membros_all m WHERE m.project_id = p.id) >= 6
+                """, BigDecimal.class, ABRIL, JUNHO)));
+        double entities = time(() -> transactionTemplate.executeWithoutResult(tx -> check(esperado,
+                projectRepository.findAll().stream()
+                        .filter(p -> p.getStatus().isActive() && !p.getDataInicio().isBefore(ABRIL)
+                                && !p.getDataInicio().isAfter(JUNHO) && p.getMembros().size() >= 6)
+                        .map(Project::getOrcamentoTotal)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add))));
+
+        System.out.printf("%-34s %10s%n", "filtro ad hoc", "ms");
+        System.out.printf("%-34s %10.1f%n", "findAll + filtro em memória", entities);
+        System.out.printf("%-34s %10.1f%n", "consulta SQL dedicada", sql);
+        System.out.printf("%-34s %10.1f%n", "snapshot colunar (fork/join)", columnar);
+
+        long graph = transactionTemplate.execute(tx -> {
+            long before = usedHeap();
+            List<Project> all = projectRepository.findAll();
+            all.forEach(p -> p.getMembros().size());
+            long after = usedHeap();
+            return all.isEmpty() ? 0 : after - before;
+        });
+        System.out.printf("memória: grafo de entidades %d KB, snapshot %d KB%n", graph / 1024,
+                snapshot.memoryBytes() / 1024);
+    }
+
+    private void check(BigDecimal esperado, BigDecimal obtido) {
+        if (esperado.compareTo(obtido) != 0) {
+            throw new IllegalStateException("Resultado divergente: " + esperado + " != " + obtido);
+        }
+    }
+
+    private long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+}
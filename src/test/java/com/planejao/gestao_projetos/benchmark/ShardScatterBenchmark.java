@@ -0,0 +1,103 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.service.MemberService;
+import com.planejao.gestao_projetos.service.ProjectService;
+import com.planejao.gestao_projetos.sharding.ProjectShards;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+
+/**
+ * Custo das leituras distribuídas com {@value #SHARDS} shards de {@value #POR_SHARD} projetos cada: página rasa e
+ * profunda (cada shard devolve offset + size linhas), relatório e leitura roteada por id:
+ * {@code mvn test -Dbenchmark=true -Dtest=ShardScatterBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "sharding.enabled=true"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ShardScatterBenchmark {
+
+    private static final String ADMIN_URL = "jdbc:postgresql://localhost:5432/postgres";
+    private static final int SHARDS = 3;
+    private static final int POR_SHARD = 10_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectShards shards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection admin = DriverManager.getConnection(ADMIN_URL, "postgres", "root");
+             Statement statement = admin.createStatement()) {
+            for (int i = 0; i < SHARDS; i++) {
+                statement.execute("DROP DATABASE IF EXISTS gestao_bench_shard_" + i + " WITH (FORCE)");
+                statement.execute("CREATE DATABASE gestao_bench_shard_" + i);
+                int shard = i;
+                registry.add("sharding.shards[" + i + "].url",
+                        () -> "jdbc:postgresql://localhost:5432/gestao_bench_shard_" + shard);
+                registry.add("sharding.shards[" + i + "].username", () -> "postgres");
+                registry.add("sharding.shards[" + i + "].password", () -> "root");
+            }
+        }
+    }
+
+    @Test
+    void scatterGatherLatency() {
+        MemberDTO gerente = memberService.createMember("Gerente Benchmark", "gerente");
+        // Ids gerados pela sequência de cada shard, que já segue a regra de roteamento
+        shards.forEachShard(shard -> transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update("""
+                INSERT INTO projects (data_inicio, previsao_termino, orcamento_total, descricao, gerente_id, nome, status)
+                SELECT CURRENT_DATE, CURRENT_DATE + 30, 1000, 'benchmark-shard', ?, 'Shard ' || g, 'EM_ANALISE'
+                FROM generate_series(1, ?) g
+                """, gerente.id(), POR_SHARD)));
+        Long umId = projectService.list(PageRequest.of(0, 1), Optional.empty()).getContent().get(0).id();
+
+        Optional<StatusProjeto> emAnalise = Optional.of(StatusProjeto.EM_ANALISE);
+        System.out.printf("%-34s %10s%n", "operação", "ms");
+        print("getById (roteado)", time(() -> projectService.getById(umId)));
+        print("página 0 (20, por nome)",
+                time(() -> projectService.list(PageRequest.of(0, 20, Sort.by("nome")), emAnalise)));
+        print("página 50 (20, por nome)",
+                time(() -> projectService.list(PageRequest.of(50, 20, Sort.by("nome")), emAnalise)));
+        print("relatório", time(() -> projectService.getReport()));
+    }
+
+    private void print(String label, double ms) {
+        System.out.printf("%-34s %10.1f%n", label, ms);
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+}
@@ -0,0 +1,114 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.dto.SimulationResultDTO;
+import com.planejao.gestao_projetos.dto.SimulationScenarioDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.PortfolioSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * "Deslocar todo projeto EM_ANDAMENTO em 2 meses" sobre {@value #PROJETOS} projetos: simulação fork/join no snapshot
+ * contra ler as linhas do banco e reclassificar com {@link Project#calcularRisco} numa única thread:
+ * {@code mvn test -Dbenchmark=true -Dtest=SimulationBenchmark}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SimulationBenchmark {
+
+    private static final String MARCADOR = "benchmark-simulacao";
+    private static final int PROJETOS = 1_000_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private PortfolioSnapshot snapshot;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        // Durações de 1 a 9 meses e orçamentos até 800 mil: as três faixas aparecem
+        projects.insert(PROJETOS, """
+                DATE '2024-01-01' + g % 730, DATE '2024-01-01' + g % 730 + 30 * (1 + g % 9), g % 800000,
+                'Simulação ' || g, CASE WHEN g % 3 = 0 THEN 'EM_ANDAMENTO' ELSE 'PLANEJADO' END""");
+        projects.analyze();
+        snapshot.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        projects.cleanup();
+        snapshot.reload();
+    }
+
+    @Test
+    void forkJoinVersusSingleThreadedLoop() {
+        SimulationScenarioDTO scenario = new SimulationScenarioDTO(null, null, null, null, 2, "EM_ANDAMENTO", 100);
+        SimulationResultDTO esperado = snapshot.simulate(scenario);
+        double forkJoin = time(() -> snapshot.simulate(scenario));
+        double loop = time(() -> check(esperado.totalMudancas(), singleThreaded()));
+
+        System.out.printf("%d projetos, %d mudam de faixa, %d núcleos%n", esperado.quantidade(),
+                esperado.totalMudancas(), Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-40s %10s%n", "simulação", "ms");
+        System.out.printf("%-40s %10.1f%n", "linhas do banco + laço em uma thread", loop);
+        System.out.printf("%-40s %10.1f%n", "snapshot colunar (fork/join)", forkJoin);
+    }
+
+    private long singleThreaded() {
+        long[] mudancas = new long[1];
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT data_inicio, previsao_termino, orcamento_total, status FROM projects_all");
+            statement.setFetchSize(5000);
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            LocalDate inicio = rs.getObject(1, LocalDate.class);
+            LocalDate previsao = rs.getObject(2, LocalDate.class);
+            BigDecimal orcamento = rs.getBigDecimal(3);
+            LocalDate simulada = "EM_ANDAMENTO".equals(rs.getString(4)) ? previsao.plusMonths(2) : previsao;
+            if (!Project.calcularRisco(inicio, previsao, orcamento)
+                    .equals(Project.calcularRisco(inicio, simulada, orcamento))) {
+                mudancas[0]++;
+            }
+        }));
+        return mudancas[0];
+    }
+
+    private void check(long esperado, long obtido) {
+        if (esperado != obtido) {
+            throw new IllegalStateException("Resultado divergente: " + esperado + " != " + obtido);
+        }
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+}
@@ -0,0 +1,126 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.ProjectService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Mede bytes de JSON e consultas SQL de uma página de projetos para cada conjunto de campos:
+ * {@code mvn test -Dbenchmark=true -Dtest=SparseFieldsBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SparseFieldsBenchmark {
+
+    private static final int PROJECTS = 200;
+    private static final int MEMBERS_PER_PROJECT = 5;
+    private static final Pageable PAGE = PageRequest.of(0, 50);
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Member> members = new ArrayList<>();
+    private final List<Long> projectIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Member gerente = memberRepository.save(member("Gerente Benchmark", "gerente"));
+        members.add(gerente);
+        for (int i = 0; i < MEMBERS_PER_PROJECT; i++) {
+            members.add(memberRepository.save(member("Funcionario Benchmark " + i, "funcionario")));
+        }
+        List<Long> membros = members.subList(1, members.size()).stream().map(Member::getId).toList();
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setNome("Benchmark " + i);
+            project.setDataInicio(LocalDate.now());
+            project.setPrevisaoTermino(LocalDate.now().plusMonths(2));
+            project.setOrcamentoTotal(BigDecimal.valueOf(1000 + i));
+            project.setDescricao("Descrição detalhada do projeto de benchmark número " + i + ", com escopo e premissas.");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.EM_ANALISE);
+            project.setMembros(new ArrayList<>(membros));
+            projectIds.add(projectRepository.save(project).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAllById(projectIds);
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    void payloadAndQueriesPerFieldSet() {
+        System.out.printf("Página de %d projetos (%d membros cada)%n", PAGE.getPageSize(), MEMBERS_PER_PROJECT);
+        measure("ProjectDTO completo", () -> projectService.list(PAGE, Optional.empty()));
+        for (String fields : List.of("id,nome,status,risco", "id,nome,status,risco,gerente",
+                "id,nome,status,risco,membros", String.join(",", allFields()))) {
+            measure(fields, () -> projectService.list(PAGE, Optional.empty(), ProjectField.parse(fields)));
+        }
+    }
+
+    private void measure(String label, Supplier<Object> read) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // A transação faz o papel do open-in-view das requisições HTTP
+        byte[] json = transactionTemplate.execute(tx -> {
+            try {
+                return objectMapper.writeValueAsBytes(read.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        System.out.printf("%-45s %8d bytes %4d consultas%n", label, json.length, statistics.getPrepareStatementCount());
+    }
+
+    private List<String> allFields() {
+        return List.of(ProjectField.values()).stream().map(ProjectField::nome).toList();
+    }
+
+    private Member member(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        return member;
+    }
+}
@@ -0,0 +1,140 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.ProjectTimeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Linha do tempo sobre {@value #PROJETOS} projetos espalhados por dez anos: janela de um mês e janela que cobre todos,
+ * transmitidas pelo cursor com índice GiST, contra carregar as entidades e filtrar em memória. Mede o tempo até o
+ * primeiro byte e o total: {@code mvn test -Dbenchmark=true -Dtest=TimelineBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "portfolio-snapshot.enabled=false"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TimelineBenchmark {
+
+    private static final String MARCADOR = "benchmark-timeline";
+    private static final int PROJETOS = 300_000;
+    private static final int RUNS = 3;
+    private static final LocalDate BASE = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private ProjectTimeline timeline;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        // Início em qualquer dia de dez anos, duração de 1 a 180 dias
+        projects.insert(PROJETOS, """
+                CAST(? AS DATE) + g % 3650, CAST(? AS DATE) + g % 3650 + 1 + g % 180, 1000, 'Timeline ' || g,
+                'EM_ANDAMENTO'""", BASE, BASE);
+        projects.analyze();
+    }
+
+    @AfterEach
+    void tearDown() {
+        projects.cleanup();
+    }
+
+    @Test
+    void overlapQueries() {
+        LocalDate mesFrom = LocalDate.of(2024, 3, 1);
+        LocalDate mesTo = LocalDate.of(2024, 3, 31);
+        LocalDate tudoFrom = LocalDate.of(2000, 1, 1);
+        LocalDate tudoTo = LocalDate.of(2040, 1, 1);
+
+        System.out.printf("%-36s %10s %12s %10s%n", "janela", "linhas", "1º byte ms", "total ms");
+        measure("um mês (GiST + fluxo)", mesFrom, mesTo);
+        measure("tudo (GiST + fluxo)", tudoFrom, tudoTo);
+
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < RUNS; i++) {
+            rows = transactionTemplate.execute(tx -> {
+                List<Project> all = projectRepository.findAll();
+                return (int) all.stream()
+                        .filter(p -> !p.getDataInicio().isAfter(mesTo) && !p.getPrevisaoTermino().isBefore(mesFrom))
+                        .count();
+            });
+        }
+        System.out.printf("%-36s %10d %12s %10.1f%n", "um mês (findAll + filtro)", rows, "-",
+                (System.nanoTime() - start) / 1e6 / RUNS);
+    }
+
+    private void measure(String label, LocalDate from, LocalDate to) {
+        CountingStream warmup = new CountingStream();
+        write(from, to, warmup);
+        double firstByte = 0;
+        double total = 0;
+        for (int i = 0; i < RUNS; i++) {
+            CountingStream out = new CountingStream();
+            long start = System.nanoTime();
+            write(from, to, out);
+            firstByte += (out.firstWrite - start) / 1e6;
+            total += (System.nanoTime() - start) / 1e6;
+        }
+        System.out.printf("%-36s %10d %12.1f %10.1f%n", label, warmup.objects, firstByte / RUNS, total / RUNS);
+    }
+
+    private void write(LocalDate from, LocalDate to, OutputStream out) {
+        try {
+            timeline.stream(from, to, Optional.of(projects.gerente().getId()), Optional.empty(), false).writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Descarta a resposta, contando objetos e registrando o instante do primeiro bloco escrito
+    private static final class CountingStream extends OutputStream {
+        private long firstWrite;
+        private int objects;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (firstWrite == 0) {
+                firstWrite = System.nanoTime();
+            }
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '{') {
+                    objects++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vazão de operações do ProjectService com mais clientes que conexões no pool (Hikari, 10 conexões):
+ * {@code mvn test -Dbenchmark=true -Dtest=TransactionThroughputBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.datasource.hikari.maximum-pool-size=10"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransactionThroughputBenchmark {
+
+    private static final int PROJECTS = 50;
+    private static final int CLIENT_THREADS = 32;
+    private static final int ITERATIONS = 2000;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private final List<Member> members = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Member gerente = memberRepository.save(member("Gerente Benchmark", "gerente"));
+        members.add(gerente);
+        for (int i = 0; i < PROJECTS; i++) {
+            Member base = memberRepository.save(member("Base " + i, "funcionario"));
+            members.add(base);
+            members.add(memberRepository.save(member("Extra " + i, "funcionario")));
+            Project project = new Project();
+            project.setNome("Benchmark " + i);
+            project.setDataInicio(LocalDate.now());
+            project.setPrevisaoTermino(LocalDate.now().plusMonths(1));
+            project.setOrcamentoTotal(BigDecimal.ONE);
+            project.setDescricao("Benchmark");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.EM_ANALISE);
+            project.setMembros(new ArrayList<>(List.of(base.getId())));
+            projects.add(projectRepository.save(project));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll(projects);
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    void mixedOperationsThroughput() throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        long start = System.nanoTime();
+        for (int c = 0; c < CLIENT_THREADS; c++) {
+            clients.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < ITERATIONS) {
+                    Project project = projects.get(i % PROJECTS);
+                    Long extra = members.get(2 + 2 * (i % PROJECTS)).getId();
+                    try {
+                        projectService.getById(project.getId());
+                        projectService.list(PageRequest.of(0, 20), Optional.empty());
+                        projectService.update(project.getId(), new ProjectUpdateDTO("Benchmark " + i, null, null, null, null, null, null));
+                        // Serializa adição/remoção do membro extra por projeto para não gerar conflitos artificiais
+                        synchronized (project) {
+                            projectService.addMember(project.getId(), extra);
+                            projectService.removeMember(project.getId(), extra);
+                        }
+                    } catch (RuntimeException e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d iterações (5 operações cada), %d clientes, pool de 10: %.0f iterações/s, %d erros%n",
+                ITERATIONS, CLIENT_THREADS, ITERATIONS / seconds, errors.get());
+    }
+
+    private Member member(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        return member;
+    }
+}
@@ -0,0 +1,108 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.dto.PortfolioFilter;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.service.BenchmarkProjects;
+import com.planejao.gestao_projetos.service.PortfolioSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Subida do snapshot do portfólio com {@value #PROJETOS} projetos: carga completa do banco contra retomada pelo arquivo
+ * mapeado, com 0 e {@value #ALTERADOS} projetos alterados depois da gravação. Também mede a gravação e o tamanho do
+ * arquivo: {@code mvn test -Dbenchmark=true -Dtest=WarmStartBenchmark}
+ */
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "portfolio-snapshot.file.path=" + WarmStartBenchmark.FILE})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WarmStartBenchmark {
+
+    static final String FILE = "target/warm-start-benchmark.bin";
+    private static final String MARCADOR = "benchmark-warm-start";
+    private static final int PROJETOS = 300_000;
+    private static final int ALTERADOS = 3_000;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private PortfolioSnapshot snapshot;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private BenchmarkProjects projects;
+
+    @BeforeEach
+    void setUp() {
+        projects = new BenchmarkProjects(jdbcTemplate, transactionTemplate, memberRepository, MARCADOR);
+        projects.insert(PROJETOS, """
+                DATE '2025-01-01' + g % 365, DATE '2025-01-01' + g % 365 + 90, 1000 + g % 500000, 'Subida ' || g,
+                CASE WHEN g % 4 = 0 THEN 'ENCERRADO' ELSE 'EM_ANDAMENTO' END""");
+        projects.allocate(projects.gerente(), 5);
+        projects.analyze();
+        snapshot.reload();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        projects.cleanup();
+        Files.deleteIfExists(Path.of(FILE));
+        snapshot.reload();
+    }
+
+    @Test
+    void fullLoadVersusWarmStart() throws IOException {
+        PortfolioFilter filter = PortfolioFilter.empty();
+        double full = time(() -> snapshot.reload());
+        double persist = time(() -> snapshot.persist());
+        // O log ficou com a carga inicial: a marca da gravação passa dela para medir a retomada sem alterações
+        snapshot.persist();
+        double semAlteracoes = time(() -> check(snapshot.warmStart()));
+        BigDecimal antes = snapshot.summarize(filter).orcamentoTotal();
+        projects.update("""
+                UPDATE projects SET orcamento_total = orcamento_total + 1
+                WHERE id IN (SELECT id FROM projects WHERE descricao = ? ORDER BY id LIMIT ?)
+                """, MARCADOR, ALTERADOS);
+        double comAlteracoes = time(() -> check(snapshot.warmStart()));
+        BigDecimal depois = snapshot.summarize(filter).orcamentoTotal();
+        if (depois.subtract(antes).compareTo(BigDecimal.valueOf(ALTERADOS)) != 0) {
+            throw new IllegalStateException("Retomada não aplicou as alterações: " + antes + " -> " + depois);
+        }
+
+        System.out.printf("%-40s %10s%n", "subida do snapshot", "ms");
+        System.out.printf("%-40s %10.1f%n", "carga completa do banco", full);
+        System.out.printf("%-40s %10.1f%n", "arquivo, sem alterações", semAlteracoes);
+        System.out.printf("%-40s %10.1f%n", "arquivo + " + ALTERADOS + " alterados", comAlteracoes);
+        System.out.printf("gravação do arquivo: %.1f ms, %d KB%n", persist, Files.size(Path.of(FILE)) / 1024);
+    }
+
+    private void check(boolean retomado) {
+        if (!retomado) {
+            throw new IllegalStateException("Retomada pelo arquivo falhou");
+        }
+    }
+
+    private double time(Runnable operation) {
+        operation.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / RUNS;
+    }
+}
@@ -0,0 +1,124 @@
+package com.planejao.gestao_projetos.benchmark;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.dto.WriteStatus;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.ProjectService;
+import com.planejao.gestao_projetos.service.ProjectWritePipeline;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a vazão de PUT /projects/{id} síncrono com a fila assíncrona. Roda contra o banco configurado:
+ * {@code mvn test -Dbenchmark=true -Dtest=WritePipelineBenchmark}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WritePipelineBenchmark {
+
+    private static final int PROJECTS = 50;
+    private static final int WRITES = 5000;
+    private static final int CLIENT_THREADS = 8;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectWritePipeline pipeline;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Member gerente;
+    private final List<Long> projectIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        gerente = new Member();
+        gerente.setNome("Gerente Benchmark");
+        gerente.setCargo("gerente");
+        gerente = memberRepository.save(gerente);
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project();
+            project.setNome("Benchmark " + i);
+            project.setDataInicio(LocalDate.now());
+            project.setPrevisaoTermino(LocalDate.now().plusMonths(1));
+            project.setOrcamentoTotal(BigDecimal.ONE);
+            project.setDescricao("Benchmark");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.EM_ANALISE);
+            projectIds.add(projectRepository.save(project).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAllById(projectIds);
+        memberRepository.delete(gerente);
+    }
+
+    @Test
+    void syncVersusAsyncThroughput() throws InterruptedException {
+        double sync = run(i -> projectService.update(projectIds.get(i % PROJECTS), update(i)));
+
+        List<UUID> tickets = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        runClients(i -> tickets.add(pipeline.submitUpdate(projectIds.get(i % PROJECTS), update(i)).trackingId()));
+        for (UUID ticket : tickets) {
+            while (pipeline.getTicket(ticket).status() == WriteStatus.PENDENTE) {
+                Thread.sleep(1);
+            }
+        }
+        double async = WRITES / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("Escritas: %d em %d projetos, %d clientes%n", WRITES, PROJECTS, CLIENT_THREADS);
+        System.out.printf("Síncrono:   %.0f escritas/s%n", sync);
+        System.out.printf("Assíncrono: %.0f escritas/s (até aplicadas)%n", async);
+    }
+
+    private double run(Write write) throws InterruptedException {
+        long start = System.nanoTime();
+        runClients(write);
+        return WRITES / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private void runClients(Write write) throws InterruptedException {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+        for (int i = 0; i < WRITES; i++) {
+            int n = i;
+            clients.submit(() -> write.apply(n));
+        }
+        clients.shutdown();
+        clients.awaitTermination(5, TimeUnit.MINUTES);
+    }
+
+    private ProjectUpdateDTO update(int i) {
+        return new ProjectUpdateDTO(null, null, null, null, BigDecimal.valueOf(i + 1), null, null);
+    }
+
+    @FunctionalInterface
+    private interface Write {
+        void apply(int i);
+    }
+}
@@ -0,0 +1,56 @@
+package com.planejao.gestao_projetos.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DebugSamplingFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final SampledDebugTurboFilter turboFilter = new SampledDebugTurboFilter();
+
+    DebugSamplingFilterTest() {
+        turboFilter.setLoggerPrefix("com.planejao.gestao_projetos");
+        context.addTurboFilter(turboFilter);
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+    }
+
+    @Test
+    void sampledRequestsEnableDebugForTheirDuration() throws Exception {
+        Logger service = context.getLogger("com.planejao.gestao_projetos.service.ProjectService");
+        Logger hibernate = context.getLogger("org.hibernate.SQL");
+        List<Boolean> dentro = new ArrayList<>();
+
+        new DebugSamplingFilter(1).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (req, res) -> {
+            dentro.add(service.isDebugEnabled());
+            dentro.add(hibernate.isDebugEnabled());
+            dentro.add(service.isTraceEnabled());
+        });
+
+        assertEquals(List.of(true, false, false), dentro);
+        assertFalse(service.isDebugEnabled());
+        assertFalse(SampledDebugTurboFilter.isSampled());
+    }
+
+    @Test
+    void unsampledRequestsKeepConfiguredLevel() throws Exception {
+        Logger service = context.getLogger("com.planejao.gestao_projetos.service.ProjectService");
+        List<Boolean> dentro = new ArrayList<>();
+
+        new DebugSamplingFilter(0).doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (req, res) -> dentro.add(service.isDebugEnabled()));
+
+        assertEquals(List.of(false), dentro);
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, service, Level.DEBUG, null, null, null));
+        assertTrue(service.isInfoEnabled());
+    }
+}
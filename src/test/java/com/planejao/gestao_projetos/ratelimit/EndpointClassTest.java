@@ -0,0 +1,17 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointClassTest {
+
+    @Test
+    void classifiesWriteEndpoints() {
+        assertEquals(EndpointClass.PROJECT_CREATE, EndpointClass.classify("POST", "/projects"));
+        assertEquals(EndpointClass.MEMBER_ALLOCATION, EndpointClass.classify("POST", "/projects/1/members/2"));
+        assertEquals(EndpointClass.PROJECT_WRITE, EndpointClass.classify("PATCH", "/projects/1/status"));
+        assertNull(EndpointClass.classify("GET", "/projects"));
+        assertNull(EndpointClass.classify("POST", "/members"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    // Um token e reposição de um por hora: cada cliente só consegue um aceite durante o teste
+    private static final RateLimitProperties PROPERTIES = new RateLimitProperties(true,
+            Map.of(EndpointClass.PROJECT_WRITE, new RateLimitProperties.Limit(1, 1.0 / 3600)));
+
+    private final RateLimiter limiter = new RateLimiter(PROPERTIES, new SimpleMeterRegistry());
+
+    @Test
+    void evictsOnlyFullBuckets() {
+        assertTrue(limiter.tryAcquire(EndpointClass.PROJECT_WRITE, "ativo").consumed());
+        limiter.evictIdleBuckets();
+        // Um balde com tokens consumidos continua no mapa e segue limitando o cliente
+        assertFalse(limiter.tryAcquire(EndpointClass.PROJECT_WRITE, "ativo").consumed());
+
+        limiter.evictIdleBuckets();
+        assertTrue(limiter.tryAcquire(EndpointClass.PROJECT_WRITE, "novo").consumed());
+    }
+
+    @Test
+    void bucketEvictedWhileARequestHoldsItIsNotConsumed() throws Exception {
+        CountDownLatch paused = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        Thread test = Thread.currentThread();
+        // A segunda leitura do relógio na outra thread é a do consumo: ela para ali, com o balde novo já em mãos
+        RateLimiter racing = new RateLimiter(PROPERTIES, new SimpleMeterRegistry(), () -> {
+            if (Thread.currentThread() != test && calls.incrementAndGet() == 2) {
+                paused.countDown();
+                await(resume);
+            }
+            return 0;
+        });
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> first = pool.submit(() -> racing.tryAcquire(EndpointClass.PROJECT_WRITE, "cliente")
+                    .consumed());
+            paused.await();
+            racing.evictIdleBuckets();
+            resume.countDown();
+
+            assertTrue(first.get());
+            assertFalse(racing.tryAcquire(EndpointClass.PROJECT_WRITE, "cliente").consumed());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
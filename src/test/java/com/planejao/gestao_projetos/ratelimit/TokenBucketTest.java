@@ -0,0 +1,75 @@
+package com.planejao.gestao_projetos.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1, now::get);
+
+        assertEquals(2, bucket.tryConsume().remainingTokens());
+        assertEquals(1, bucket.tryConsume().remainingTokens());
+        assertEquals(0, bucket.tryConsume().remainingTokens());
+
+        TokenBucket.Probe rejected = bucket.tryConsume();
+        assertFalse(rejected.consumed());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rejected.nanosToWait());
+    }
+
+    @Test
+    void refillsOverTime() {
+        TokenBucket bucket = new TokenBucket(2, 2, now::get);
+        bucket.tryConsume();
+        bucket.tryConsume();
+        assertFalse(bucket.tryConsume().consumed());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(bucket.tryConsume().consumed());
+        assertFalse(bucket.isFull());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(bucket.isFull());
+        assertEquals(2, bucket.availableTokens());
+    }
+
+    @Test
+    void neverGrantsMoreThanCapacityUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1, now::get);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            pool.submit(() -> {
+                if (bucket.tryConsume().consumed()) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, granted.get());
+    }
+
+    @Test
+    void retiresOnlyFullBucketsAndStopsConsumingAfterwards() {
+        TokenBucket bucket = new TokenBucket(2, 1, now::get);
+        bucket.tryConsume();
+        assertFalse(bucket.retire());
+        assertTrue(bucket.tryConsume().consumed());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(bucket.retire());
+        assertNull(bucket.tryConsume());
+    }
+}
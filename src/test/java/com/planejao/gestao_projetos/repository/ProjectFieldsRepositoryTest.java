@@ -0,0 +1,115 @@
+package com.planejao.gestao_projetos.repository;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ProjectFieldsRepositoryTest {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Member gerente;
+    private Member funcionario;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        gerente = memberRepository.save(member("Gerente Campos", "gerente"));
+        funcionario = memberRepository.save(member("Funcionario Campos", "funcionario"));
+        project = new Project();
+        project.setNome("Campos");
+        project.setDataInicio(LocalDate.of(2025, 1, 1));
+        project.setPrevisaoTermino(LocalDate.of(2025, 2, 1));
+        project.setOrcamentoTotal(new BigDecimal("1000"));
+        project.setDescricao("Descrição longa");
+        project.setGerente(gerente);
+        project.setStatus(StatusProjeto.EM_ANALISE);
+        project.setMembros(List.of(funcionario.getId()));
+        project = projectRepository.save(project);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.delete(project);
+        memberRepository.deleteAll(List.of(gerente, funcionario));
+    }
+
+    @Test
+    void emitsOnlyRequestedFieldsWithoutJoins() {
+        Statistics statistics = statistics();
+
+        Map<String, Object> row = projectRepository.findFieldsById(project.getId(),
+                ProjectField.parse("id,nome,status,risco")).orElseThrow();
+
+        assertEquals(List.of("id", "nome", "status", "risco"), List.copyOf(row.keySet()));
+        assertEquals("Campos", row.get("nome"));
+        assertEquals(StatusProjeto.EM_ANALISE, row.get("status"));
+        assertEquals("Baixo", row.get("risco"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void loadsGerenteAndMembrosOnlyWhenRequested() {
+        Statistics statistics = statistics();
+
+        Map<String, Object> row = projectRepository.findFieldsById(project.getId(),
+                ProjectField.parse("membros,gerente")).orElseThrow();
+
+        assertEquals(List.of("gerente", "membros"), List.copyOf(row.keySet()));
+        assertEquals(new MemberDTO(gerente.getId(), "Gerente Campos", "gerente"), row.get("gerente"));
+        assertEquals(List.of(funcionario.getId()), row.get("membros"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pagesWithStatusFilter() {
+        Page<Map<String, Object>> page = projectRepository.findFields(ProjectField.parse("id"),
+                Optional.of(StatusProjeto.EM_ANALISE), PageRequest.of(0, 1000));
+
+        assertTrue(page.getContent().stream().anyMatch(r -> project.getId().equals(r.get("id"))));
+        assertTrue(page.getContent().stream().allMatch(r -> r.size() == 1));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private Member member(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        return member;
+    }
+}
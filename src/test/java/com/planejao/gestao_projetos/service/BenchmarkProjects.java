@@ -0,0 +1,106 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Massa de projetos dos benchmarks: inserida por SQL direto com {@code generate_series}, com a descrição igual ao
+ * marcador do benchmark, e removida por ele no {@link #cleanup}. O pool entrega conexões sem autocommit: o SQL direto
+ * precisa de transação explícita, e cada método abre a sua.
+ */
+public final class BenchmarkProjects {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final String marcador;
+
+    private final List<Member> members = new ArrayList<>();
+    private Member gerente;
+
+    public BenchmarkProjects(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                             MemberRepository memberRepository, String marcador) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.memberRepository = memberRepository;
+        this.marcador = marcador;
+    }
+
+    /** Gerente de todos os projetos inseridos, criado na primeira chamada. */
+    public Member gerente() {
+        if (gerente == null) {
+            gerente = member("Gerente Benchmark", "gerente");
+        }
+        return gerente;
+    }
+
+    public Member member(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        member = memberRepository.save(member);
+        members.add(member);
+        return member;
+    }
+
+    /**
+     * Insere {@code count} projetos do {@link #gerente}. {@code columns} dá {@code data_inicio, previsao_termino,
+     * orcamento_total, nome, status} em função de {@code g}, de 1 a {@code count}; {@code args} são os parâmetros
+     * dessas expressões.
+     */
+    public void insert(int count, String columns, Object... args) {
+        Object[] params = Stream.concat(Arrays.stream(args), Stream.of(marcador, gerente().getId(), count)).toArray();
+        update("""
+                INSERT INTO projects (data_inicio, previsao_termino, orcamento_total, nome, status,
+                                      descricao, gerente_id)
+                SELECT %s, ?, ?
+                FROM generate_series(1, ?) g
+                """.formatted(columns), params);
+    }
+
+    /** Aloca {@code member} de 1 a {@code maximo} vezes em cada projeto inserido, conforme o id do projeto. */
+    public void allocate(Member member, int maximo) {
+        update("""
+                INSERT INTO project_membros (project_id, membros)
+                SELECT p.id, ?
+                FROM projects p, generate_series(1, ?) n
+                WHERE p.descricao = ? AND n <= 1 + p.id % ?
+                """, member.getId(), maximo, marcador, maximo);
+    }
+
+    /** Estatísticas do planejador atualizadas depois da carga. */
+    public void analyze() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.execute("ANALYZE projects");
+            jdbcTemplate.execute("ANALYZE project_membros");
+        });
+    }
+
+    public void update(String sql, Object... args) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(sql, args));
+    }
+
+    /**
+     * Remove os projetos do marcador, seus membros alocados e as linhas deles em {@code project_changes} (depois dos
+     * DELETEs, cujos gatilhos também registram os removidos; o log dos demais projetos fica), e então os membros.
+     */
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Long[] ids = jdbcTemplate.queryForList("SELECT id FROM projects WHERE descricao = ?", Long.class, marcador)
+                    .toArray(Long[]::new);
+            jdbcTemplate.update("DELETE FROM project_membros WHERE project_id = ANY(?)", (Object) ids);
+            jdbcTemplate.update("DELETE FROM projects WHERE id = ANY(?)", (Object) ids);
+            jdbcTemplate.update("DELETE FROM project_changes WHERE project_id = ANY(?)", (Object) ids);
+        });
+        memberRepository.deleteAll(members);
+        members.clear();
+        gerente = null;
+    }
+}
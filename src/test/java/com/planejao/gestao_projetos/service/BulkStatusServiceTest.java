@@ -0,0 +1,156 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.BulkStatusItemDTO;
+import com.planejao.gestao_projetos.dto.BulkStatusOutcome;
+import com.planejao.gestao_projetos.dto.BulkStatusRequestDTO;
+import com.planejao.gestao_projetos.dto.BulkStatusResultDTO;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkStatusServiceTest {
+
+    @Autowired
+    private BulkStatusService bulkStatusService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private ProjectFixtures fixtures;
+    private MemberDTO gerente;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.member("Gerente Lote", "gerente");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void reportsOutcomeForEachProject() {
+        ProjectDTO planejado = create(StatusProjeto.PLANEJADO);
+        ProjectDTO emAnalise = create(StatusProjeto.EM_ANALISE);
+        ProjectDTO outroPlanejado = create(StatusProjeto.PLANEJADO);
+
+        BulkStatusResultDTO result = bulkStatusService.changeStatus(new BulkStatusRequestDTO(
+                List.of(planejado.id(), emAnalise.id(), -1L, outroPlanejado.id(), planejado.id()), null, "em_andamento"));
+
+        assertEquals(StatusProjeto.EM_ANDAMENTO, result.status());
+        assertEquals(2, result.alterados());
+        assertEquals(List.of(
+                new BulkStatusItemDTO(planejado.id(), StatusProjeto.PLANEJADO, BulkStatusOutcome.ALTERADO),
+                new BulkStatusItemDTO(emAnalise.id(), StatusProjeto.EM_ANALISE, BulkStatusOutcome.TRANSICAO_INVALIDA),
+                new BulkStatusItemDTO(-1L, null, BulkStatusOutcome.NAO_ENCONTRADO),
+                new BulkStatusItemDTO(outroPlanejado.id(), StatusProjeto.PLANEJADO, BulkStatusOutcome.ALTERADO)),
+                result.resultados());
+        assertEquals(StatusProjeto.EM_ANDAMENTO, projectService.getById(planejado.id()).status());
+        assertEquals(StatusProjeto.EM_ANALISE, projectService.getById(emAnalise.id()).status());
+    }
+
+    @Test
+    void appliesOneUpdatePerPreviousStatus() {
+        List<ProjectDTO> andamento = IntStream.range(0, 20).mapToObj(i -> create(StatusProjeto.EM_ANDAMENTO)).toList();
+        projectRepository.findById(andamento.get(0).id()).ifPresent(p -> {
+            p.setPrevisaoTermino(LocalDate.now().minusDays(1));
+            projectRepository.save(p);
+        });
+        assertTrue(projectRepository.findById(andamento.get(0).id()).orElseThrow().isAtrasado());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkStatusResultDTO result = bulkStatusService.changeStatus(new BulkStatusRequestDTO(null,
+                new BulkStatusRequestDTO.Filtro("EM_ANDAMENTO", gerente.id()), "ENCERRADO"));
+        // Seleção pelo filtro, leitura dos status atuais e um único UPDATE
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        assertEquals(20, result.alterados());
+        Project encerrado = projectRepository.findById(andamento.get(0).id()).orElseThrow();
+        assertEquals(StatusProjeto.ENCERRADO, encerrado.getStatus());
+        assertEquals(LocalDate.now(), encerrado.getDataRealTermino());
+        assertFalse(encerrado.isAtrasado());
+    }
+
+    @Test
+    void cancelsProjectsWithoutStatus() {
+        ProjectDTO semStatus = create(null);
+
+        BulkStatusResultDTO avanco = bulkStatusService.changeStatus(new BulkStatusRequestDTO(List.of(semStatus.id()),
+                null, "ANALISE_REALIZADA"));
+        assertEquals(BulkStatusOutcome.TRANSICAO_INVALIDA, avanco.resultados().get(0).resultado());
+
+        BulkStatusResultDTO result = bulkStatusService.changeStatus(new BulkStatusRequestDTO(List.of(semStatus.id()),
+                null, "CANCELADO"));
+        assertEquals(List.of(new BulkStatusItemDTO(semStatus.id(), null, BulkStatusOutcome.ALTERADO)),
+                result.resultados());
+        assertEquals(StatusProjeto.CANCELADO, projectService.getById(semStatus.id()).status());
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        assertEquals("Informe a lista de ids ou um filtro", assertThrows(ProjectException.class,
+                () -> bulkStatusService.changeStatus(new BulkStatusRequestDTO(List.of(), null, "CANCELADO")))
+                .getMessage());
+        assertEquals("Status inválido: PAUSADO", assertThrows(ProjectException.class,
+                () -> bulkStatusService.changeStatus(new BulkStatusRequestDTO(List.of(1L), null, "PAUSADO")))
+                .getMessage());
+        List<Long> comNulo = new ArrayList<>(List.of(1L));
+        comNulo.add(null);
+        assertEquals("A lista de ids não pode conter valores nulos", assertThrows(ProjectException.class,
+                () -> bulkStatusService.changeStatus(new BulkStatusRequestDTO(comNulo, null, "CANCELADO")))
+                .getMessage());
+        List<Long> demais = LongStream.rangeClosed(1, 1001).boxed().toList();
+        assertEquals("Máximo de 1000 projetos por requisição", assertThrows(ProjectException.class,
+                () -> bulkStatusService.changeStatus(new BulkStatusRequestDTO(demais, null, "CANCELADO")))
+                .getMessage());
+    }
+
+    private ProjectDTO create(StatusProjeto status) {
+        MemberDTO funcionario = fixtures.member("Funcionario Lote", "funcionario");
+        ProjectDTO project = fixtures.create(new ProjectRequestDTO("Lote " + funcionario.id(), LocalDate.now(),
+                LocalDate.now().plusMonths(1), BigDecimal.TEN, "Teste de status em lote", gerente.id(),
+                List.of(funcionario.id())));
+        Project entity = projectRepository.findById(project.id()).orElseThrow();
+        entity.setStatus(status);
+        projectRepository.save(entity);
+        return project;
+    }
+}
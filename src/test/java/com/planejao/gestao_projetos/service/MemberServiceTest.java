@@ -0,0 +1,104 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.dto.CursorPageDTO;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class MemberServiceTest {
+
+    // Cargo exclusivo do teste, para não depender dos membros já existentes no banco
+    private static final String CARGO = "cargo-teste-paginacao";
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Member> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Member member = new Member();
+            member.setNome("Membro " + i);
+            member.setCargo(CARGO);
+            created.add(memberRepository.save(member));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        memberRepository.deleteAll(created);
+    }
+
+    @Test
+    void pagesByCargo() {
+        Page<MemberDTO> page = memberService.getMembersByCargo(CARGO, PageRequest.of(1, 2));
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(m -> CARGO.equals(m.cargo())));
+    }
+
+    @Test
+    void offsetPagesFollowIdOrderWhenUnsorted() {
+        List<Long> seen = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            memberService.getMembersByCargo(CARGO, PageRequest.of(page, 2)).forEach(m -> seen.add(m.id()));
+        }
+
+        assertEquals(created.stream().map(Member::getId).toList(), seen);
+    }
+
+    @Test
+    void walksCargoWithCursor() {
+        List<Long> seen = new ArrayList<>();
+        CursorPageDTO<MemberDTO> page = memberService.getMembersByCargoAfter(CARGO, 0, 2);
+        while (true) {
+            page.content().forEach(m -> seen.add(m.id()));
+            if (page.nextCursor() == null) {
+                break;
+            }
+            page = memberService.getMembersByCargoAfter(CARGO, page.nextCursor(), 2);
+        }
+
+        assertEquals(created.stream().map(Member::getId).toList(), seen);
+    }
+
+    @Test
+    void countsByCargo() {
+        assertEquals(5L, memberService.countMembers().porCargo().get(CARGO));
+    }
+
+    @Test
+    void exportsCargoAsStreamedArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        memberService.exportMembers(Optional.of(CARGO)).writeTo(out);
+
+        List<MemberDTO> exported = Arrays.asList(objectMapper.readValue(out.toByteArray(), MemberDTO[].class));
+        assertEquals(created.stream().map(m -> new MemberDTO(m.getId(), m.getNome(), m.getCargo())).toList(), exported);
+    }
+}
@@ -0,0 +1,133 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.PortfolioFilter;
+import com.planejao.gestao_projetos.dto.PortfolioSummaryDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "portfolio-snapshot.file.path=" + PortfolioSnapshotFileTest.FILE)
+class PortfolioSnapshotFileTest {
+
+    static final String FILE = "target/portfolio-snapshot-test.bin";
+    private static final String MARCADOR = "Teste do arquivo do snapshot";
+
+    @Autowired
+    private PortfolioSnapshot snapshot;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<ProjectDTO> projects = new ArrayList<>();
+    private ProjectFixtures fixtures;
+    private MemberDTO gerente;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.member("Gerente Arquivo", "gerente");
+        MemberDTO funcionario = fixtures.member("Funcionario Arquivo", "funcionario");
+        projects.add(fixtures.create(new ProjectRequestDTO("Arquivo A", LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 6, 1), new BigDecimal("1000"), MARCADOR, gerente.id(), List.of(funcionario.id()))));
+        projects.add(fixtures.create(new ProjectRequestDTO("Arquivo B", LocalDate.of(2025, 2, 1),
+                LocalDate.of(2025, 7, 1), new BigDecimal("2000"), MARCADOR, gerente.id(), List.of(funcionario.id()))));
+        snapshot.sync();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fixtures.cleanup();
+        Files.deleteIfExists(Path.of(FILE));
+        snapshot.reload();
+    }
+
+    @Test
+    void resumesFromFileReplayingChangesSinceTheMark() {
+        // A segunda gravação já usa a marca lida na primeira
+        snapshot.persist();
+        snapshot.persist();
+        // SQL direto não publica eventos: só a retomada pelo log enxerga estas alterações
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.update("UPDATE projects SET orcamento_total = 5000 WHERE id = ?", projects.get(0).id());
+            fixtures.track(jdbcTemplate.queryForObject("""
+                    INSERT INTO projects (data_inicio, previsao_termino, orcamento_total, descricao, gerente_id, nome, status)
+                    VALUES (DATE '2025-03-01', DATE '2025-08-01', 300, ?, ?, 'Arquivo C', 'EM_ANALISE')
+                    RETURNING id
+                    """, Long.class, MARCADOR, gerente.id()));
+        });
+        assertEquals(new BigDecimal("3000.00"), summary().orcamentoTotal());
+
+        assertTrue(snapshot.warmStart());
+
+        PortfolioSummaryDTO retomado = summary();
+        assertEquals(3, retomado.quantidade());
+        assertEquals(new BigDecimal("7300.00"), retomado.orcamentoTotal());
+    }
+
+    @Test
+    void fallsBackToFullLoadWhenFileIsCorrupt() throws IOException {
+        snapshot.persist();
+        try (RandomAccessFile raf = new RandomAccessFile(FILE, "rw")) {
+            long meio = raf.length() / 2;
+            raf.seek(meio);
+            int b = raf.read();
+            raf.seek(meio);
+            raf.write(b ^ 0xFF);
+        }
+
+        assertFalse(snapshot.warmStart());
+        assertEquals(2, summary().quantidade());
+        assertEquals(new BigDecimal("3000.00"), summary().orcamentoTotal());
+    }
+
+    @Test
+    void rejectsFileFromAnotherDatabase() {
+        snapshot.persist();
+        // Como se o banco tivesse sido recriado depois da gravação
+        transactionTemplate.executeWithoutResult(tx ->
+                jdbcTemplate.update("UPDATE project_changes_origem SET origem = gen_random_uuid()"));
+
+        assertFalse(snapshot.warmStart());
+        assertEquals(2, summary().quantidade());
+    }
+
+    private PortfolioSummaryDTO summary() {
+        return snapshot.summarize(new PortfolioFilter(null, null, null, null, null, null, null, null, null, null,
+                gerente.id()));
+    }
+}
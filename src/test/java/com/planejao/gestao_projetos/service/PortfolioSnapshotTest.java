@@ -0,0 +1,214 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.PortfolioFilter;
+import com.planejao.gestao_projetos.dto.PortfolioSummaryDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.dto.RiskChangeDTO;
+import com.planejao.gestao_projetos.dto.SimulationResultDTO;
+import com.planejao.gestao_projetos.dto.SimulationScenarioDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Blocos de dois ids por tarefa para que mesmo poucos projetos passem pela divisão do fork/join; a leitura do log só
+// quando o teste pede
+@SpringBootTest(properties = {"portfolio-snapshot.scan-threshold=2", "portfolio-snapshot.poll-interval-ms=3600000"})
+class PortfolioSnapshotTest {
+
+    private static final LocalDate ABRIL = LocalDate.of(2025, 4, 1);
+    private static final LocalDate JUNHO = LocalDate.of(2025, 6, 30);
+
+    @Autowired
+    private PortfolioSnapshot snapshot;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ProjectFixtures fixtures;
+    private MemberDTO gerente;
+    private MemberDTO funcionarioB;
+    private ProjectDTO tresMembros;
+    private ProjectDTO semMembrosExtras;
+    private ProjectDTO doisMembros;
+    private ProjectDTO cancelado;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.member("Gerente Snapshot", "gerente");
+        MemberDTO a = fixtures.member("Funcionario Snapshot A", "funcionario");
+        funcionarioB = fixtures.member("Funcionario Snapshot B", "funcionario");
+        MemberDTO c = fixtures.member("Funcionario Snapshot C", "funcionario");
+        tresMembros = create("Q2 três membros", LocalDate.of(2025, 4, 10), "1000", a, funcionarioB, c);
+        semMembrosExtras = create("Q2 um membro", LocalDate.of(2025, 5, 20), "2500.50", a);
+        doisMembros = create("Q3 dois membros", LocalDate.of(2025, 8, 1), "4000", a, funcionarioB);
+        cancelado = create("Q2 cancelado", LocalDate.of(2025, 6, 1), "700", funcionarioB);
+        projectService.changeStatus(cancelado.id(), StatusProjeto.CANCELADO);
+        snapshot.sync();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void aggregatesProjectsMatchingTheFilter() {
+        PortfolioSummaryDTO ativosNoSegundoTrimestre = snapshot.summarize(filter(null, true, ABRIL, JUNHO, null, null));
+        assertEquals(2, ativosNoSegundoTrimestre.quantidade());
+        assertEquals(new BigDecimal("3500.50"), ativosNoSegundoTrimestre.orcamentoTotal());
+        assertEquals(new BigDecimal("1750.25"), ativosNoSegundoTrimestre.orcamentoMedio());
+        assertEquals(2.0, ativosNoSegundoTrimestre.mediaMembros());
+        assertEquals(Map.of("EM_ANALISE", 2L), ativosNoSegundoTrimestre.quantidadePorStatus());
+
+        assertEquals(1, snapshot.summarize(filter(null, true, ABRIL, JUNHO, null, 2)).quantidade());
+        assertEquals(2, snapshot.summarize(filter(null, null, null, null, new BigDecimal("2500.50"), null)).quantidade());
+
+        PortfolioSummaryDTO cancelados = snapshot.summarize(filter("cancelado", null, null, null, null, null));
+        assertEquals(1, cancelados.quantidade());
+        assertEquals(new BigDecimal("700.00"), cancelados.orcamentoTotal());
+        assertEquals(4, snapshot.summarize(filter("em_analise,cancelado", null, null, null, null, null)).quantidade());
+    }
+
+    @Test
+    void refreshesProjectsFromChangeEvents() {
+        projectService.addMember(semMembrosExtras.id(), funcionarioB.id());
+        projectService.delete(cancelado.id());
+        snapshot.sync();
+
+        assertEquals(2, snapshot.summarize(filter(null, true, ABRIL, JUNHO, null, 2)).quantidade());
+        assertEquals(0, snapshot.summarize(filter("CANCELADO", null, null, null, null, null)).quantidade());
+        assertEquals(3, snapshot.summarize(filter(null, null, null, null, null, null)).quantidade());
+    }
+
+    @Test
+    void pollsChangesMadeOutsideThisInstance() {
+        // SQL direto faz o papel de outra réplica: nenhum evento chega aqui, só o registro em project_changes
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "UPDATE projects SET orcamento_total = 9000 WHERE id = ?", semMembrosExtras.id()));
+        PortfolioFilter caros = filter(null, null, null, null, new BigDecimal("9000"), null);
+        snapshot.sync();
+        assertEquals(0, snapshot.summarize(caros).quantidade());
+
+        snapshot.poll();
+        snapshot.sync();
+
+        assertEquals(1, snapshot.summarize(caros).quantidade());
+        assertEquals(new BigDecimal("9000.00"), snapshot.summarize(caros).orcamentoTotal());
+    }
+
+    @Test
+    void rejectsUnknownStatus() {
+        ProjectException error = assertThrows(ProjectException.class,
+                () -> snapshot.summarize(filter("PAUSADO", null, null, null, null, null)));
+        assertEquals("Status inválido: PAUSADO", error.getMessage());
+    }
+
+    @Test
+    void simulationMatchesProjectRiskAndShiftsSchedules() {
+        SimulationResultDTO result = snapshot.simulate(new SimulationScenarioDTO(null, null, null, null, 2, "EM_ANALISE",
+                1000));
+
+        // Mesma classificação de Project.getRisco, hoje e com a previsão deslocada, para todos os projetos
+        Map<String, Long> atual = new HashMap<>();
+        Map<String, Long> simulado = new HashMap<>();
+        long mudancas = 0;
+        for (ProjectDTO p : projectService.list(PageRequest.of(0, 10_000), Optional.empty(), true)) {
+            LocalDate previsao = p.status() == StatusProjeto.EM_ANALISE ? p.previsaoTermino().plusMonths(2)
+                    : p.previsaoTermino();
+            String risco = Project.calcularRisco(p.dataInicio(), previsao, p.orcamentoTotal());
+            atual.merge(p.risco(), 1L, Long::sum);
+            simulado.merge(risco, 1L, Long::sum);
+            mudancas += risco.equals(p.risco()) ? 0 : 1;
+        }
+        assertEquals(atual, withoutZeros(result.quantidadeAtual()));
+        assertEquals(simulado, withoutZeros(result.quantidadeSimulada()));
+        assertEquals(mudancas, result.totalMudancas());
+
+        // Dois meses de previsão viram quatro: acima do limite de três meses
+        List<RiskChangeDTO> nossos = result.mudancas().stream()
+                .filter(m -> Stream.of(tresMembros, semMembrosExtras, doisMembros, cancelado)
+                        .anyMatch(p -> p.id().equals(m.projetoId()))).toList();
+        assertEquals(3, nossos.size());
+        assertTrue(nossos.stream().allMatch(m -> m.riscoAtual().equals("Baixo") && m.riscoSimulado().equals("Medio")));
+        assertTrue(nossos.stream().noneMatch(m -> m.projetoId().equals(cancelado.id())));
+    }
+
+    @Test
+    void simulationAppliesProposedThresholds() {
+        SimulationResultDTO result = snapshot.simulate(new SimulationScenarioDTO(new BigDecimal("2000"), null, null, null,
+                null, null, 1000));
+
+        List<Long> mudaram = result.mudancas().stream().map(RiskChangeDTO::projetoId).toList();
+        assertTrue(mudaram.contains(semMembrosExtras.id()));
+        assertTrue(mudaram.contains(doisMembros.id()));
+        assertFalse(mudaram.contains(tresMembros.id()));
+        assertEquals(result.quantidade(), result.quantidadeSimulada().values().stream().mapToLong(Long::longValue).sum());
+
+        SimulationResultDTO semLista = snapshot.simulate(new SimulationScenarioDTO(new BigDecimal("2000"), null, null,
+                null, null, null, 0));
+        assertEquals(result.totalMudancas(), semLista.totalMudancas());
+        assertTrue(semLista.mudancas().isEmpty());
+    }
+
+    @Test
+    void rejectsInconsistentScenario() {
+        ProjectException error = assertThrows(ProjectException.class, () -> snapshot.simulate(
+                new SimulationScenarioDTO(new BigDecimal("600000"), null, null, null, null, null, null)));
+        assertEquals("Limites de orçamento devem ser positivos, com o médio até o alto", error.getMessage());
+    }
+
+    private Map<String, Long> withoutZeros(Map<String, Long> porFaixa) {
+        Map<String, Long> result = new HashMap<>(porFaixa);
+        result.values().removeIf(quantidade -> quantidade == 0);
+        return result;
+    }
+
+    private PortfolioFilter filter(String status, Boolean ativo, LocalDate inicioDe, LocalDate inicioAte,
+                                   BigDecimal orcamentoMin, Integer minMembros) {
+        return new PortfolioFilter(status, ativo, inicioDe, inicioAte, null, null, orcamentoMin, null, minMembros, null,
+                gerente.id());
+    }
+
+    private ProjectDTO create(String nome, LocalDate inicio, String orcamento, MemberDTO... funcionarios) {
+        return fixtures.create(new ProjectRequestDTO(nome, inicio, inicio.plusMonths(2), new BigDecimal(orcamento),
+                "Teste do snapshot", gerente.id(), List.of(funcionarios).stream().map(MemberDTO::id).toList()));
+    }
+}
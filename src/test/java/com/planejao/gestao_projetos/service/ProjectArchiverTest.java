@@ -0,0 +1,142 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import com.planejao.gestao_projetos.dto.ReportDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Transacional: o arquivamento participa da transação do teste e tudo é desfeito no final
+@SpringBootTest(properties = "archive.chunk-size=1")
+@Transactional
+class ProjectArchiverTest {
+
+    @Autowired
+    private ProjectArchiver archiver;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private ProjectFixtures fixtures;
+    private Member funcionario;
+    private Project antigoEncerrado;
+    private Project antigoCancelado;
+    private Project recenteEncerrado;
+    private Project antigoEmAndamento;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        Member gerente = fixtures.saveMember("Gerente Arquivo", "gerente");
+        funcionario = fixtures.saveMember("Funcionario Arquivo", "funcionario");
+        antigoEncerrado = save(gerente, StatusProjeto.ENCERRADO, LocalDate.of(2000, 1, 1), LocalDate.of(2000, 2, 15));
+        antigoCancelado = save(gerente, StatusProjeto.CANCELADO, LocalDate.of(2000, 1, 1), null);
+        recenteEncerrado = save(gerente, StatusProjeto.ENCERRADO, LocalDate.now().minusMonths(1), LocalDate.now());
+        antigoEmAndamento = save(gerente, StatusProjeto.EM_ANDAMENTO, LocalDate.of(2000, 1, 1), null);
+        // Relê do banco (orçamentos com a escala da coluna), como numa requisição nova
+        entityManager.clear();
+    }
+
+    @Test
+    void movesOldTerminalProjectsInChunksAndKeepsThemReadable() {
+        ReportDTO before = projectService.getReport();
+
+        assertTrue(archiver.archive() >= 2);
+
+        assertTrue(projectRepository.findById(antigoEncerrado.getId()).isEmpty());
+        assertTrue(projectRepository.findById(antigoCancelado.getId()).isEmpty());
+        assertTrue(projectRepository.findById(recenteEncerrado.getId()).isPresent());
+        assertTrue(projectRepository.findById(antigoEmAndamento.getId()).isPresent());
+
+        ProjectDTO arquivado = projectService.getById(antigoEncerrado.getId());
+        assertEquals(StatusProjeto.ENCERRADO, arquivado.status());
+        assertEquals(List.of(funcionario.getId()), arquivado.membros());
+        assertEquals(Map.of("nome", "Arquivo ENCERRADO"),
+                projectService.getById(antigoEncerrado.getId(), ProjectField.parse("nome")));
+
+        // O relatório soma os totais da camada fria e não muda com o arquivamento
+        assertEquals(before, projectService.getReport());
+    }
+
+    @Test
+    void listsArchivedProjectsOnlyWhenAsked() {
+        archiver.archive();
+
+        PageRequest page = PageRequest.of(0, 1000);
+        Optional<StatusProjeto> encerrado = Optional.of(StatusProjeto.ENCERRADO);
+        assertFalse(ids(projectService.list(page, encerrado, false).getContent()).contains(antigoEncerrado.getId()));
+        List<Long> todos = ids(projectService.list(page, encerrado, true).getContent());
+        assertTrue(todos.contains(antigoEncerrado.getId()));
+        assertTrue(todos.contains(recenteEncerrado.getId()));
+    }
+
+    @Test
+    void archivedProjectsDoNotHoldOnToTheirMembers() {
+        Member exGerente = fixtures.saveMember("Ex-Gerente Arquivo", "gerente");
+        Member exFuncionario = fixtures.saveMember("Ex-Funcionario Arquivo", "funcionario");
+        Project antigo = save(exGerente, List.of(exFuncionario.getId()), StatusProjeto.ENCERRADO,
+                LocalDate.of(2000, 1, 1), LocalDate.of(2000, 2, 15));
+        archiver.archive();
+
+        memberRepository.deleteAllById(List.of(exGerente.getId(), exFuncionario.getId()));
+        memberRepository.flush();
+        entityManager.clear();
+
+        ProjectDTO arquivado = projectService.getById(antigo.getId());
+        assertNull(arquivado.gerente());
+        assertEquals(List.of(exFuncionario.getId()), arquivado.membros());
+        assertEquals(List.of(), projectService.getByIdExpanded(antigo.getId()).membros());
+    }
+
+    private List<Long> ids(List<ProjectDTO> projects) {
+        return projects.stream().map(ProjectDTO::id).toList();
+    }
+
+    private Project save(Member gerente, StatusProjeto status, LocalDate inicio, LocalDate termino) {
+        return save(gerente, List.of(funcionario.getId()), status, inicio, termino);
+    }
+
+    private Project save(Member gerente, List<Long> membros, StatusProjeto status, LocalDate inicio, LocalDate termino) {
+        Project project = new Project();
+        project.setNome("Arquivo " + status);
+        project.setDataInicio(inicio);
+        project.setPrevisaoTermino(inicio.plusMonths(1));
+        project.setDataRealTermino(termino);
+        project.setOrcamentoTotal(new BigDecimal("1000"));
+        project.setDescricao("Teste de arquivamento");
+        project.setGerente(gerente);
+        project.setStatus(status);
+        project.setMembros(membros);
+        return fixtures.save(project);
+    }
+}
@@ -0,0 +1,126 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectChangeEvent;
+import com.planejao.gestao_projetos.dto.ProjectChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectChangeFeedTest {
+
+    private final ProjectChangeFeed feed = new ProjectChangeFeed(4, 16, 100, 60_000, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void filtersByStatusIncludingProjectsLeavingIt() {
+        CapturingEmitter emitter = new CapturingEmitter();
+        feed.subscribe(emitter, Optional.of(StatusProjeto.EM_ANALISE), null);
+
+        feed.publish(ProjectChangeEvent.of(ProjectChangeType.CRIADO, 1L, StatusProjeto.EM_ANALISE));
+        feed.publish(ProjectChangeEvent.of(ProjectChangeType.ATUALIZADO, 2L, StatusProjeto.INICIADO));
+        feed.publish(ProjectChangeEvent.statusChanged(1L, StatusProjeto.EM_ANALISE, StatusProjeto.ANALISE_REALIZADA));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() == 2);
+        assertEquals(List.of(ProjectChangeType.CRIADO, ProjectChangeType.STATUS_ALTERADO),
+                emitter.events.stream().map(ProjectChangeEvent::tipo).toList());
+        // Os ids seguem a sequência do feed, com a época da instância na frente
+        assertEquals(List.of("1", "3"), emitter.ids.stream().map(id -> id.substring(id.indexOf('-') + 1)).toList());
+    }
+
+    @Test
+    void resumesAfterLastEventIdFromReplayBuffer() {
+        List<String> ids = publishSeen(3);
+
+        CapturingEmitter emitter = new CapturingEmitter();
+        feed.subscribe(emitter, Optional.empty(), ids.get(0));
+        feed.publish(ProjectChangeEvent.of(ProjectChangeType.EXCLUIDO, 4L, StatusProjeto.EM_ANALISE));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() == 3);
+        assertEquals(List.of(2L, 3L, 4L), emitter.events.stream().map(ProjectChangeEvent::projectId).toList());
+        assertFalse(emitter.text().contains("RESET"));
+    }
+
+    @Test
+    void asksForReloadWhenLastEventIdFellOutOfTheBuffer() {
+        List<String> ids = publishSeen(10);
+
+        CapturingEmitter emitter = new CapturingEmitter();
+        feed.subscribe(emitter, Optional.empty(), ids.get(1));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() == 4);
+        assertTrue(emitter.text().startsWith(":heartbeat\n\nevent:RESET\n"));
+        assertEquals(List.of(7L, 8L, 9L, 10L), emitter.events.stream().map(ProjectChangeEvent::projectId).toList());
+    }
+
+    @Test
+    void asksForReloadWhenLastEventIdComesFromAnotherEpoch() {
+        // Antes do reinício o cliente viu o evento 1; a nova instância já publicou três
+        ProjectChangeFeed anterior = new ProjectChangeFeed(4, 16, 100, 60_000, new SimpleMeterRegistry());
+        CapturingEmitter antes = new CapturingEmitter();
+        anterior.subscribe(antes, Optional.empty(), null);
+        anterior.publish(ProjectChangeEvent.of(ProjectChangeType.CRIADO, 1L, StatusProjeto.EM_ANALISE));
+        await().atMost(Duration.ofSeconds(5)).until(() -> antes.ids.size() == 1);
+        anterior.shutdown();
+        for (long id = 1; id <= 3; id++) {
+            feed.publish(ProjectChangeEvent.of(ProjectChangeType.ATUALIZADO, id, StatusProjeto.EM_ANALISE));
+        }
+
+        CapturingEmitter emitter = new CapturingEmitter();
+        feed.subscribe(emitter, Optional.empty(), antes.ids.get(0));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> emitter.events.size() == 3);
+        assertTrue(emitter.text().startsWith(":heartbeat\n\nevent:RESET\n"));
+        assertEquals(List.of(1L, 2L, 3L), emitter.events.stream().map(ProjectChangeEvent::projectId).toList());
+    }
+
+    // Publica eventos para os projetos 1..n e devolve os ids que um assinante recebeu: a época só aparece neles
+    private List<String> publishSeen(long n) {
+        CapturingEmitter seen = new CapturingEmitter();
+        feed.subscribe(seen, Optional.empty(), null);
+        for (long id = 1; id <= n; id++) {
+            feed.publish(ProjectChangeEvent.of(ProjectChangeType.ATUALIZADO, id, StatusProjeto.EM_ANALISE));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> seen.ids.size() == n);
+        return seen.ids;
+    }
+
+    // Registra o que seria escrito na resposta, sem precisar de uma requisição HTTP
+    private static class CapturingEmitter extends SseEmitter {
+        private final List<Object> parts = new CopyOnWriteArrayList<>();
+        private final List<ProjectChangeEvent> events = new CopyOnWriteArrayList<>();
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().forEach(part -> {
+                parts.add(part.getData());
+                if (part.getData() instanceof String text && text.startsWith("id:")) {
+                    ids.add(text.substring(3, text.indexOf('\n')));
+                }
+                if (part.getData() instanceof ProjectChangeEvent event) {
+                    events.add(event);
+                }
+            });
+        }
+
+        String text() {
+            StringBuilder text = new StringBuilder();
+            parts.stream().filter(String.class::isInstance).forEach(text::append);
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ExpandedProjectDTO;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectExpansion;
+import com.planejao.gestao_projetos.dto.ProjectField;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class ProjectExpansionTest {
+
+    private static final int PROJETOS = 8;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Project> projects = new ArrayList<>();
+    private ProjectFixtures fixtures;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        Member gerente = fixtures.saveMember("Gerente Expansão", "gerente");
+        for (int i = 0; i < PROJETOS; i++) {
+            Member a = fixtures.saveMember("Funcionario A" + i, "funcionario");
+            Member b = fixtures.saveMember("Funcionario B" + i, "funcionario");
+            Project project = new Project();
+            project.setNome("Expansão " + i);
+            project.setDataInicio(LocalDate.of(2025, 1, 1));
+            project.setPrevisaoTermino(LocalDate.of(2025, 2, 1));
+            project.setOrcamentoTotal(new BigDecimal("1000"));
+            project.setDescricao("Teste de expansão");
+            project.setGerente(gerente);
+            project.setStatus(StatusProjeto.ANALISE_REALIZADA);
+            project.setMembros(List.of(a.getId(), b.getId()));
+            projects.add(fixtures.save(project));
+        }
+        // Página lida do zero, sem nada no contexto de persistência
+        entityManager.clear();
+    }
+
+    @Test
+    void inlinesMembersOfTheWholePageWithBatchedQueries() {
+        Statistics statistics = statistics();
+
+        Page<ExpandedProjectDTO> page = projectService.listExpanded(PageRequest.of(0, 20),
+                Optional.of(StatusProjeto.ANALISE_REALIZADA), false);
+
+        ExpandedProjectDTO first = page.getContent().stream()
+                .filter(p -> p.id().equals(projects.get(0).getId())).findFirst().orElseThrow();
+        assertEquals(List.of("Funcionario A0", "Funcionario B0"), first.membros().stream().map(MemberDTO::nome).toList());
+        assertTrue(page.getContent().stream().allMatch(p -> p.membros().stream().allMatch(m -> m != null)));
+        // Página, contagem, gerentes, coleções de membros e os membros: não cresce com o número de projetos
+        assertTrue(statistics.getPrepareStatementCount() <= 5, "consultas: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void inlinesMembersOnSingleProjectAndFieldsResponses() {
+        Long id = projects.get(1).getId();
+
+        assertEquals("Funcionario B1", projectService.getByIdExpanded(id).membros().get(1).nome());
+
+        Map<String, Object> row = projectService.getById(id, ProjectField.parse("nome,membros"),
+                ProjectExpansion.parse("membros"));
+        assertEquals(List.of("Funcionario A1", "Funcionario B1"),
+                ((List<?>) row.get("membros")).stream().map(m -> ((MemberDTO) m).nome()).toList());
+    }
+
+    @Test
+    void rejectsUnknownExpansion() {
+        assertThrows(ProjectException.class, () -> ProjectExpansion.parse("membros,tarefas"));
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,160 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ProjectExportTest {
+
+    private static final String CARGO_LOTE = "cargo-teste-exportacao";
+
+    @Autowired
+    private ProjectExport export;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    private final List<ProjectDTO> projects = new ArrayList<>();
+    private ProjectFixtures fixtures;
+    private MemberDTO gerente;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.member("Gerente Exportação", "gerente");
+        MemberDTO funcionarioA = fixtures.member("Funcionario Exportação A", "funcionario");
+        MemberDTO funcionarioB = fixtures.member("Funcionario Exportação B", "funcionario");
+        projects.add(fixtures.create(new ProjectRequestDTO("Exportado", LocalDate.of(2030, 1, 1),
+                LocalDate.of(2030, 12, 1), new BigDecimal("250000.50"), "Teste de exportação", gerente.id(),
+                List.of(funcionarioA.id()))));
+        projects.add(fixtures.create(new ProjectRequestDTO("Exportado Planejado", LocalDate.of(2030, 1, 1),
+                LocalDate.of(2030, 2, 1), BigDecimal.TEN, null, gerente.id(), List.of(funcionarioB.id()))));
+        Project planejado = projectRepository.findById(projects.get(1).id()).orElseThrow();
+        planejado.setStatus(StatusProjeto.PLANEJADO);
+        planejado.setDataRealTermino(LocalDate.of(2030, 1, 31));
+        projectRepository.save(planejado);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void writesSameShapeAsProjectDTO() throws IOException {
+        Map<Long, JsonNode> exported = exported(Optional.empty());
+
+        for (ProjectDTO project : projects) {
+            // Pelo texto, para comparar números com a mesma representação de nó
+            JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsString(projectService.getById(project.id())));
+            assertEquals(expected, exported.get(project.id()));
+        }
+    }
+
+    @Test
+    void listsMembersInIdOrder() throws IOException {
+        MemberDTO primeiro = fixtures.member("Funcionario Exportação C", "funcionario");
+        MemberDTO segundo = fixtures.member("Funcionario Exportação D", "funcionario");
+        ProjectDTO project = fixtures.create(new ProjectRequestDTO("Exportado Equipe", LocalDate.of(2030, 1, 1),
+                LocalDate.of(2030, 12, 1), BigDecimal.TEN, null, gerente.id(), List.of(segundo.id(), primeiro.id())));
+
+        JsonNode membros = exported(Optional.empty()).get(project.id()).get("membros");
+
+        assertEquals(List.of(primeiro.id(), segundo.id()),
+                StreamSupport.stream(membros.spliterator(), false).map(JsonNode::asLong).toList());
+    }
+
+    @Test
+    void filtersByStatus() throws IOException {
+        Map<Long, JsonNode> exported = exported(Optional.of(StatusProjeto.PLANEJADO));
+
+        assertFalse(exported.containsKey(projects.get(0).id()));
+        assertEquals("PLANEJADO", exported.get(projects.get(1).id()).get("status").asText());
+    }
+
+    @Test
+    void compressesWhenClientAcceptsGzip() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            fixtures.saveMember("Membro Exportação " + i, CARGO_LOTE);
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        URI uri = URI.create("http://localhost:" + port + "/members/export?cargo=" + CARGO_LOTE);
+
+        HttpResponse<InputStream> gzip = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, gzip.statusCode());
+        assertEquals(Optional.of("gzip"), gzip.headers().firstValue("Content-Encoding"));
+        JsonNode exportados;
+        try (InputStream body = new GZIPInputStream(gzip.body())) {
+            exportados = objectMapper.readTree(body);
+        }
+        assertEquals(100, exportados.size());
+
+        HttpResponse<String> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(Optional.empty(), plain.headers().firstValue("Content-Encoding"));
+        assertEquals(exportados, objectMapper.readTree(plain.body()));
+
+        // Abaixo de server.compression.min-response-size a resposta sai sem compressão
+        HttpResponse<String> small = client.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/members/export?cargo=cargo-inexistente"))
+                .header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(Optional.empty(), small.headers().firstValue("Content-Encoding"));
+        assertEquals("[]", small.body());
+    }
+
+    // Indexa pelo id para não depender dos projetos de exemplo e de outras classes
+    private Map<Long, JsonNode> exported(Optional<StatusProjeto> status) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.export(status, false).writeTo(out);
+        return StreamSupport.stream(objectMapper.readTree(out.toByteArray()).spliterator(), false)
+                .collect(Collectors.toMap(n -> n.get("id").asLong(), Function.identity()));
+    }
+}
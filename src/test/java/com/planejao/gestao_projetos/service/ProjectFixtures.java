@@ -0,0 +1,90 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Membros e projetos criados por um teste de integração. O banco de desenvolvimento não é limpo entre execuções: o
+ * teste cria o que usa e chama {@link #cleanup} no {@code @AfterEach}. Testes {@code @Transactional} só usam as
+ * fábricas; o rollback desfaz tudo.
+ */
+final class ProjectFixtures {
+
+    private final ProjectService projectService;
+    private final MemberService memberService;
+    private final ProjectRepository projectRepository;
+    private final MemberRepository memberRepository;
+
+    private final List<Long> projects = new ArrayList<>();
+    private final List<Long> members = new ArrayList<>();
+
+    ProjectFixtures(ProjectService projectService, MemberService memberService, ProjectRepository projectRepository,
+                    MemberRepository memberRepository) {
+        this.projectService = projectService;
+        this.memberService = memberService;
+        this.projectRepository = projectRepository;
+        this.memberRepository = memberRepository;
+    }
+
+    /** Cria pelo service, como a API. */
+    MemberDTO member(String nome, String cargo) {
+        MemberDTO member = memberService.createMember(nome, cargo);
+        members.add(member.id());
+        return member;
+    }
+
+    /** Cria pelo service, com as validações e os eventos da API. */
+    ProjectDTO create(ProjectRequestDTO request) {
+        ProjectDTO project = projectService.create(request);
+        projects.add(project.id());
+        return project;
+    }
+
+    /** Grava a entidade direto pelo repositório, para testes que montam projetos como entidades. */
+    Member saveMember(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        member = memberRepository.save(member);
+        members.add(member.getId());
+        return member;
+    }
+
+    /** Grava a entidade direto pelo repositório, para estados que o service não permite criar. */
+    Project save(Project project) {
+        Project saved = projectRepository.saveAndFlush(project);
+        projects.add(saved.getId());
+        return saved;
+    }
+
+    /** Registra para a limpeza um projeto inserido por SQL direto. */
+    void track(Long projectId) {
+        projects.add(projectId);
+    }
+
+    /**
+     * Projetos antes dos membros que eles referenciam. A exclusão vai pelo service, que avisa o snapshot; os status que
+     * ele não deixa excluir e os ids que o teste já removeu caem no repositório.
+     */
+    void cleanup() {
+        for (Long id : projects) {
+            try {
+                projectService.delete(id);
+            } catch (ProjectException e) {
+                projectRepository.deleteById(id);
+            }
+        }
+        memberRepository.deleteAllById(members);
+        projects.clear();
+        members.clear();
+    }
+}
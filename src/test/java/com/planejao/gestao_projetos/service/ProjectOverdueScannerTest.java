@@ -0,0 +1,187 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectOverdueRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lotes de um projeto para exercitar o executor e o checkpoint com poucos dados
+@SpringBootTest(properties = "overdue.chunk-size=1")
+class ProjectOverdueScannerTest {
+
+    @Autowired
+    private ProjectOverdueScanner scanner;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectOverdueRepository overdueRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ProjectFixtures fixtures;
+    private Member gerente;
+    private Project atrasadoA;
+    private Project atrasadoB;
+    private Project encerrado;
+    private Project noPrazo;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.saveMember("Gerente Atraso", "gerente");
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        atrasadoA = save(StatusProjeto.EM_ANDAMENTO, ontem);
+        atrasadoB = save(StatusProjeto.PLANEJADO, ontem);
+        encerrado = save(StatusProjeto.ENCERRADO, ontem);
+        noPrazo = save(StatusProjeto.EM_ANDAMENTO, LocalDate.now().plusMonths(1));
+        // Simula a virada do dia: as previsões venceram depois da última escrita
+        sql("UPDATE projects SET atrasado = FALSE WHERE descricao = 'Teste de atraso'");
+        sql("DELETE FROM job_checkpoints");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void flagsActiveProjectsPastTheirDeadline() {
+        assertTrue(scanner.scan() >= 2);
+
+        assertTrue(atrasado(atrasadoA));
+        assertTrue(atrasado(atrasadoB));
+        assertFalse(atrasado(encerrado));
+        assertFalse(atrasado(noPrazo));
+        List<Long> ids = projectService.listOverdue(PageRequest.of(0, 1000), Optional.of(StatusProjeto.EM_ANDAMENTO))
+                .map(ProjectDTO::id).getContent();
+        assertTrue(ids.contains(atrasadoA.getId()));
+        assertFalse(ids.contains(atrasadoB.getId()));
+        assertEquals(0L, checkpoint());
+    }
+
+    @Test
+    void clearsFlagsThatNoLongerHold() {
+        scanner.scan();
+        sql("UPDATE projects SET previsao_termino = CURRENT_DATE + 30 WHERE id = " + atrasadoA.getId());
+
+        scanner.scan();
+
+        assertFalse(atrasado(atrasadoA));
+        assertTrue(atrasado(atrasadoB));
+    }
+
+    @Test
+    void resumesAfterTheCheckpoint() {
+        transactionTemplate.executeWithoutResult(tx ->
+                overdueRepository.saveCheckpoint(ProjectOverdueScanner.JOB, LocalDate.now(), atrasadoA.getId()));
+
+        scanner.scan();
+
+        assertFalse(atrasado(atrasadoA));
+        assertTrue(atrasado(atrasadoB));
+        assertEquals(0L, checkpoint());
+    }
+
+    @Test
+    void ignoresTheCheckpointOfAnEarlierDay() {
+        transactionTemplate.executeWithoutResult(tx -> overdueRepository.saveCheckpoint(ProjectOverdueScanner.JOB,
+                LocalDate.now().minusDays(1), Math.max(atrasadoA.getId(), atrasadoB.getId())));
+
+        scanner.scan();
+
+        assertTrue(atrasado(atrasadoA));
+        assertTrue(atrasado(atrasadoB));
+        assertEquals(0L, checkpoint());
+    }
+
+    @Test
+    void skipsWhileAnotherInstanceHoldsTheLock() throws Exception {
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + ProjectOverdueScanner.LOCK_KEY + ")");
+            try {
+                assertEquals(0, scanner.scan());
+                assertFalse(atrasado(atrasadoA));
+            } finally {
+                statement.execute("SELECT pg_advisory_unlock(" + ProjectOverdueScanner.LOCK_KEY + ")");
+                other.commit();
+            }
+        }
+    }
+
+    @Test
+    void jpaWritesRecomputeTheFlag() {
+        Project project = projectRepository.findById(noPrazo.getId()).orElseThrow();
+        project.setPrevisaoTermino(LocalDate.now().minusDays(2));
+        projectRepository.save(project);
+        assertTrue(atrasado(noPrazo));
+
+        project = projectRepository.findById(noPrazo.getId()).orElseThrow();
+        project.setStatus(StatusProjeto.CANCELADO);
+        projectRepository.save(project);
+        assertFalse(atrasado(noPrazo));
+    }
+
+    private boolean atrasado(Project project) {
+        return projectRepository.findById(project.getId()).orElseThrow().isAtrasado();
+    }
+
+    private long checkpoint() {
+        return transactionTemplate.execute(tx ->
+                overdueRepository.findCheckpoint(ProjectOverdueScanner.JOB, LocalDate.now()).orElse(-1L));
+    }
+
+    private void sql(String statement) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(statement));
+    }
+
+    private Project save(StatusProjeto status, LocalDate previsao) {
+        Project project = new Project();
+        project.setNome("Atraso " + status);
+        project.setDataInicio(previsao.minusMonths(1));
+        project.setPrevisaoTermino(previsao);
+        project.setOrcamentoTotal(new BigDecimal("1000"));
+        project.setDescricao("Teste de atraso");
+        project.setGerente(gerente);
+        project.setStatus(status);
+        return fixtures.save(project);
+    }
+}
@@ -193,6 +193,17 @@ class ProjectServiceTest {
         assertEquals(StatusProjeto.CANCELADO, result.status());
     }
 
+    @Test
+    void changeStatusWithoutStatusOnlyCancels() {
+        Project project = new Project();
+        project.setId(1L);
+        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectRepository.save(any())).thenReturn(project);
+
+        assertThrows(ProjectException.class, () -> projectService.changeStatus(1L, StatusProjeto.ANALISE_REALIZADA));
+        assertEquals(StatusProjeto.CANCELADO, projectService.changeStatus(1L, StatusProjeto.CANCELADO).status());
+    }
+
     @Test
     void addMemberSuccess() {
         Project project = new Project();
@@ -200,7 +211,7 @@ class ProjectServiceTest {
         project.setStatus(StatusProjeto.EM_ANALISE);
         project.setMembros(new ArrayList<>());
         when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(projectRepository.findAll()).thenReturn(Collections.singletonList(project));
+        when(projectRepository.countActiveAllocations(2L)).thenReturn(2L);
         when(projectRepository.save(any())).thenReturn(project);
 
         ProjectDTO result = projectService.addMember(1L, 2L);
@@ -236,11 +247,8 @@ class ProjectServiceTest {
         project.setId(1L);
         project.setStatus(StatusProjeto.EM_ANALISE);
         project.setMembros(new ArrayList<>());
-        Project p2 = new Project(); p2.setMembros(List.of(2L)); p2.setStatus(StatusProjeto.EM_ANALISE);
-        Project p3 = new Project(); p3.setMembros(List.of(2L)); p3.setStatus(StatusProjeto.EM_ANALISE);
-        Project p4 = new Project(); p4.setMembros(List.of(2L)); p4.setStatus(StatusProjeto.EM_ANALISE);
         when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
-        when(projectRepository.findAll()).thenReturn(List.of(project, p2, p3, p4));
+        when(projectRepository.countActiveAllocations(2L)).thenReturn(3L);
         when(memberService.getMember(2L)).thenReturn(new MemberDTO(2L, "Func", "funcionario"));
 
         assertThrows(ProjectException.class, () -> projectService.addMember(1L, 2L));
@@ -0,0 +1,169 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Conta quantas conexões cada operação retira do pool: deve ser exatamente uma por unidade de trabalho. O snapshot do
+// portfólio fica desligado: ele relê o projeto na própria thread depois do commit, fora da unidade de trabalho medida.
+@SpringBootTest(properties = "portfolio-snapshot.enabled=false")
+class ProjectServiceTransactionTest {
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private CountingDataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Member> members = new ArrayList<>();
+    private final List<Long> projectIds = new ArrayList<>();
+    private Member gerente;
+    private Member funcionario1;
+    private Member funcionario2;
+    private Member funcionario3;
+
+    @BeforeEach
+    void setUp() {
+        gerente = save("Gerente Transação", "gerente");
+        funcionario1 = save("Funcionario Transação 1", "funcionario");
+        funcionario2 = save("Funcionario Transação 2", "funcionario");
+        funcionario3 = save("Funcionario Transação 3", "funcionario");
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAllById(projectIds);
+        memberRepository.deleteAll(members);
+    }
+
+    @Test
+    void eachOperationBorrowsOneConnection() {
+        ProjectDTO created = measure(1, () -> projectService.create(request("Transação",
+                List.of(funcionario1.getId(), funcionario2.getId()))));
+        projectIds.add(created.id());
+        assertEquals(2, created.membros().size());
+
+        measure(1, () -> projectService.addMember(created.id(), funcionario3.getId()));
+        measure(1, () -> projectService.removeMember(created.id(), funcionario3.getId()));
+        measure(1, () -> projectService.update(created.id(), new ProjectUpdateDTO("Transação 2", null, null, null, null, null, gerente.getId())));
+        measure(1, () -> projectService.changeStatus(created.id(), StatusProjeto.ANALISE_REALIZADA));
+        measure(1, () -> projectService.getById(created.id()));
+        measure(1, () -> projectService.list(PageRequest.of(0, 5), Optional.empty()));
+        measure(1, () -> projectService.getReport());
+    }
+
+    @Test
+    void returnedDtosSerializeAfterTheTransactionEnds() throws Exception {
+        ProjectDTO created = projectService.create(request("Transação serializada", List.of(funcionario1.getId())));
+        projectIds.add(created.id());
+
+        // Sem open-in-view não há sessão aberta durante a serialização da resposta
+        String json = objectMapper.writeValueAsString(projectService.getById(created.id()));
+
+        assertTrue(json.contains("\"membros\":[" + funcionario1.getId() + "]"));
+    }
+
+    @Test
+    void failedCreateLeavesNoProjectBehind() {
+        String nome = "Transação revertida";
+        // O gerente não pode ser membro da equipe: o segundo addMember falha depois do primeiro já ter sido salvo
+        assertThrows(ProjectException.class, () -> projectService.create(request(nome,
+                List.of(funcionario1.getId(), gerente.getId()))));
+
+        assertTrue(projectRepository.findAll().stream().noneMatch(p -> nome.equals(p.getNome())));
+    }
+
+    private <T> T measure(int expected, Supplier<T> operation) {
+        int before = dataSource.acquisitions.get();
+        T result = operation.get();
+        assertEquals(expected, dataSource.acquisitions.get() - before);
+        return result;
+    }
+
+    private ProjectRequestDTO request(String nome, List<Long> membros) {
+        return new ProjectRequestDTO(nome, LocalDate.now(), LocalDate.now().plusMonths(1), BigDecimal.TEN,
+                "Teste de transação", gerente.getId(), membros);
+    }
+
+    private Member save(String nome, String cargo) {
+        Member member = new Member();
+        member.setNome(nome);
+        member.setCargo(cargo);
+        member = memberRepository.save(member);
+        members.add(member);
+        return member;
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds && !(bean instanceof CountingDataSource)
+                            ? new CountingDataSource(ds) : bean;
+                }
+            };
+        }
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+        private final AtomicInteger acquisitions = new AtomicInteger();
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquisitions.incrementAndGet();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquisitions.incrementAndGet();
+            return super.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.planejao.gestao_projetos.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProjectTimelineTest {
+
+    @Autowired
+    private ProjectTimeline timeline;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ProjectFixtures fixtures;
+    private MemberDTO gerente;
+    private MemberDTO funcionarioB;
+    private ProjectDTO trimestre;
+    private ProjectDTO fevereiro;
+    private ProjectDTO maio;
+
+    @BeforeEach
+    void setUp() {
+        fixtures = new ProjectFixtures(projectService, memberService, projectRepository, memberRepository);
+        gerente = fixtures.member("Gerente Timeline", "gerente");
+        MemberDTO funcionarioA = fixtures.member("Funcionario Timeline A", "funcionario");
+        funcionarioB = fixtures.member("Funcionario Timeline B", "funcionario");
+        trimestre = create("Trimestre", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 3, 1), funcionarioA);
+        fevereiro = create("Fevereiro", LocalDate.of(2030, 2, 15), LocalDate.of(2030, 2, 20), funcionarioB);
+        maio = create("Maio", LocalDate.of(2030, 5, 1), LocalDate.of(2030, 6, 1), funcionarioA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanup();
+    }
+
+    @Test
+    void returnsProjectsOverlappingTheWindow() throws IOException {
+        assertEquals(Set.of(trimestre.id(), fevereiro.id()), ids(LocalDate.of(2030, 2, 10), LocalDate.of(2030, 4, 1)));
+        // Extremos inclusos dos dois lados
+        assertEquals(Set.of(trimestre.id()), ids(LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 1)));
+        assertEquals(Set.of(maio.id()), ids(LocalDate.of(2030, 6, 1), LocalDate.of(2030, 12, 31)));
+
+        JsonNode entries = json(LocalDate.of(2030, 2, 16), LocalDate.of(2030, 2, 16));
+        assertEquals(2, entries.size());
+        JsonNode entry = StreamSupport.stream(entries.spliterator(), false)
+                .filter(n -> n.get("id").asLong() == fevereiro.id()).findFirst().orElseThrow();
+        assertEquals("Fevereiro", entry.get("nome").asText());
+        assertEquals("EM_ANALISE", entry.get("status").asText());
+        assertEquals("2030-02-15", entry.get("dataInicio").asText());
+        assertEquals("2030-02-20", entry.get("previsaoTermino").asText());
+        assertEquals(gerente.id(), entry.get("gerenteId").asLong());
+        assertFalse(entry.has("dataRealTermino"));
+    }
+
+    @Test
+    void realEndReplacesPlannedEnd() throws IOException {
+        Project project = projectRepository.findById(trimestre.id()).orElseThrow();
+        project.setDataRealTermino(LocalDate.of(2030, 1, 20));
+        projectRepository.save(project);
+
+        assertEquals(Set.of(fevereiro.id()), ids(LocalDate.of(2030, 2, 10), LocalDate.of(2030, 4, 1)));
+        assertEquals(Set.of(trimestre.id()), ids(LocalDate.of(2030, 1, 20), LocalDate.of(2030, 1, 20)));
+    }
+
+    @Test
+    void filtersByMemberAndRejectsInvertedWindow() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        timeline.stream(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 12, 31), Optional.empty(),
+                Optional.of(funcionarioB.id()), false).writeTo(out);
+        assertEquals(Set.of(fevereiro.id()), ids(objectMapper.readTree(out.toByteArray())));
+
+        ProjectException error = assertThrows(ProjectException.class, () -> timeline.stream(LocalDate.of(2030, 2, 1),
+                LocalDate.of(2030, 1, 1), Optional.empty(), Optional.empty(), false));
+        assertEquals("Janela inválida: 'from' depois de 'to'", error.getMessage());
+    }
+
+    private Set<Long> ids(LocalDate from, LocalDate to) throws IOException {
+        return ids(json(from, to));
+    }
+
+    private Set<Long> ids(JsonNode array) {
+        return StreamSupport.stream(array.spliterator(), false).map(n -> n.get("id").asLong()).collect(Collectors.toSet());
+    }
+
+    // Filtra pelo gerente do teste para não enxergar projetos de outras classes
+    private JsonNode json(LocalDate from, LocalDate to) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        timeline.stream(from, to, Optional.of(gerente.id()), Optional.empty(), false).writeTo(out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    private ProjectDTO create(String nome, LocalDate inicio, LocalDate previsao, MemberDTO funcionario) {
+        return fixtures.create(new ProjectRequestDTO(nome, inicio, previsao, BigDecimal.TEN, "Teste da linha do tempo",
+                gerente.id(), List.of(funcionario.id())));
+    }
+}
@@ -0,0 +1,107 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.ProjectUpdateDTO;
+import com.planejao.gestao_projetos.dto.WriteStatus;
+import com.planejao.gestao_projetos.dto.WriteTicketDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ProjectWritePipelineTest {
+
+    @Autowired
+    private ProjectWritePipeline pipeline;
+
+    @MockBean
+    private ProjectRepository projectRepository;
+
+    @MockBean
+    private MemberService memberService;
+
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        reset(projectRepository, memberService);
+        project = new Project();
+        project.setId(1L);
+        project.setNome("Old Name");
+        project.setStatus(StatusProjeto.EM_ANALISE);
+        when(projectRepository.findAllById(any())).thenReturn(List.of(project));
+    }
+
+    @Test
+    void coalescesWritesToSameProjectInOneBatch() {
+        List<UUID> trackingIds = List.of(
+                pipeline.submitUpdate(1L, new ProjectUpdateDTO("Nome 1", null, null, null, null, null, null)).trackingId(),
+                pipeline.submitUpdate(1L, new ProjectUpdateDTO(null, null, null, null, BigDecimal.TEN, null, null)).trackingId(),
+                pipeline.submitStatus(1L, StatusProjeto.ANALISE_REALIZADA).trackingId());
+
+        trackingIds.forEach(id -> assertEquals(WriteStatus.APLICADO, await(id).status()));
+        assertEquals("Nome 1", project.getNome());
+        assertEquals(BigDecimal.TEN, project.getOrcamentoTotal());
+        assertEquals(StatusProjeto.ANALISE_REALIZADA, project.getStatus());
+    }
+
+    @Test
+    void reportsInvalidWritesWithoutFailingTheBatch() {
+        UUID invalid = pipeline.submitStatus(1L, StatusProjeto.ENCERRADO).trackingId();
+        UUID valid = pipeline.submitUpdate(1L, new ProjectUpdateDTO("Novo", null, null, null, null, null, null)).trackingId();
+
+        WriteTicketDTO failed = await(invalid);
+        assertEquals(WriteStatus.FALHOU, failed.status());
+        assertNotNull(failed.erro());
+        assertEquals(WriteStatus.APLICADO, await(valid).status());
+        assertEquals("Novo", project.getNome());
+        assertEquals(StatusProjeto.EM_ANALISE, project.getStatus());
+    }
+
+    @Test
+    void unknownProjectFails() {
+        when(projectRepository.findAllById(any())).thenReturn(List.of());
+
+        WriteTicketDTO ticket = await(pipeline.submitStatus(99L, StatusProjeto.CANCELADO).trackingId());
+
+        assertEquals(WriteStatus.FALHOU, ticket.status());
+        assertEquals("Projeto não encontrado", ticket.erro());
+    }
+
+    @Test
+    void unknownTicketThrows() {
+        assertThrows(ProjectException.class, () -> pipeline.getTicket(UUID.randomUUID()));
+    }
+
+    private WriteTicketDTO await(UUID trackingId) {
+        long deadline = System.currentTimeMillis() + 5000;
+        WriteTicketDTO ticket = pipeline.getTicket(trackingId);
+        while (ticket.status() == WriteStatus.PENDENTE && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+            ticket = pipeline.getTicket(trackingId);
+        }
+        return ticket;
+    }
+
+    @Test
+    void readsRespondAsyncFromAnyPreferValue() {
+        assertTrue(ProjectWritePipeline.respondAsync(List.of("respond-async")));
+        assertTrue(ProjectWritePipeline.respondAsync(List.of("respond-async, wait=5")));
+        assertTrue(ProjectWritePipeline.respondAsync(List.of("return=minimal", "Respond-Async; x=1")));
+        assertFalse(ProjectWritePipeline.respondAsync(List.of("wait=5")));
+        assertFalse(ProjectWritePipeline.respondAsync(null));
+    }
+}
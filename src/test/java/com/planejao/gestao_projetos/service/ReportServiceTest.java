@@ -0,0 +1,97 @@
+package com.planejao.gestao_projetos.service;
+
+import com.planejao.gestao_projetos.domain.Member;
+import com.planejao.gestao_projetos.domain.Project;
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.DimensionalReportDTO;
+import com.planejao.gestao_projetos.dto.ReportBucketDTO;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Executa os GROUP BY nativos contra o banco real; os projetos do teste usam um gerente e um mês de início exclusivos
+@SpringBootTest
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Member gerente;
+    private final List<Project> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        gerente = new Member();
+        gerente.setNome("Gerente Relatório");
+        gerente.setCargo("gerente");
+        gerente = memberRepository.save(gerente);
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll(created);
+        memberRepository.delete(gerente);
+    }
+
+    @Test
+    void dimensionalReportAggregatesInDatabase() {
+        Map<String, ReportBucketDTO> riscoAntes = byKey(reportService.getDimensionalReport().porRisco());
+
+        save(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 31), "50000");
+        save(LocalDate.of(1990, 1, 10), LocalDate.of(1990, 3, 1), "80000");
+        save(LocalDate.of(1990, 1, 15), LocalDate.of(1991, 1, 15), "90000");
+
+        DimensionalReportDTO report = reportService.getDimensionalReport();
+
+        ReportBucketDTO porGerente = byKey(report.porGerente()).get(String.valueOf(gerente.getId()));
+        assertEquals(3, porGerente.quantidade());
+        assertEquals(0, new BigDecimal("220000").compareTo(porGerente.orcamentoTotal()));
+        assertEquals((30 + 50 + 365) / 3.0, porGerente.mediaDuracaoDias(), 0.001);
+
+        ReportBucketDTO porMes = byKey(report.porMesInicio()).get("1990-01");
+        assertEquals(3, porMes.quantidade());
+
+        Map<String, ReportBucketDTO> riscoDepois = byKey(report.porRisco());
+        assertEquals(2, count(riscoDepois, "Baixo") - count(riscoAntes, "Baixo"));
+        assertEquals(1, count(riscoDepois, "Alto") - count(riscoAntes, "Alto"));
+    }
+
+    private void save(LocalDate inicio, LocalDate termino, String orcamento) {
+        Project project = new Project();
+        project.setNome("Relatório");
+        project.setDataInicio(inicio);
+        project.setPrevisaoTermino(termino);
+        project.setOrcamentoTotal(new BigDecimal(orcamento));
+        project.setDescricao("Teste de relatório");
+        project.setGerente(gerente);
+        project.setStatus(StatusProjeto.EM_ANALISE);
+        created.add(projectRepository.save(project));
+    }
+
+    private long count(Map<String, ReportBucketDTO> buckets, String key) {
+        return buckets.containsKey(key) ? buckets.get(key).quantidade() : 0;
+    }
+
+    private Map<String, ReportBucketDTO> byKey(List<ReportBucketDTO> buckets) {
+        return buckets.stream().collect(Collectors.toMap(ReportBucketDTO::chave, b -> b));
+    }
+}
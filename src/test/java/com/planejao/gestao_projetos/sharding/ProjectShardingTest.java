@@ -0,0 +1,299 @@
+package com.planejao.gestao_projetos.sharding;
+
+import com.planejao.gestao_projetos.domain.StatusProjeto;
+import com.planejao.gestao_projetos.dto.MemberDTO;
+import com.planejao.gestao_projetos.dto.ProjectDTO;
+import com.planejao.gestao_projetos.dto.ProjectRequestDTO;
+import com.planejao.gestao_projetos.dto.ReportDTO;
+import com.planejao.gestao_projetos.exception.ProjectException;
+import com.planejao.gestao_projetos.repository.MemberRepository;
+import com.planejao.gestao_projetos.repository.ProjectRepository;
+import com.planejao.gestao_projetos.service.MemberReplicaReconciler;
+import com.planejao.gestao_projetos.service.MemberService;
+import com.planejao.gestao_projetos.service.ProjectService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Três bancos novos no Postgres local de testes, um por shard, recriados a cada execução. As migrações usam SQL
+// específico do Postgres (views, ON CONFLICT, advisory locks), então os shards não podem ser bancos em memória. Cada
+// banco novo recebe os exemplos do V2, então a subida redistribui (sharding.rebalance) como numa divisão de verdade.
+// O contexto é fechado no fim para devolver as conexões dos três pools, que nenhuma outra classe reaproveita.
+@SpringBootTest
+@DirtiesContext
+class ProjectShardingTest {
+
+    private static final String ADMIN_URL = "jdbc:postgresql://localhost:5432/postgres";
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ProjectShards shards;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberReplicaReconciler reconciler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void shards(DynamicPropertyRegistry registry) throws SQLException {
+        registry.add("sharding.enabled", () -> "true");
+        registry.add("sharding.rebalance", () -> "true");
+        try (Connection admin = DriverManager.getConnection(ADMIN_URL, "postgres", "root");
+             Statement statement = admin.createStatement()) {
+            for (int i = 0; i < SHARDS; i++) {
+                statement.execute("DROP DATABASE IF EXISTS gestao_shard_" + i + " WITH (FORCE)");
+                statement.execute("CREATE DATABASE gestao_shard_" + i);
+                int shard = i;
+                registry.add("sharding.shards[" + i + "].url", () -> "jdbc:postgresql://localhost:5432/gestao_shard_" + shard);
+                registry.add("sharding.shards[" + i + "].username", () -> "postgres");
+                registry.add("sharding.shards[" + i + "].password", () -> "root");
+                registry.add("sharding.shards[" + i + "].max-pool-size", () -> "4");
+            }
+        }
+    }
+
+    @Test
+    void routesProjectsByIdAndMergesSortedPages() {
+        Optional<StatusProjeto> emAnalise = Optional.of(StatusProjeto.EM_ANALISE);
+        long antes = projectService.list(PageRequest.of(0, 1), emAnalise).getTotalElements();
+        MemberDTO gerente = memberService.createMember("Gerente Shard", "gerente");
+        List<String> nomes = List.of("Delta", "Alfa", "Foxtrot", "Charlie", "Eco", "Bravo");
+        List<ProjectDTO> created = new ArrayList<>();
+        List<MemberDTO> funcionarios = new ArrayList<>();
+        for (String nome : nomes) {
+            MemberDTO funcionario = memberService.createMember("Funcionario " + nome, "funcionario");
+            funcionarios.add(funcionario);
+            created.add(projectService.create(request(nome, gerente, funcionario)));
+        }
+
+        // Cada shard recebeu dois projetos, com ids que apontam para ele
+        List<List<Long>> idsPorShard = shards.scatter(s -> projectRepository.findAll().stream().map(p -> p.getId()).toList());
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int current = shard;
+            List<Long> ids = idsPorShard.get(shard);
+            assertTrue(ids.stream().allMatch(id -> shards.shardOf(id) == current), "shard " + shard + ": " + ids);
+        }
+        assertEquals(SHARDS, created.stream().map(p -> shards.shardOf(p.id())).distinct().count());
+        for (ProjectDTO project : created) {
+            assertEquals(project.nome(), projectService.getById(project.id()).nome());
+        }
+
+        // Páginas intercaladas entre shards na mesma ordem de uma consulta única
+        long total = antes + nomes.size();
+        List<String> paginado = new ArrayList<>();
+        for (int page = 0; page * 2 < total; page++) {
+            Page<ProjectDTO> result = projectService.list(PageRequest.of(page, 2, Sort.by("nome")), emAnalise);
+            assertEquals(total, result.getTotalElements());
+            result.forEach(p -> paginado.add(p.nome()));
+        }
+        assertEquals(total, paginado.size());
+        assertEquals(paginado.stream().sorted().toList(), paginado);
+        assertEquals(List.of("Alfa", "Bravo", "Charlie", "Delta", "Eco", "Foxtrot"),
+                paginado.stream().filter(nomes::contains).toList());
+
+        // Membros são replicados em todos os shards
+        List<Long> funcionarioIds = funcionarios.stream().map(MemberDTO::id).toList();
+        assertTrue(shards.scatter(s -> memberRepository.findAllById(funcionarioIds).size())
+                .stream().allMatch(n -> n == funcionarioIds.size()));
+
+        ReportDTO report = projectService.getReport();
+        assertEquals(total, report.quantidadePorStatus().get("EM_ANALISE"));
+    }
+
+    @Test
+    void mergesTextSortsInTheDatabaseOrder() {
+        MemberDTO gerente = memberService.createMember("Gerente Ordem", "gerente");
+        List<String> nomes = List.of("Ordem Zeta", "Ordem Ágata", "Ordem alfa", "Ordem Ébano", "Ordem Beta",
+                "Ordem Úrsula");
+        for (int i = 0; i < nomes.size(); i++) {
+            MemberDTO funcionario = memberService.createMember("Funcionario Ordem " + i, "funcionario");
+            ProjectDTO project = projectService.create(request(nomes.get(i), gerente, funcionario));
+            // EM_ANALISE vem antes pela declaração do enum e depois pelo nome gravado na coluna
+            if (i % 3 == 1) {
+                projectService.changeStatus(project.id(), StatusProjeto.ANALISE_REALIZADA);
+            } else if (i % 3 == 2) {
+                projectService.changeStatus(project.id(), StatusProjeto.CANCELADO);
+            }
+        }
+
+        PageRequest porStatus = PageRequest.of(0, 1000, Sort.by("status"));
+        List<String> status = projectService.list(porStatus, Optional.empty()).map(p -> p.status().name()).toList();
+        assertEquals(status.stream().sorted().toList(), status);
+
+        // Por código Unicode, como a collation "C": maiúsculas ASCII, minúsculas e depois as acentuadas
+        PageRequest porNome = PageRequest.of(0, 1000, Sort.by(Sort.Direction.DESC, "nome"));
+        List<String> ordem = projectService.list(porNome, Optional.empty()).map(ProjectDTO::nome).stream()
+                .filter(nomes::contains).toList();
+        assertEquals(List.of("Ordem Úrsula", "Ordem Ébano", "Ordem Ágata", "Ordem alfa", "Ordem Zeta", "Ordem Beta"),
+                ordem);
+    }
+
+    @Test
+    void activeProjectLimitSpansAllShards() {
+        MemberDTO gerente = memberService.createMember("Gerente Limite", "gerente");
+        MemberDTO funcionario = memberService.createMember("Funcionario Limite", "funcionario");
+        List<ProjectDTO> projects = IntStream.range(0, 3)
+                .mapToObj(i -> projectService.create(request("Limite " + i, gerente, funcionario)))
+                .toList();
+        assertEquals(3, projects.stream().map(p -> shards.shardOf(p.id())).distinct().count());
+
+        ProjectException error = assertThrows(ProjectException.class,
+                () -> projectService.create(request("Limite 3", gerente, funcionario)));
+        assertEquals("Membro já alocado em 3 projetos ativos", error.getMessage());
+    }
+
+    @Test
+    void concurrentAllocationsOfTheSameMemberAreSerialized() throws Exception {
+        MemberDTO gerente = memberService.createMember("Gerente Concorrencia", "gerente");
+        MemberDTO disputado = memberService.createMember("Funcionario Disputado", "funcionario");
+        MemberDTO outro = memberService.createMember("Funcionario Concorrencia", "funcionario");
+        projectService.create(request("Concorrencia 0", gerente, disputado));
+        projectService.create(request("Concorrencia 1", gerente, disputado));
+        ProjectDTO terceiro = projectService.create(request("Concorrencia 2", gerente, outro));
+        ProjectDTO quarto = projectService.create(request("Concorrencia 3", gerente, outro));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        CountDownLatch alocado = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // A primeira alocação segura a transação aberta depois de alocar o terceiro projeto ativo
+            Future<?> primeira = executor.submit(() -> transaction.executeWithoutResult(tx -> {
+                projectService.addMember(terceiro.id(), disputado.id());
+                alocado.countDown();
+                await(commit);
+            }));
+            assertTrue(alocado.await(10, TimeUnit.SECONDS));
+            Future<?> segunda = executor.submit(() -> projectService.addMember(quarto.id(), disputado.id()));
+            assertThrows(TimeoutException.class, () -> segunda.get(500, TimeUnit.MILLISECONDS));
+
+            commit.countDown();
+            primeira.get(10, TimeUnit.SECONDS);
+            ExecutionException error = assertThrows(ExecutionException.class, () -> segunda.get(10, TimeUnit.SECONDS));
+            assertEquals("Membro já alocado em 3 projetos ativos", error.getCause().getMessage());
+        } finally {
+            commit.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void boundTaskRunByCallerKeepsCallerShard() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        // Um worker e nenhuma fila: com o worker ocupado a próxima tarefa roda na thread de quem submete
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            executor.submit(() -> {
+                liberar.await();
+                return null;
+            });
+            Thread caller = Thread.currentThread();
+            Thread executada = shards.on(1, () -> {
+                Future<Thread> result = executor.submit(shards.bind(() -> {
+                    assertEquals(1, ShardContext.current());
+                    return Thread.currentThread();
+                }));
+                assertEquals(1, ShardContext.current());
+                return join(result);
+            });
+            assertSame(caller, executada);
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void membersAreReplicatedAfterCommitAndReconciled() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Long desfeito = transaction.execute(tx -> {
+            tx.setRollbackOnly();
+            return memberService.createMember("Membro Desfeito", "funcionario").id();
+        });
+        assertTrue(shards.scatter(s -> memberRepository.existsById(desfeito)).stream().noneMatch(b -> b));
+
+        MemberDTO member = memberService.createMember("Membro Reconciliado", "funcionario");
+        assertTrue(shards.scatter(s -> memberRepository.existsById(member.id())).stream().allMatch(b -> b));
+        // Como se a cópia para o shard 2 tivesse falhado depois do commit
+        shards.on(2, () -> transaction.execute(tx -> {
+            memberRepository.deleteById(member.id());
+            return null;
+        }));
+        assertEquals(List.of(true, true, false), shards.scatter(s -> memberRepository.existsById(member.id())));
+
+        assertTrue(reconciler.reconcile() >= 1);
+        assertTrue(shards.scatter(s -> memberRepository.existsById(member.id())).stream().allMatch(b -> b));
+        assertEquals(0, reconciler.reconcile());
+    }
+
+    @Test
+    void rejectsPagesDeeperThanTheShardLimit() {
+        assertEquals(0, projectService.list(PageRequest.of(499, 20), Optional.empty()).getNumberOfElements());
+        assertThrows(ProjectException.class, () -> projectService.list(PageRequest.of(500, 20), Optional.empty()));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ProjectRequestDTO request(String nome, MemberDTO gerente, MemberDTO funcionario) {
+        return new ProjectRequestDTO(nome, LocalDate.now(), LocalDate.now().plusMonths(1), new BigDecimal("1000"),
+                "Teste de particionamento", gerente.id(), List.of(funcionario.id()));
+    }
+}
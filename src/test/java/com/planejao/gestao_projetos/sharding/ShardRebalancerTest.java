@@ -0,0 +1,128 @@
+package com.planejao.gestao_projetos.sharding;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dois bancos novos por teste, como em ProjectShardingTest, mas sem contexto Spring: o rebalanceamento roda antes dele
+class ShardRebalancerTest {
+
+    private static final String ADMIN_URL = "jdbc:postgresql://localhost:5432/postgres";
+    private static final int SHARDS = 2;
+
+    private final List<DataSource> shards = new ArrayList<>();
+    private final List<JdbcTemplate> jdbc = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Connection admin = DriverManager.getConnection(ADMIN_URL, "postgres", "root");
+             Statement statement = admin.createStatement()) {
+            for (int i = 0; i < SHARDS; i++) {
+                statement.execute("DROP DATABASE IF EXISTS gestao_rebalance_" + i + " WITH (FORCE)");
+                statement.execute("CREATE DATABASE gestao_rebalance_" + i);
+                DataSource shard = new DriverManagerDataSource("jdbc:postgresql://localhost:5432/gestao_rebalance_" + i,
+                        "postgres", "root");
+                Flyway.configure().dataSource(shard).locations("classpath:db/migration").load().migrate();
+                shards.add(shard);
+                jdbc.add(new JdbcTemplate(shard));
+            }
+        }
+    }
+
+    @Test
+    void validateRefusesShardsWithProjectsAndKeepsThem() {
+        // Os dois bancos têm os três projetos do V2 e ainda geram ids de um em um
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new ShardRebalancer(shards).validate());
+        assertTrue(error.getMessage().contains("sharding.rebalance=true"), error.getMessage());
+
+        for (JdbcTemplate shard : jdbc) {
+            assertEquals(3, count(shard, "projects"));
+            assertEquals(4, count(shard, "project_membros"));
+        }
+    }
+
+    @Test
+    void validateOnlyRestartsIdsOfEmptyShards() {
+        for (JdbcTemplate shard : jdbc) {
+            shard.update("DELETE FROM project_membros");
+            shard.update("DELETE FROM projects");
+        }
+
+        new ShardRebalancer(shards).validate();
+
+        for (int i = 0; i < SHARDS; i++) {
+            assertEquals(i + 1, insertProject(jdbc.get(i), "Novo", "EM_ANALISE"));
+        }
+    }
+
+    @Test
+    void rebalanceCopiesProjectsToTheirShardBeforeRemovingThem() {
+        // Shard 0 é o banco antigo com todos os projetos; o shard 1 é um banco novo sem projetos
+        JdbcTemplate antigo = jdbc.get(0);
+        jdbc.get(1).update("DELETE FROM project_membros");
+        jdbc.get(1).update("DELETE FROM projects");
+        long membro = antigo.queryForObject("INSERT INTO members (nome, cargo) VALUES ('Só no antigo', 'funcionario') "
+                + "RETURNING id", Long.class);
+        long extra = insertProject(antigo, "Extra", "EM_ANDAMENTO");
+        antigo.update("INSERT INTO project_membros (project_id, membros) VALUES (?, ?)", extra, membro);
+        antigo.update("""
+                INSERT INTO projects_archive (id, data_inicio, previsao_termino, orcamento_total, gerente_id, nome, status,
+                                              arquivado_em)
+                VALUES (100, DATE '2020-01-01', DATE '2020-06-01', 500, 1, 'Arquivado', 'ENCERRADO', now())
+                """);
+        antigo.update("INSERT INTO project_membros_archive (project_id, membros) VALUES (100, ?)", membro);
+        List<String> todos = antigo.queryForList("SELECT nome FROM projects ORDER BY id", String.class);
+
+        ShardRebalancer rebalancer = new ShardRebalancer(shards);
+        rebalancer.rebalance();
+        rebalancer.validate();
+
+        // ids 1 e 3 ficam no shard 0; 2, 4 (o extra) e o arquivado 100 vão para o shard 1
+        assertEquals(List.of(1L, 3L), antigo.queryForList("SELECT id FROM projects ORDER BY id", Long.class));
+        assertEquals(List.of(2L, extra), jdbc.get(1).queryForList("SELECT id FROM projects ORDER BY id", Long.class));
+        List<String> distribuidos = new ArrayList<>();
+        jdbc.forEach(shard -> distribuidos.addAll(shard.queryForList("SELECT nome FROM projects", String.class)));
+        assertEquals(todos.stream().sorted().toList(), distribuidos.stream().sorted().toList());
+        assertEquals(List.of(membro), jdbc.get(1).queryForList(
+                "SELECT membros FROM project_membros WHERE project_id = ?", Long.class, extra));
+        assertEquals(List.of(2L), jdbc.get(1).queryForList(
+                "SELECT membros FROM project_membros WHERE project_id = 2", Long.class));
+        assertEquals(0, count(antigo, "projects_archive"));
+        assertEquals(1, count(jdbc.get(1), "project_membros_archive"));
+        assertEquals(1, jdbc.get(1).queryForObject(
+                "SELECT quantidade FROM projects_archive_resumo WHERE status = 'ENCERRADO'", Long.class));
+        assertEquals(List.of(membro), jdbc.get(1).queryForList("SELECT member_id FROM membros_arquivados", Long.class));
+
+        // Ids novos seguem congruentes ao shard e uma segunda execução não muda nada
+        assertEquals(1, Math.floorMod(insertProject(jdbc.get(1), "Depois", "EM_ANALISE") - 1, SHARDS));
+        assertEquals(0, Math.floorMod(insertProject(antigo, "Depois", "EM_ANALISE") - 1, SHARDS));
+        rebalancer.rebalance();
+        assertEquals(3, count(antigo, "projects"));
+        assertEquals(3, count(jdbc.get(1), "projects"));
+    }
+
+    private long insertProject(JdbcTemplate shard, String nome, String status) {
+        return shard.queryForObject("""
+                INSERT INTO projects (data_inicio, previsao_termino, orcamento_total, gerente_id, nome, status)
+                VALUES (CURRENT_DATE, CURRENT_DATE + 30, 1000, 1, ?, ?)
+                RETURNING id
+                """, Long.class, nome, status);
+    }
+
+    private long count(JdbcTemplate shard, String table) {
+        return shard.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+}